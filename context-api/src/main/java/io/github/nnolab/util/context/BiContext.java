@@ -0,0 +1,37 @@
+package io.github.nnolab.util.context;
+
+/**
+ * Context, that keeps index of keys by values, so lookups by value
+ * ({@link #containsValue(Object)}, {@link #keysOf(Object)},
+ * {@link #removeValue(Object)}) take constant time instead of
+ * iteration over all mappings.
+ * <p>Values are indexed by {@link Object#equals(Object)} and
+ * {@link Object#hashCode()}, so hash codes of values must not change
+ * while they are mapped.
+ *
+ * @author nnolab
+ */
+public interface BiContext extends Context {
+
+    /**
+     * Returns keys, mapped to values, equal to specified one.
+     * Returned keys are a snapshot, not affected by further mutations
+     * of this context.
+     *
+     * @param value value
+     * @return keys, mapped to the value, empty if there are no such keys
+     * @throws NullPointerException if value is {@code null} and implementation
+     *                              does not support {@code null} values
+     */
+    Keys keysOf(Object value);
+
+    /**
+     * Removes all mappings to values, equal to specified one.
+     *
+     * @param value value
+     * @return number of removed mappings
+     * @throws NullPointerException if value is {@code null} and implementation
+     *                              does not support {@code null} values
+     */
+    int removeValue(Object value);
+}
@@ -1,6 +1,9 @@
 package io.github.nnolab.util.context;
 
+import io.github.nnolab.util.context.shells.PrefixContextView;
+
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 import static io.github.nnolab.util.context.Context.ReplaceRule.PUT;
@@ -104,6 +107,19 @@ public interface Context {
         PUT_IF_KEY_ABSENT
     }
 
+    /**
+     * Shared sentinel, returned by {@link #lookup(String)}
+     * if context contains no mapping for the key.
+     * Must never be stored in contexts.
+     */
+    Object NO_MAPPING = new Object() {
+
+        @Override
+        public String toString() {
+            return "NO_MAPPING";
+        }
+    };
+
     /**
      * Associates the specified value with the specified key in this context.
      * If the context previously contained a mapping for
@@ -141,6 +157,24 @@ public interface Context {
         return put(valueType.getName(), value);
     }
 
+    /**
+     * Associates specified key to value, computed by specified supplier
+     * at most once, when the value is read first time.
+     * Until then supplier is held in {@link LazyValue}, see it for
+     * operations, that resolve value.
+     *
+     * @param key      key with which the value is to be associated
+     * @param supplier supplier of value
+     * @return the previous value associated with {@code key} (not resolved,
+     * if it is lazy), or {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if supplier is {@code null}
+     */
+    default Object putLazy(String key, Supplier<?> supplier) {
+        return put(key, new LazyValue(supplier));
+    }
+
     /**
      * Returns the value to, associated to specified key,
      * or {@code null} if this context contains no mapping for the key.
@@ -282,6 +316,22 @@ public interface Context {
      */
     Object getOrDefault(String key, Object defaultValue);
 
+    /**
+     * Returns the value to which the specified key is mapped (even {@code null}),
+     * or {@link #NO_MAPPING} if this context contains no mapping for the key.
+     * Distinguishes absent and {@code null} mappings by single lookup
+     * without allocation of default value.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     * {@link #NO_MAPPING} if this context contains no mapping for the key
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     */
+    default Object lookup(String key) {
+        return getOrDefault(key, NO_MAPPING);
+    }
+
     /**
      * Returns the value to which the specified key is associated,
      * only if this context contains mapping for the key
@@ -444,6 +494,132 @@ public interface Context {
      */
     boolean removeExactly(String key, Object value);
 
+    /**
+     * Replaces the entry for the specified key only if it is currently
+     * mapped to a value, equal to the expected one.
+     *
+     * @param key      key with which the specified value is associated
+     * @param expected value expected to be associated with the specified key
+     * @param newValue value to be associated with the specified key
+     * @return {@code true} if the value was replaced or {@code false} otherwise
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if new value is {@code null} and implementation
+     *                              does not support {@code null} values
+     */
+    default boolean replace(String key, Object expected, Object newValue) {
+        Object value = lookup(key);
+        if (value == NO_MAPPING || !Objects.equals(value, expected)) {
+            return false;
+        }
+        put(key, newValue);
+        return true;
+    }
+
+    /**
+     * Replaces the entry for the specified key only if it is currently
+     * mapped exactly to the expected value, that means
+     * {@code get(key) == expected} is true.
+     * This method may be very useful in non-atomic updating operations.
+     *
+     * @param key      key with which the specified value is associated
+     * @param expected value expected to be associated with the specified key
+     * @param newValue value to be associated with the specified key
+     * @return {@code true} if the value was replaced or {@code false} otherwise
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if new value is {@code null} and implementation
+     *                              does not support {@code null} values
+     */
+    default boolean replaceExactly(String key, Object expected, Object newValue) {
+        if (lookup(key) != expected || expected == NO_MAPPING) {
+            return false;
+        }
+        put(key, newValue);
+        return true;
+    }
+
+    /**
+     * Computes a new value for the specified key and its current value
+     * ({@code null} if there is no mapping). If the new value is {@code null},
+     * the mapping is removed, otherwise the new value is associated with the key.
+     *
+     * @param key      key with which the computed value is to be associated
+     * @param function function to compute new value
+     * @return new value, or {@code null} if the mapping was removed
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if function is {@code null}
+     */
+    default Object compute(String key, BiFunction<String, Object, Object> function) {
+        Objects.requireNonNull(function);
+        Object value = lookup(key);
+        Object newVal = function.apply(key, value == NO_MAPPING ? null : value);
+        if (newVal != null) {
+            put(key, newVal);
+        } else if (value != NO_MAPPING) {
+            remove(key);
+        }
+        return newVal;
+    }
+
+    /**
+     * If the value for the specified key is present and not {@code null},
+     * computes a new value for the key and its current value.
+     * If the new value is {@code null}, the mapping is removed,
+     * otherwise the new value is associated with the key.
+     *
+     * @param key      key with which the computed value is to be associated
+     * @param function function to compute new value
+     * @return new value, or {@code null} if there was no value
+     * or the mapping was removed
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if function is {@code null}
+     */
+    default Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        Objects.requireNonNull(function);
+        Object value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object newVal = function.apply(key, value);
+        if (newVal != null) {
+            put(key, newVal);
+        } else {
+            remove(key);
+        }
+        return newVal;
+    }
+
+    /**
+     * If the specified key is not associated with a value or is mapped
+     * to {@code null}, associates it with the specified value.
+     * Otherwise merges current value with the specified one by the function.
+     * If the merged value is {@code null}, the mapping is removed,
+     * otherwise the merged value is associated with the key.
+     *
+     * @param key      key with which the merged value is to be associated
+     * @param value    value to be merged with the current one
+     * @param function function to merge current value with the specified one
+     * @return new value, or {@code null} if the mapping was removed
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if value or function is {@code null}
+     */
+    default Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(function);
+        Object oldVal = get(key);
+        Object newVal = oldVal == null ? value : function.apply(oldVal, value);
+        if (newVal != null) {
+            put(key, newVal);
+        } else {
+            remove(key);
+        }
+        return newVal;
+    }
+
     /**
      * Removes the entry for the specified key only if it is currently
      * mapped to the specified value.
@@ -481,16 +657,8 @@ public interface Context {
      *                              does not support {@code null} keys
      * @throws NullPointerException if {@code valueType} is {@code null}
      */
-    @SuppressWarnings("unchecked")
     default <T> T removeOfType(String key, Class<T> valueType) {
-        Objects.requireNonNull(valueType);
-        Object value = get(key);
-        if (valueType.isInstance(value)) {
-            removeExactly(key, value);
-            return (T) value;
-        } else {
-            return null;
-        }
+        return removeOrGetDefault(key, valueType, null);
     }
 
     /**
@@ -506,8 +674,8 @@ public interface Context {
      *                              does not support {@code null} keys
      */
     default Object removeOrGetDefault(String key, Object defaultValue) {
-        Object value = get(key);
-        if (value == null) {
+        Object value = lookup(key);
+        if (value == NO_MAPPING || value == null) {
             return defaultValue;
         } else {
             removeExactly(key, value);
@@ -536,8 +704,8 @@ public interface Context {
     @SuppressWarnings("unchecked")
     default <T> T removeOrGetDefault(String key, Class<T> valueType, T defaultValue) {
         Objects.requireNonNull(valueType);
-        Object value = get(key);
-        if (valueType.isInstance(value)) {
+        Object value = lookup(key);
+        if (value != NO_MAPPING && valueType.isInstance(value)) {
             removeExactly(key, value);
             return (T) value;
         } else {
@@ -584,8 +752,8 @@ public interface Context {
     default <T> T removeOrCompute(String key, Class<T> valueType, Function<String, T> function) {
         Objects.requireNonNull(valueType);
         Objects.requireNonNull(function);
-        Object value = get(key);
-        if (valueType.isInstance(value)) {
+        Object value = lookup(key);
+        if (value != NO_MAPPING && valueType.isInstance(value)) {
             removeExactly(key, value);
         } else {
             value = function.apply(key);
@@ -641,6 +809,20 @@ public interface Context {
      */
     boolean equals(Object obj);
 
+    /**
+     * Returns hash code of this context, that is the sum of hash codes
+     * of all mappings, where hash code of a mapping is
+     * {@code Objects.hashCode(key) ^ Objects.hashCode(value)},
+     * like in {@link Map#hashCode()}. So equal contexts have equal hash codes.
+     * <p>Implementations may maintain hash code on every mutation, so hash codes
+     * of values must not change while they are mapped, like hash codes
+     * of {@link HashMap} keys. The context itself, mapped as a value,
+     * is hashed as {@code null}.
+     *
+     * @return hash code of this context
+     */
+    int hashCode();
+
     /**
      * Removes all of the mappings from this context.
      * The context will be empty after this call returns.
@@ -670,6 +852,64 @@ public interface Context {
      */
     Entries entries();
 
+    /**
+     * Iterable of entries, which keys start with specified prefix.
+     * <p>Ordered implementations may override this method
+     * to iterate only over matching entries.
+     *
+     * @param prefix key prefix
+     * @return entries for-loop
+     * @throws NullPointerException if {@code prefix} is {@code null}
+     * @implSpec The default implementation filters {@link #entries()}.
+     */
+    default Entries entries(String prefix) {
+        Objects.requireNonNull(prefix);
+        Entries entries = entries();
+        return () -> new Iterator<Entry>() {
+
+            private final Iterator<Entry> iterator = entries.iterator();
+            private Entry next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    String key = entry.getKey();
+                    if (key != null && key.startsWith(prefix)) {
+                        next = entry;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Entry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry entry = next;
+                next = null;
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Returns a live view of the mappings, which keys start with specified prefix.
+     * Keys of the view are relative to the prefix: key {@code "k"} of the view
+     * is key {@code prefix + "k"} of this context.
+     * <p>The view reads and writes through to this context without copying,
+     * so changes in this context are reflected in the view and visa-versa.
+     * The view is as thread-safe as this context is.
+     *
+     * @param prefix key prefix
+     * @return view of prefixed mappings
+     * @throws NullPointerException if {@code prefix} is {@code null}
+     */
+    default Context view(String prefix) {
+        return new PrefixContextView(this, prefix);
+    }
+
     /**
      * Returns {@code Context} with copied key-value mapping set.
      * <p>Changes in original context must not be reflected in returned context
@@ -1714,4 +1954,73 @@ public interface Context {
         }
         return this;
     }
+
+    /**
+     * Returns {@link LongAdder} counter, associated with specified key.
+     * If there is no mapping for the key or associated value is not
+     * {@code LongAdder}, new counter is associated with the key.
+     * New counter is initialized by previous value, if it is a {@link Number},
+     * or zero otherwise.
+     * <p>Counter is striped, so concurrent updates of the same counter
+     * do not contend on single memory cell. Thread-safe implementations
+     * must guarantee, that concurrent invocations for the same key
+     * return the same counter.
+     *
+     * @param key key of counter
+     * @return counter, associated with the key
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     */
+    default LongAdder longAdder(String key) {
+        Object value = get(key);
+        if (value instanceof LongAdder) {
+            return (LongAdder) value;
+        }
+        LongAdder adder = new LongAdder();
+        if (value instanceof Number) {
+            adder.add(((Number) value).longValue());
+        }
+        put(key, adder);
+        return adder;
+    }
+
+    /**
+     * Adds specified delta to counter, associated with specified key.
+     *
+     * @param key   key of counter
+     * @param delta value to add
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @see #longAdder(String)
+     */
+    default void addLong(String key, long delta) {
+        longAdder(key).add(delta);
+    }
+
+    /**
+     * Equals to {@code addLong(key, 1)}.
+     */
+    default void incrementLong(String key) {
+        longAdder(key).increment();
+    }
+
+    /**
+     * Returns current sum of counter, associated with specified key.
+     * If associated value is a {@link Number}, but not counter,
+     * returns its {@code long} value. If there is no mapping for the key,
+     * or associated value is not a number, returns zero.
+     * <p>Concurrent updates of the counter may be not reflected in the sum.
+     *
+     * @param key key of counter
+     * @return current sum of counter
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     */
+    default long sumLong(String key) {
+        Object value = get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return 0;
+    }
 }
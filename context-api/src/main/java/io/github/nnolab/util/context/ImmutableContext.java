@@ -2,9 +2,12 @@ package io.github.nnolab.util.context;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Context supposed to be immutable.
@@ -158,6 +161,14 @@ public interface ImmutableContext extends Context {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Not supported.
+     */
+    @Override
+    default Object putLazy(String key, Supplier<?> supplier) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Not supported.
      */
@@ -466,4 +477,68 @@ public interface ImmutableContext extends Context {
     default Context drainFrom(Map<String, Object> source, ReplaceRule replaceRule, BiPredicate<String, Object> criteria) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default LongAdder longAdder(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default void addLong(String key, long delta) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default void incrementLong(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default boolean replace(String key, Object expected, Object newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default boolean replaceExactly(String key, Object expected, Object newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default Object compute(String key, BiFunction<String, Object, Object> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    default Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -0,0 +1,94 @@
+package io.github.nnolab.util.context;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Holder of value, computed by supplier at most once, on first access.
+ * Stored in contexts by {@link Context#putLazy(String, Supplier)}.
+ * <p>Contexts resolve holders, whenever value is returned, compared
+ * or passed to user code: by {@code get}-like, {@code put}-like,
+ * {@code remove}-like and {@code compute}-like methods, by value queries,
+ * values and entries iteration, {@code forEach}, {@code filter} and
+ * copying by criteria, and store resolved value instead of holder.
+ * Other operations (key iteration, copying and draining of all mappings)
+ * do not force computation and move holder itself, so copies of context
+ * share holder and computed value. Equality of contexts resolves holders,
+ * but hash codes of contexts with unresolved holders are unspecified.
+ * <p>Resolution is thread-safe: supplier is called under lock of holder
+ * and computed value is safely published to all threads.
+ * Supplier must not modify context, which holds this value.
+ * Serialized holder is replaced by resolved value.
+ *
+ * @author nnolab
+ */
+public final class LazyValue implements Supplier<Object>, Serializable {
+
+    private static final long serialVersionUID = 3872154408614725095L;
+
+    private static final Object UNRESOLVED = new Object();
+
+    private transient Supplier<?> supplier;
+    private transient volatile Object value = UNRESOLVED;
+
+    /**
+     * @param supplier supplier of value
+     * @throws NullPointerException if supplier is {@code null}
+     */
+    public LazyValue(Supplier<?> supplier) {
+        this.supplier = Objects.requireNonNull(supplier);
+    }
+
+    /**
+     * Returns value, computing it on first call.
+     * If supplier throws exception, value stays unresolved
+     * and will be computed again on next call.
+     *
+     * @return value
+     */
+    @Override
+    public Object get() {
+        Object v = value;
+        if (v == UNRESOLVED) {
+            synchronized (this) {
+                v = value;
+                if (v == UNRESOLVED) {
+                    v = supplier.get();
+                    value = v;
+                    supplier = null;
+                }
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Answers, is value already computed.
+     *
+     * @return {@code true} if value is computed
+     */
+    public boolean isResolved() {
+        return value != UNRESOLVED;
+    }
+
+    /**
+     * Resolve specified value, if it is lazy.
+     *
+     * @param value value or holder of value
+     * @return value, computed by holder, or specified value itself
+     */
+    public static Object resolve(Object value) {
+        return value instanceof LazyValue ? ((LazyValue) value).get() : value;
+    }
+
+    @Override
+    public String toString() {
+        Object v = value;
+        return v == UNRESOLVED ? "LazyValue[unresolved]" : String.valueOf(v);
+    }
+
+    private Object writeReplace() {
+        return get();
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.nnolab.util.context;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 /**
@@ -18,9 +19,8 @@ public interface LockSafeContext extends Context {
     @Override
     default Object getOrCompute(String key, Function<String, Object> function) {
         Objects.requireNonNull(function);
-        Object stub = new Object();
-        Object value = getOrDefault(key, stub);
-        if (value == stub) {
+        Object value = lookup(key);
+        if (value == NO_MAPPING) {
             value = function.apply(key);
         }
         return value;
@@ -44,9 +44,8 @@ public interface LockSafeContext extends Context {
     @Override
     default Object getOrComputeAndPut(String key, Function<String, Object> function) {
         Objects.requireNonNull(function);
-        Object stub = new Object();
-        Object value = getOrDefault(key, stub);
-        if (value == stub) {
+        Object value = lookup(key);
+        if (value == NO_MAPPING) {
             value = function.apply(key);
             put(key, value);
         }
@@ -92,9 +91,8 @@ public interface LockSafeContext extends Context {
     @Override
     default Object removeOrCompute(String key, Function<String, Object> function) {
         Objects.requireNonNull(function);
-        Object stub = new Object();
-        Object value = removeOrGetDefault(key, stub);
-        if (value == stub) {
+        Object value = removeOrGetDefault(key, NO_MAPPING);
+        if (value == NO_MAPPING) {
             value = function.apply(key);
         }
         return value;
@@ -465,4 +463,147 @@ public interface LockSafeContext extends Context {
         Context.super.forEach(criteria, action);
         return this;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>Implemented by atomic operations of this context, so new counter
+     * is created outside of synchronized body. Previous value, replaced
+     * by counter concurrently, is added to counter, returned by any of
+     * concurrent invocations.
+     */
+    @Override
+    default LongAdder longAdder(String key) {
+        long carry = 0;
+        while (true) {
+            Object value = get(key);
+            if (value instanceof LongAdder) {
+                LongAdder adder = (LongAdder) value;
+                if (carry != 0) {
+                    adder.add(carry);
+                }
+                return adder;
+            }
+            if (value == null) {
+                LongAdder adder = new LongAdder();
+                adder.add(carry);
+                if (putIfAbsent(key, adder) == null) {
+                    return adder;
+                }
+            } else if (removeExactly(key, value) && value instanceof Number) {
+                carry += ((Number) value).longValue();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Values are compared outside of synchronized body,
+     * then the value is replaced by {@link #replaceExactly(String, Object, Object)}.
+     */
+    @Override
+    default boolean replace(String key, Object expected, Object newValue) {
+        while (true) {
+            Object value = lookup(key);
+            if (value == NO_MAPPING || !Objects.equals(value, expected)) {
+                return false;
+            }
+            if (replaceExactly(key, value, newValue)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * In case of concurrent access to this method of one instance
+     * {@code function} can be called more than once.
+     * It may be undesired for {@code function} with side-effects.
+     *
+     * @param key      key with which the computed value is to be associated
+     * @param function function to compute new value
+     * @return new value, or {@code null} if the mapping was removed
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if function is {@code null}
+     */
+    @Override
+    default Object compute(String key, BiFunction<String, Object, Object> function) {
+        Objects.requireNonNull(function);
+        while (true) {
+            Object value = get(key);
+            Object newVal = function.apply(key, value);
+            boolean done;
+            if (value == null) {
+                done = newVal == null
+                        ? !containsKey(key) || removeExactly(key, null)
+                        : putIfAbsent(key, newVal) == null;
+            } else {
+                done = newVal == null
+                        ? removeExactly(key, value)
+                        : replaceExactly(key, value, newVal);
+            }
+            if (done) {
+                return newVal;
+            }
+        }
+    }
+
+    /**
+     * In case of concurrent access to this method of one instance
+     * {@code function} can be called more than once.
+     * It may be undesired for {@code function} with side-effects.
+     *
+     * @param key      key with which the computed value is to be associated
+     * @param function function to compute new value
+     * @return new value, or {@code null} if there was no value
+     * or the mapping was removed
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if function is {@code null}
+     */
+    @Override
+    default Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        Objects.requireNonNull(function);
+        while (true) {
+            Object value = get(key);
+            if (value == null) {
+                return null;
+            }
+            Object newVal = function.apply(key, value);
+            if (newVal == null ? removeExactly(key, value) : replaceExactly(key, value, newVal)) {
+                return newVal;
+            }
+        }
+    }
+
+    /**
+     * In case of concurrent access to this method of one instance
+     * {@code function} can be called more than once.
+     * It may be undesired for {@code function} with side-effects.
+     *
+     * @param key      key with which the merged value is to be associated
+     * @param value    value to be merged with the current one
+     * @param function function to merge current value with the specified one
+     * @return new value, or {@code null} if the mapping was removed
+     * @throws NullPointerException if key is {@code null} and implementation
+     *                              does not support {@code null} keys
+     * @throws NullPointerException if value or function is {@code null}
+     */
+    @Override
+    default Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(function);
+        while (true) {
+            Object oldVal = get(key);
+            if (oldVal == null) {
+                if (putIfAbsent(key, value) == null) {
+                    return value;
+                }
+                continue;
+            }
+            Object newVal = function.apply(oldVal, value);
+            if (newVal == null ? removeExactly(key, oldVal) : replaceExactly(key, oldVal, newVal)) {
+                return newVal;
+            }
+        }
+    }
 }
@@ -0,0 +1,127 @@
+package io.github.nnolab.util.context.pool;
+
+import io.github.nnolab.util.context.Context;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.*;
+
+/**
+ * Pool of reusable {@link Context} instances.
+ * <p>Each thread has its own bounded free list, so borrowing and releasing
+ * in the same thread needs no synchronization. Contexts, released over
+ * the free list capacity, go to the bounded shared queue, available to
+ * all threads, and when it is full, they are left to garbage collector.
+ * <p>Released context is reset by reset action, by default
+ * {@link Context#clear()}. Implementation-specific reset action,
+ * keeping allocated storage, makes pooling more effective.
+ * <p>Released context must not be used by releaser any more.
+ * Thread-safe.
+ *
+ * @param <C> pooled contexts type
+ * @author nnolab
+ */
+public class ContextPool<C extends Context> {
+
+    public static final int DEFAULT_LOCAL_CAPACITY = 16;
+    public static final int DEFAULT_SHARED_CAPACITY = 256;
+
+    private final Supplier<? extends C> factory;
+    private final Consumer<? super C> resetAction;
+    private final int localCapacity;
+    private final ThreadLocal<ArrayDeque<C>> local = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ArrayBlockingQueue<C> shared;
+
+    /**
+     * Create pool with full parameters set.
+     *
+     * @param factory        factory of new contexts, when pool is empty
+     * @param resetAction    action to reset released context
+     * @param localCapacity  capacity of each thread free list
+     * @param sharedCapacity capacity of the shared queue
+     * @throws NullPointerException     if factory or reset action is {@code null}
+     * @throws IllegalArgumentException if any capacity is negative
+     */
+    public ContextPool(Supplier<? extends C> factory, Consumer<? super C> resetAction,
+                       int localCapacity, int sharedCapacity) {
+        this.factory = Objects.requireNonNull(factory);
+        this.resetAction = Objects.requireNonNull(resetAction);
+        if (localCapacity < 0) {
+            throw new IllegalArgumentException("Invalid local capacity: " + localCapacity);
+        }
+        if (sharedCapacity < 0) {
+            throw new IllegalArgumentException("Invalid shared capacity: " + sharedCapacity);
+        }
+        this.localCapacity = localCapacity;
+        this.shared = sharedCapacity == 0 ? null : new ArrayBlockingQueue<>(sharedCapacity);
+    }
+
+    /**
+     * @see #ContextPool(Supplier, Consumer, int, int)
+     */
+    public ContextPool(Supplier<? extends C> factory, Consumer<? super C> resetAction) {
+        this(factory, resetAction, DEFAULT_LOCAL_CAPACITY, DEFAULT_SHARED_CAPACITY);
+    }
+
+    /**
+     * Create pool with {@link Context#clear()} as reset action.
+     *
+     * @see #ContextPool(Supplier, Consumer, int, int)
+     */
+    public ContextPool(Supplier<? extends C> factory) {
+        this(factory, Context::clear);
+    }
+
+    /**
+     * Get empty context from the pool, or new context,
+     * if the pool is empty.
+     *
+     * @return empty context
+     */
+    public C borrow() {
+        C context = local.get().pollLast();
+        if (context == null && shared != null) {
+            context = shared.poll();
+        }
+        if (context == null) {
+            context = factory.get();
+        }
+        return context;
+    }
+
+    /**
+     * Reset specified context and return it to the pool.
+     * If reset action fails, context is not returned.
+     *
+     * @param context released context
+     * @throws NullPointerException if context is {@code null}
+     */
+    public void release(C context) {
+        Objects.requireNonNull(context);
+        resetAction.accept(context);
+        ArrayDeque<C> free = local.get();
+        if (free.size() < localCapacity) {
+            free.addLast(context);
+        } else if (shared != null) {
+            shared.offer(context);
+        }
+    }
+
+    /**
+     * Number of contexts in free list of the current thread.
+     *
+     * @return number of contexts, available to the current thread without sharing
+     */
+    public int getLocalSize() {
+        return local.get().size();
+    }
+
+    /**
+     * Number of contexts in the shared queue.
+     *
+     * @return number of contexts, available to all threads
+     */
+    public int getSharedSize() {
+        return shared == null ? 0 : shared.size();
+    }
+}
@@ -8,7 +8,7 @@ import java.util.function.*;
 
 /**
  * Immutable shell for encapsulating any {@link Context} instance.
- * Only abstract methods, {@link #equals(Object)} and {@link #toString()}
+ * Only abstract methods, {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()}
  * are delegated to encapsulated implementation.
  * Others are implemented by default.
  *
@@ -86,6 +86,14 @@ public class BaseImmutableContextShell implements ImmutableContext, Serializable
         return encapsulated.equals(obj);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return encapsulated.hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -4,11 +4,12 @@ import io.github.nnolab.util.context.Context;
 
 import java.io.Serializable;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 /**
  * Thread-safe shell for encapsulating any {@link Context} instance.
- * Only abstract methods and, {@link #equals(Object)} and {@link #toString()}
+ * Only abstract methods and, {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()}
  * are delegated to encapsulated implementation.
  * Others are implemented by default.
  *
@@ -19,6 +20,7 @@ public class BaseSyncContextShell implements Context, Serializable {
     private static final long serialVersionUID = -6397148135277109390L;
 
     private final Context encapsulated;
+    private final LongAdderCache adders = new LongAdderCache();
 
     /**
      * Construct shell with encapsulated instance.
@@ -43,6 +45,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object put(String key, Object value) {
+        adders.invalidate();
         return encapsulated.put(key, value);
     }
 
@@ -59,6 +62,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object putIfAbsent(String key, Object value) {
+        adders.invalidate();
         return encapsulated.putIfAbsent(key, value);
     }
 
@@ -67,6 +71,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object putIfKeyAbsent(String key, Object value) {
+        adders.invalidate();
         return encapsulated.putIfKeyAbsent(key, value);
     }
 
@@ -91,6 +96,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object getOrComputeAndPut(String key, Function<String, Object> function) {
+        adders.invalidate();
         return encapsulated.getOrComputeAndPut(key, function);
     }
 
@@ -99,6 +105,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> T getOrComputeAndPut(String key, Class<T> valueType, Function<String, T> function) {
+        adders.invalidate();
         return encapsulated.getOrComputeAndPut(key, valueType, function);
     }
 
@@ -107,6 +114,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object remove(String key) {
+        adders.invalidate();
         return encapsulated.remove(key);
     }
 
@@ -115,6 +123,7 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized boolean removeExactly(String key, Object value) {
+        adders.invalidate();
         return encapsulated.removeExactly(key, value);
     }
 
@@ -123,9 +132,55 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object removeOrCompute(String key, Function<String, Object> function) {
+        adders.invalidate();
         return encapsulated.removeOrCompute(key, function);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean replace(String key, Object expected, Object newValue) {
+        adders.invalidate();
+        return encapsulated.replace(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean replaceExactly(String key, Object expected, Object newValue) {
+        adders.invalidate();
+        return encapsulated.replaceExactly(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object compute(String key, BiFunction<String, Object, Object> function) {
+        adders.invalidate();
+        return encapsulated.compute(key, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        adders.invalidate();
+        return encapsulated.computeIfPresent(key, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        adders.invalidate();
+        return encapsulated.merge(key, value, function);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -166,11 +221,20 @@ public class BaseSyncContextShell implements Context, Serializable {
         return encapsulated.equals(obj);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int hashCode() {
+        return encapsulated.hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public synchronized BaseSyncContextShell clear() {
+        adders.invalidate();
         encapsulated.clear();
         return this;
     }
@@ -220,7 +284,44 @@ public class BaseSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized BaseSyncContextShell filter(BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.filter(criteria);
         return this;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>Found counter is cached, so next lookups of it take no lock,
+     * until any mapping of this shell is changed.
+     */
+    @Override
+    public LongAdder longAdder(String key) {
+        LongAdder adder = adders.get(key);
+        if (adder != null) {
+            return adder;
+        }
+        synchronized (this) {
+            return adders.put(key, encapsulated.longAdder(key));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the first lookup of counter is synchronized, counter
+     * is updated outside of synchronized body.
+     */
+    @Override
+    public void addLong(String key, long delta) {
+        longAdder(key).add(delta);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the first lookup of counter is synchronized, counter
+     * is updated outside of synchronized body.
+     */
+    @Override
+    public void incrementLong(String key) {
+        longAdder(key).increment();
+    }
 }
@@ -4,6 +4,7 @@ import io.github.nnolab.util.context.Context;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 /**
@@ -57,6 +58,14 @@ public class FullContextShell implements Context, Serializable {
         return encapsulated.put(key, value);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object putLazy(String key, Supplier<?> supplier) {
+        return encapsulated.putLazy(key, supplier);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -153,6 +162,14 @@ public class FullContextShell implements Context, Serializable {
         return encapsulated.getOrDefault(key, defaultValue);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object lookup(String key) {
+        return encapsulated.lookup(key);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -273,6 +290,46 @@ public class FullContextShell implements Context, Serializable {
         return encapsulated.removeOrCompute(key, function);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(String key, Object expected, Object newValue) {
+        return encapsulated.replace(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        return encapsulated.replaceExactly(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object compute(String key, BiFunction<String, Object, Object> function) {
+        return encapsulated.compute(key, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        return encapsulated.computeIfPresent(key, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        return encapsulated.merge(key, value, function);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -321,6 +378,14 @@ public class FullContextShell implements Context, Serializable {
         return encapsulated.equals(obj);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return encapsulated.hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -354,6 +419,14 @@ public class FullContextShell implements Context, Serializable {
         return encapsulated.entries();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries(String prefix) {
+        return encapsulated.entries(prefix);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -708,4 +781,36 @@ public class FullContextShell implements Context, Serializable {
         encapsulated.forEach(criteria, action);
         return this;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LongAdder longAdder(String key) {
+        return encapsulated.longAdder(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addLong(String key, long delta) {
+        encapsulated.addLong(key, delta);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void incrementLong(String key) {
+        encapsulated.incrementLong(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long sumLong(String key) {
+        return encapsulated.sumLong(key);
+    }
 }
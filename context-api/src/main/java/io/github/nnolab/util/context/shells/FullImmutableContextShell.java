@@ -138,6 +138,14 @@ public class FullImmutableContextShell implements ImmutableContext, Serializable
         return encapsulated.equals(obj);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return encapsulated.hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -162,6 +170,14 @@ public class FullImmutableContextShell implements ImmutableContext, Serializable
         return encapsulated.entries();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries(String prefix) {
+        return encapsulated.entries(prefix);
+    }
+
     /**
      * {@inheritDoc}
      */
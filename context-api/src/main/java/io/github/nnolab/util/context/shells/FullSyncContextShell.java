@@ -4,6 +4,7 @@ import io.github.nnolab.util.context.Context;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 /**
@@ -17,6 +18,7 @@ public class FullSyncContextShell implements Context, Serializable {
     private static final long serialVersionUID = -8715696052611944788L;
 
     private final Context encapsulated;
+    private final LongAdderCache adders = new LongAdderCache();
 
     /**
      * Construct shell with encapsulated instance.
@@ -53,14 +55,25 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object put(String key, Object value) {
+        adders.invalidate();
         return encapsulated.put(key, value);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object putLazy(String key, Supplier<?> supplier) {
+        adders.invalidate();
+        return encapsulated.putLazy(key, supplier);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public synchronized Object put(Object value) {
+        adders.invalidate();
         return encapsulated.put(value);
     }
 
@@ -69,6 +82,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> Object put(Class<? super T> valueType, T value) {
+        adders.invalidate();
         return encapsulated.put(valueType, value);
     }
 
@@ -101,6 +115,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object putIfAbsent(String key, Object value) {
+        adders.invalidate();
         return encapsulated.putIfAbsent(key, value);
     }
 
@@ -109,6 +124,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object putIfAbsent(Object value) {
+        adders.invalidate();
         return encapsulated.putIfAbsent(value);
     }
 
@@ -117,6 +133,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> Object putIfAbsent(Class<? super T> valueType, T value) {
+        adders.invalidate();
         return encapsulated.putIfAbsent(valueType, value);
     }
 
@@ -125,6 +142,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object putIfKeyAbsent(String key, Object value) {
+        adders.invalidate();
         return encapsulated.putIfKeyAbsent(key, value);
     }
 
@@ -133,6 +151,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object putIfKeyAbsent(Object value) {
+        adders.invalidate();
         return encapsulated.putIfKeyAbsent(value);
     }
 
@@ -141,6 +160,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> Object putIfKeyAbsent(Class<? super T> valueType, T value) {
+        adders.invalidate();
         return encapsulated.putIfKeyAbsent(valueType, value);
     }
 
@@ -152,6 +172,14 @@ public class FullSyncContextShell implements Context, Serializable {
         return encapsulated.getOrDefault(key, defaultValue);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object lookup(String key) {
+        return encapsulated.lookup(key);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -197,6 +225,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object getOrComputeAndPut(String key, Function<String, Object> function) {
+        adders.invalidate();
         return encapsulated.getOrComputeAndPut(key, function);
     }
 
@@ -205,6 +234,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> T getOrComputeAndPut(String key, Class<T> valueType, Function<String, T> function) {
+        adders.invalidate();
         return encapsulated.getOrComputeAndPut(key, valueType, function);
     }
 
@@ -213,6 +243,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> T getOrComputeAndPut(Class<T> valueType, Function<String, T> function) {
+        adders.invalidate();
         return encapsulated.getOrComputeAndPut(valueType, function);
     }
 
@@ -221,6 +252,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object remove(String key) {
+        adders.invalidate();
         return encapsulated.remove(key);
     }
 
@@ -229,6 +261,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized boolean removeExactly(String key, Object value) {
+        adders.invalidate();
         return encapsulated.removeExactly(key, value);
     }
 
@@ -237,6 +270,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized boolean remove(String key, Object value) {
+        adders.invalidate();
         return encapsulated.remove(key, value);
     }
 
@@ -245,6 +279,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> T removeOfType(String key, Class<T> valueType) {
+        adders.invalidate();
         return encapsulated.removeOfType(key, valueType);
     }
 
@@ -253,6 +288,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object removeOrGetDefault(String key, Object defaultValue) {
+        adders.invalidate();
         return encapsulated.removeOrGetDefault(key, defaultValue);
     }
 
@@ -261,6 +297,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized <T> T removeOrGetDefault(String key, Class<T> valueType, T defaultValue) {
+        adders.invalidate();
         return encapsulated.removeOrGetDefault(key, valueType, defaultValue);
     }
 
@@ -269,14 +306,61 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized Object removeOrCompute(String key, Function<String, Object> function) {
+        adders.invalidate();
         return encapsulated.removeOrCompute(key, function);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean replace(String key, Object expected, Object newValue) {
+        adders.invalidate();
+        return encapsulated.replace(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean replaceExactly(String key, Object expected, Object newValue) {
+        adders.invalidate();
+        return encapsulated.replaceExactly(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object compute(String key, BiFunction<String, Object, Object> function) {
+        adders.invalidate();
+        return encapsulated.compute(key, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        adders.invalidate();
+        return encapsulated.computeIfPresent(key, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        adders.invalidate();
+        return encapsulated.merge(key, value, function);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public synchronized <T> T removeOrCompute(String key, Class<T> valueType, Function<String, T> function) {
+        adders.invalidate();
         return encapsulated.removeOrCompute(key, valueType, function);
     }
 
@@ -320,11 +404,20 @@ public class FullSyncContextShell implements Context, Serializable {
         return encapsulated.equals(obj);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int hashCode() {
+        return encapsulated.hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public synchronized FullSyncContextShell clear() {
+        adders.invalidate();
         encapsulated.clear();
         return this;
     }
@@ -353,6 +446,14 @@ public class FullSyncContextShell implements Context, Serializable {
         return encapsulated.entries();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Entries entries(String prefix) {
+        return encapsulated.entries(prefix);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -374,6 +475,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell filter(BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.filter(criteria);
         return this;
     }
@@ -424,6 +526,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainTo(Context acceptor) {
+        adders.invalidate();
         checkNotThis(acceptor);
         encapsulated.drainTo(acceptor);
         return this;
@@ -434,6 +537,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainTo(Context acceptor, ReplaceRule replaceRule) {
+        adders.invalidate();
         checkNotThis(acceptor);
         encapsulated.drainTo(acceptor, replaceRule);
         return this;
@@ -444,6 +548,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainTo(Context acceptor, BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         checkNotThis(acceptor);
         encapsulated.drainTo(acceptor, criteria);
         return this;
@@ -455,6 +560,7 @@ public class FullSyncContextShell implements Context, Serializable {
     @Override
     public synchronized FullSyncContextShell drainTo(Context acceptor, ReplaceRule replaceRule,
                                                      BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         checkNotThis(acceptor);
         encapsulated.drainTo(acceptor, replaceRule, criteria);
         return this;
@@ -465,6 +571,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell copyFrom(Context source) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.copyFrom(source);
         return this;
@@ -475,6 +582,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell copyFrom(Context source, ReplaceRule replaceRule) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.copyFrom(source, replaceRule);
         return this;
@@ -485,6 +593,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell copyFrom(Context source, BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.copyFrom(source, criteria);
         return this;
@@ -496,6 +605,7 @@ public class FullSyncContextShell implements Context, Serializable {
     @Override
     public synchronized FullSyncContextShell copyFrom(Context source, ReplaceRule replaceRule,
                                                       BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.copyFrom(source, replaceRule, criteria);
         return this;
@@ -506,6 +616,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainFrom(Context source) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.drainFrom(source);
         return this;
@@ -516,6 +627,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainFrom(Context source, ReplaceRule replaceRule) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.drainFrom(source, replaceRule);
         return this;
@@ -526,6 +638,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainFrom(Context source, BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.drainFrom(source, criteria);
         return this;
@@ -537,6 +650,7 @@ public class FullSyncContextShell implements Context, Serializable {
     @Override
     public synchronized FullSyncContextShell drainFrom(Context source, ReplaceRule replaceRule,
                                                        BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         checkNotThis(source);
         encapsulated.drainFrom(source, replaceRule, criteria);
         return this;
@@ -584,6 +698,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainTo(Map<String, Object> acceptor) {
+        adders.invalidate();
         encapsulated.drainTo(acceptor);
         return this;
     }
@@ -593,6 +708,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainTo(Map<String, Object> acceptor, boolean replace) {
+        adders.invalidate();
         encapsulated.drainTo(acceptor, replace);
         return this;
     }
@@ -602,6 +718,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainTo(Map<String, Object> acceptor, BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.drainTo(acceptor, criteria);
         return this;
     }
@@ -612,6 +729,7 @@ public class FullSyncContextShell implements Context, Serializable {
     @Override
     public synchronized FullSyncContextShell drainTo(Map<String, Object> acceptor, boolean replace,
                                                      BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.drainTo(acceptor, replace, criteria);
         return this;
     }
@@ -621,6 +739,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell copyFrom(Map<String, Object> source) {
+        adders.invalidate();
         encapsulated.copyFrom(source);
         return this;
     }
@@ -630,6 +749,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell copyFrom(Map<String, Object> source, ReplaceRule replaceRule) {
+        adders.invalidate();
         encapsulated.copyFrom(source, replaceRule);
         return this;
     }
@@ -639,6 +759,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell copyFrom(Map<String, Object> source, BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.copyFrom(source, criteria);
         return this;
     }
@@ -649,6 +770,7 @@ public class FullSyncContextShell implements Context, Serializable {
     @Override
     public synchronized FullSyncContextShell copyFrom(Map<String, Object> source, ReplaceRule replaceRule,
                                                       BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.copyFrom(source, replaceRule, criteria);
         return this;
     }
@@ -658,6 +780,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainFrom(Map<String, Object> source) {
+        adders.invalidate();
         encapsulated.drainFrom(source);
         return this;
     }
@@ -667,6 +790,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainFrom(Map<String, Object> source, ReplaceRule replaceRule) {
+        adders.invalidate();
         encapsulated.drainFrom(source, replaceRule);
         return this;
     }
@@ -676,6 +800,7 @@ public class FullSyncContextShell implements Context, Serializable {
      */
     @Override
     public synchronized FullSyncContextShell drainFrom(Map<String, Object> source, BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.drainFrom(source, criteria);
         return this;
     }
@@ -686,6 +811,7 @@ public class FullSyncContextShell implements Context, Serializable {
     @Override
     public synchronized FullSyncContextShell drainFrom(Map<String, Object> source, ReplaceRule replaceRule,
                                                        BiPredicate<String, Object> criteria) {
+        adders.invalidate();
         encapsulated.drainFrom(source, replaceRule, criteria);
         return this;
     }
@@ -707,4 +833,48 @@ public class FullSyncContextShell implements Context, Serializable {
         encapsulated.forEach(criteria, action);
         return this;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>Found counter is cached, so next lookups of it take no lock,
+     * until any mapping of this shell is changed.
+     */
+    @Override
+    public LongAdder longAdder(String key) {
+        LongAdder adder = adders.get(key);
+        if (adder != null) {
+            return adder;
+        }
+        synchronized (this) {
+            return adders.put(key, encapsulated.longAdder(key));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the first lookup of counter is synchronized, counter
+     * is updated outside of synchronized body.
+     */
+    @Override
+    public void addLong(String key, long delta) {
+        longAdder(key).add(delta);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the first lookup of counter is synchronized, counter
+     * is updated outside of synchronized body.
+     */
+    @Override
+    public void incrementLong(String key) {
+        longAdder(key).increment();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long sumLong(String key) {
+        return encapsulated.sumLong(key);
+    }
 }
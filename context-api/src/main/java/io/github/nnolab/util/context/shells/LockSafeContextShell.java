@@ -7,7 +7,7 @@ import java.util.Objects;
 
 /**
  * Lock-safe shell for encapsulating any {@link Context} instance.
- * Only abstract methods and, {@link #equals(Object)} and {@link #toString()}
+ * Only abstract methods and, {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()}
  * are delegated to encapsulated implementation.
  * Others are implemented by default.
  * Not thread-safe. Thread-safety may be provided by implementation.
@@ -94,6 +94,14 @@ public class LockSafeContextShell implements LockSafeContext, Serializable {
         return encapsulated.removeExactly(key, value);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        return encapsulated.replaceExactly(key, expected, newValue);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -141,6 +149,14 @@ public class LockSafeContextShell implements LockSafeContext, Serializable {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return encapsulated.hashCode();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -174,6 +190,14 @@ public class LockSafeContextShell implements LockSafeContext, Serializable {
         return encapsulated.entries();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries(String prefix) {
+        return encapsulated.entries(prefix);
+    }
+
     /**
      * {@inheritDoc}
      */
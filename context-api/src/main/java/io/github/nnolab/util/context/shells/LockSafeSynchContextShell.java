@@ -3,13 +3,19 @@ package io.github.nnolab.util.context.shells;
 import io.github.nnolab.util.context.*;
 
 import java.io.Serializable;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Thread-safe, lock-safe shell for encapsulating any {@link Context} instance.
- * Only abstract methods, {@link #equals(Object)} and {@link #toString()}
+ * Only abstract methods, {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()}
  * are delegated to encapsulated implementation.
  * Others are implemented by default.
+ * <p>{@link LazyValue} holders, put through this shell, are stored
+ * in encapsulated context wrapped, so they are resolved outside of
+ * synchronized body and resolved value is published, only if mapping
+ * was not changed meanwhile.
  *
  * @author nnolab
  */
@@ -18,6 +24,30 @@ public class LockSafeSynchContextShell implements LockSafeContext, Serializable
     private static final long serialVersionUID = 6411671366725334226L;
 
     private final Context encapsulated;
+    private final LongAdderCache adders = new LongAdderCache();
+
+    /**
+     * Wrapper of {@link LazyValue}, not recognized by encapsulated context.
+     */
+    private static final class Deferred implements Serializable {
+
+        private static final long serialVersionUID = -2953106448815772741L;
+
+        final LazyValue holder;
+
+        Deferred(LazyValue holder) {
+            this.holder = holder;
+        }
+
+        @Override
+        public String toString() {
+            return holder.toString();
+        }
+
+        private Object writeReplace() {
+            return holder.get();
+        }
+    }
 
     /**
      * Construct shell with encapsulated instance.
@@ -29,6 +59,87 @@ public class LockSafeSynchContextShell implements LockSafeContext, Serializable
         this.encapsulated = Objects.requireNonNull(encapsulated);
     }
 
+    /**
+     * Wrap value to be stored in encapsulated context, if it is lazy.
+     *
+     * @param value value
+     * @return value to be stored
+     */
+    private static Object defer(Object value) {
+        return value instanceof LazyValue ? new Deferred((LazyValue) value) : value;
+    }
+
+    /**
+     * Resolve value, read from encapsulated context, without publishing.
+     * Must be called outside of synchronized body.
+     *
+     * @param value stored value
+     * @return resolved value
+     */
+    private static Object release(Object value) {
+        return value instanceof Deferred ? ((Deferred) value).holder.get() : value;
+    }
+
+    /**
+     * Resolve value, read from encapsulated context, and publish resolved value,
+     * if the key is still mapped to it. Must be called outside of synchronized body.
+     *
+     * @param key   key
+     * @param value stored value
+     * @return resolved value
+     */
+    private Object resolve(String key, Object value) {
+        if (value instanceof Deferred) {
+            Object resolved = ((Deferred) value).holder.get();
+            synchronized (this) {
+                encapsulated.replaceExactly(key, value, resolved);
+            }
+            return resolved;
+        }
+        return value;
+    }
+
+    /**
+     * Wrap entries of encapsulated context to resolve their values.
+     *
+     * @param entries entries of encapsulated context
+     * @return resolving entries
+     */
+    private static Entries releasing(Entries entries) {
+        return () -> {
+            Iterator<Entry> iterator = entries.iterator();
+            return new Iterator<Entry>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry next() {
+                    Entry entry = iterator.next();
+                    if (!(entry.getValue() instanceof Deferred)) {
+                        return entry;
+                    }
+                    String key = entry.getKey();
+                    Object value = release(entry.getValue());
+                    return new Entry() {
+
+                        @Override
+                        public String getKey() {
+                            return key;
+                        }
+
+                        @Override
+                        public Object getValue() {
+                            return value;
+                        }
+                    };
+                }
+            };
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -41,56 +152,120 @@ public class LockSafeSynchContextShell implements LockSafeContext, Serializable
      * {@inheritDoc}
      */
     @Override
-    public synchronized Object put(String key, Object value) {
-        return encapsulated.put(key, value);
+    public Object put(String key, Object value) {
+        Object stored = defer(value);
+        Object old;
+        synchronized (this) {
+            adders.invalidate();
+            old = encapsulated.put(key, stored);
+        }
+        return release(old);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Object get(String key) {
-        return encapsulated.get(key);
+    public Object get(String key) {
+        Object value;
+        synchronized (this) {
+            value = encapsulated.get(key);
+        }
+        return resolve(key, value);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Object putIfAbsent(String key, Object value) {
-        return encapsulated.putIfAbsent(key, value);
+    public Object putIfAbsent(String key, Object value) {
+        Object stored = defer(value);
+        Object old;
+        while (true) {
+            synchronized (this) {
+                adders.invalidate();
+                old = encapsulated.putIfAbsent(key, stored);
+            }
+            if (!(old instanceof Deferred) || (old = resolve(key, old)) != null) {
+                return old;
+            }
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Object putIfKeyAbsent(String key, Object value) {
-        return encapsulated.putIfKeyAbsent(key, value);
+    public Object putIfKeyAbsent(String key, Object value) {
+        Object stored = defer(value);
+        Object old;
+        synchronized (this) {
+            adders.invalidate();
+            old = encapsulated.putIfKeyAbsent(key, stored);
+        }
+        return resolve(key, old);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Object getOrDefault(String key, Object defaultValue) {
-        return encapsulated.getOrDefault(key, defaultValue);
+    public Object getOrDefault(String key, Object defaultValue) {
+        Object value;
+        synchronized (this) {
+            value = encapsulated.getOrDefault(key, defaultValue);
+        }
+        return resolve(key, value);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Object remove(String key) {
-        return encapsulated.remove(key);
+    public Object remove(String key) {
+        Object old;
+        synchronized (this) {
+            adders.invalidate();
+            old = encapsulated.remove(key);
+        }
+        return release(old);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized boolean removeExactly(String key, Object value) {
-        return encapsulated.removeExactly(key, value);
+    public boolean removeExactly(String key, Object value) {
+        Object current;
+        while (true) {
+            synchronized (this) {
+                current = encapsulated.get(key);
+                if (!(current instanceof Deferred)) {
+                    adders.invalidate();
+                    return encapsulated.removeExactly(key, value);
+                }
+            }
+            resolve(key, current);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        Object stored = defer(newValue);
+        Object current;
+        while (true) {
+            synchronized (this) {
+                current = encapsulated.get(key);
+                if (!(current instanceof Deferred)) {
+                    adders.invalidate();
+                    return encapsulated.replaceExactly(key, expected, stored);
+                }
+            }
+            resolve(key, current);
+        }
     }
 
     /**
@@ -132,7 +307,7 @@ public class LockSafeSynchContextShell implements LockSafeContext, Serializable
         if (encapsulated.size() != cobj.size()) {
             return false;
         }
-        for (Entry entry : encapsulated.entries()) {
+        for (Entry entry : entries()) {
             if (!Objects.equals(entry.getValue(), cobj.get(entry.getKey()))) {
                 return false;
             }
@@ -140,11 +315,40 @@ public class LockSafeSynchContextShell implements LockSafeContext, Serializable
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Mappings are read under lock of this shell, but lazy values
+     * are resolved and hash codes of values are computed outside
+     * of synchronized body.
+     */
+    @Override
+    public int hashCode() {
+        String[] keys;
+        Object[] values;
+        synchronized (this) {
+            int size = encapsulated.size();
+            keys = new String[size];
+            values = new Object[size];
+            int i = 0;
+            for (Entry entry : encapsulated.entries()) {
+                keys[i] = entry.getKey();
+                values[i++] = entry.getValue();
+            }
+        }
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Object value = release(values[i]);
+            hash += Objects.hashCode(keys[i]) ^ (value == this ? 0 : Objects.hashCode(value));
+        }
+        return hash;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public synchronized Context clear() {
+        adders.invalidate();
         encapsulated.clear();
         return this;
     }
@@ -161,16 +365,70 @@ public class LockSafeSynchContextShell implements LockSafeContext, Serializable
      * {@inheritDoc}
      */
     @Override
-    public synchronized Values values() {
-        return encapsulated.values();
+    public Values values() {
+        Values values;
+        synchronized (this) {
+            values = encapsulated.values();
+        }
+        return () -> {
+            Iterator<Object> iterator = values.iterator();
+            return new Iterator<Object>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return release(iterator.next());
+                }
+            };
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries() {
+        Entries entries;
+        synchronized (this) {
+            entries = encapsulated.entries();
+        }
+        return releasing(entries);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Entries entries() {
-        return encapsulated.entries();
+    public Entries entries(String prefix) {
+        Entries entries;
+        synchronized (this) {
+            entries = encapsulated.entries(prefix);
+        }
+        return releasing(entries);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Found counter is cached, so next lookups of it take no lock,
+     * until any mapping of this shell is changed.
+     */
+    @Override
+    public LongAdder longAdder(String key) {
+        LongAdder adder = adders.get(key);
+        if (adder != null) {
+            return adder;
+        }
+        adder = LockSafeContext.super.longAdder(key);
+        synchronized (this) {
+            if (encapsulated.get(key) == adder) {
+                adders.put(key, adder);
+            }
+        }
+        return adder;
     }
 
     /**
@@ -0,0 +1,61 @@
+package io.github.nnolab.util.context.shells;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of counters of synchronized shell, that lets to update existing
+ * counter without lock of shell. Every modification of shell drops
+ * all cached counters, so cached counter is used only while no mapping
+ * was changed since it was cached. Counters with {@code null} keys
+ * are not cached.
+ * <p>Cache is not serialized: deserialized cache is empty.
+ *
+ * @author nnolab
+ */
+final class LongAdderCache implements Serializable {
+
+    private static final long serialVersionUID = 2270349418716284335L;
+
+    private final transient ConcurrentHashMap<String, LongAdder> cached = new ConcurrentHashMap<>();
+
+    /**
+     * Get cached counter. May be called without lock of shell.
+     *
+     * @param key key of counter
+     * @return counter or {@code null}
+     */
+    LongAdder get(String key) {
+        return key == null ? null : cached.get(key);
+    }
+
+    /**
+     * Cache counter, currently mapped to specified key.
+     * Must be called under lock of shell.
+     *
+     * @param key   key of counter
+     * @param adder counter
+     * @return specified counter
+     */
+    LongAdder put(String key, LongAdder adder) {
+        if (key != null) {
+            cached.put(key, adder);
+        }
+        return adder;
+    }
+
+    /**
+     * Drop all cached counters.
+     * Must be called under lock of shell by every modification.
+     */
+    void invalidate() {
+        if (!cached.isEmpty()) {
+            cached.clear();
+        }
+    }
+
+    private Object readResolve() {
+        return new LongAdderCache();
+    }
+}
@@ -0,0 +1,465 @@
+package io.github.nnolab.util.context.shells;
+
+import io.github.nnolab.util.context.Context;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Live view of the mappings of a parent {@link Context},
+ * which keys start with a prefix.
+ * Keys of the view are relative to the prefix.
+ * All operations read and write through to the parent without copying,
+ * so the view is as thread-safe as the parent is.
+ * Bulk operations, such as {@link #clear()} and {@link #filter(BiPredicate)},
+ * are performed by a single call to the parent.
+ * <p>{@code null} keys are not supported.
+ *
+ * @author nnolab
+ * @see Context#view(String)
+ */
+public class PrefixContextView implements Context, Serializable {
+
+    private static final long serialVersionUID = 2716315207842187358L;
+
+    private final Context parent;
+    private final String prefix;
+
+    /**
+     * Construct view of the parent mappings with specified key prefix.
+     * If the parent is a view itself, the new view is
+     * built over its parent with combined prefix.
+     *
+     * @param parent parent context
+     * @param prefix key prefix
+     * @throws NullPointerException if {@code parent} or {@code prefix} is {@code null}
+     */
+    public PrefixContextView(Context parent, String prefix) {
+        Objects.requireNonNull(parent);
+        Objects.requireNonNull(prefix);
+        if (parent instanceof PrefixContextView) {
+            PrefixContextView view = (PrefixContextView) parent;
+            this.parent = view.parent;
+            this.prefix = view.prefix.concat(prefix);
+        } else {
+            this.parent = parent;
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * Context, this view reads and writes through to.
+     *
+     * @return parent context
+     */
+    public Context getParent() {
+        return parent;
+    }
+
+    /**
+     * Prefix of parent keys, visible through this view.
+     *
+     * @return key prefix
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Parent key for the view key.
+     *
+     * @param key view key
+     * @return parent key
+     * @throws NullPointerException if {@code key} is {@code null}
+     */
+    private String parentKey(String key) {
+        return prefix.concat(Objects.requireNonNull(key, "Null keys not supported"));
+    }
+
+    /**
+     * Is parent key visible through this view.
+     *
+     * @param key parent key
+     * @return {@code true} if key starts with prefix
+     */
+    private boolean visible(String key) {
+        return key != null && key.startsWith(prefix);
+    }
+
+    /**
+     * View key for the visible parent key.
+     *
+     * @param key parent key
+     * @return view key
+     */
+    private String viewKey(String key) {
+        return key.substring(prefix.length());
+    }
+
+    /**
+     * Iterator over parent entries with specified key prefix,
+     * which keys are converted to view keys.
+     *
+     * @param parentPrefix parent key prefix, starting with view prefix
+     * @return entries iterator
+     */
+    private Iterator<Entry> viewIterator(String parentPrefix) {
+        Iterator<Entry> iterator = parent.entries(parentPrefix).iterator();
+        return new Iterator<Entry>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                Entry entry = iterator.next();
+                String key = viewKey(entry.getKey());
+                Object value = entry.getValue();
+                return new Entry() {
+
+                    @Override
+                    public String getKey() {
+                        return key;
+                    }
+
+                    @Override
+                    public Object getValue() {
+                        return value;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getName() + ": {" + prefix + ", " + parent.toString() + "}";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object put(String key, Object value) {
+        return parent.put(parentKey(key), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get(String key) {
+        return parent.get(parentKey(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        return parent.putIfAbsent(parentKey(key), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object putIfKeyAbsent(String key, Object value) {
+        return parent.putIfKeyAbsent(parentKey(key), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getOrDefault(String key, Object defaultValue) {
+        return parent.getOrDefault(parentKey(key), defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getOrCompute(String key, Function<String, Object> function) {
+        Objects.requireNonNull(function);
+        return parent.getOrCompute(parentKey(key), k -> function.apply(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getOrComputeAndPut(String key, Function<String, Object> function) {
+        Objects.requireNonNull(function);
+        return parent.getOrComputeAndPut(parentKey(key), k -> function.apply(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T getOrComputeAndPut(String key, Class<T> valueType, Function<String, T> function) {
+        Objects.requireNonNull(function);
+        return parent.getOrComputeAndPut(parentKey(key), valueType, k -> function.apply(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(String key) {
+        return parent.remove(parentKey(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeExactly(String key, Object value) {
+        return parent.removeExactly(parentKey(key), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object removeOrCompute(String key, Function<String, Object> function) {
+        Objects.requireNonNull(function);
+        return parent.removeOrCompute(parentKey(key), k -> function.apply(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(String key, Object expected, Object newValue) {
+        return parent.replace(parentKey(key), expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        return parent.replaceExactly(parentKey(key), expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object compute(String key, BiFunction<String, Object, Object> function) {
+        Objects.requireNonNull(function);
+        return parent.compute(parentKey(key), (k, v) -> function.apply(key, v));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        Objects.requireNonNull(function);
+        return parent.computeIfPresent(parentKey(key), (k, v) -> function.apply(key, v));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        return parent.merge(parentKey(key), value, function);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(String key) {
+        return parent.containsKey(parentKey(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (Entry entry : parent.entries(prefix)) {
+            if (Objects.equals(entry.getValue(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Iterator<Entry> iterator = parent.entries(prefix).iterator(); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return !parent.entries(prefix).iterator().hasNext();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Context)) {
+            return false;
+        }
+        Context cobj = (Context) obj;
+        int size = 0;
+        for (Iterator<Entry> iterator = viewIterator(prefix); iterator.hasNext(); size++) {
+            Entry entry = iterator.next();
+            if (!Objects.equals(entry.getValue(), cobj.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return size == cobj.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Iterator<Entry> iterator = viewIterator(prefix); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            Object value = entry.getValue();
+            hash += entry.getKey().hashCode() ^ (value == this ? 0 : Objects.hashCode(value));
+        }
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixContextView clear() {
+        parent.filter((key, value) -> !visible(key));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Keys keys() {
+        return () -> {
+            Iterator<Entry> iterator = viewIterator(prefix);
+            return new Iterator<String>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return iterator.next().getKey();
+                }
+            };
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Values values() {
+        return () -> {
+            Iterator<Entry> iterator = viewIterator(prefix);
+            return new Iterator<Object>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return iterator.next().getValue();
+                }
+            };
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries() {
+        return () -> viewIterator(prefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries(String prefix) {
+        String parentPrefix = this.prefix.concat(Objects.requireNonNull(prefix));
+        return () -> viewIterator(parentPrefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixContextView view(String prefix) {
+        return new PrefixContextView(this, prefix);
+    }
+
+    /**
+     * Returns context of the parent type with copied mappings and view keys.
+     */
+    @Override
+    public Context copy() {
+        return copy((key, value) -> true);
+    }
+
+    /**
+     * Returns context of the parent type with copied mappings and view keys.
+     */
+    @Override
+    public Context copy(BiPredicate<String, Object> criteria) {
+        Objects.requireNonNull(criteria);
+        Context selected = parent.copy((key, value) -> visible(key) && criteria.test(viewKey(key), value));
+        Context copy = selected.copy((key, value) -> false);
+        for (Entry entry : selected.entries()) {
+            copy.put(viewKey(entry.getKey()), entry.getValue());
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PrefixContextView filter(BiPredicate<String, Object> criteria) {
+        Objects.requireNonNull(criteria);
+        parent.filter((key, value) -> !visible(key) || criteria.test(viewKey(key), value));
+        return this;
+    }
+}
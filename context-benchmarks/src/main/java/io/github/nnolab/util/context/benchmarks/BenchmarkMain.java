@@ -0,0 +1,43 @@
+package io.github.nnolab.util.context.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of benchmarks jar. Takes usual JMH options and always
+ * adds {@code -prof gc}, so every run reports allocation rate
+ * next to throughput.
+ * <p>Build and run:
+ * <pre>
+ * mvn -P benchmarks -pl context-benchmarks -am package
+ * java -jar context-benchmarks/target/benchmarks.jar ContextBenchmark.get -p size=1024
+ * </pre>
+ *
+ * @author nnolab
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        boolean profiled = false;
+        for (ProfilerConfig profiler : commandLine.getProfilers()) {
+            String name = profiler.getKlass();
+            profiled |= name.equals("gc") || name.equals(GCProfiler.class.getName());
+        }
+        if (!profiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
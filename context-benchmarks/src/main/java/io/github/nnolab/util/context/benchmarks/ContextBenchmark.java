@@ -0,0 +1,150 @@
+package io.github.nnolab.util.context.benchmarks;
+
+import io.github.nnolab.util.context.Context;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single-thread benchmarks of context implementations.
+ * Every operation keeps size of context, so removal and
+ * insertion of new key are measured together with the
+ * opposite operation.
+ *
+ * @author nnolab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+
+    private static final int ORDER_LENGTH = 1 << 16;
+    private static final Function<String, Object> COMPUTE = key -> key;
+
+    @Param({"4", "64", "1024", "16384", "1000000"})
+    private int size;
+
+    @Param
+    private ContextType type;
+
+    @Param
+    private KeyDistribution distribution;
+
+    private Context context;
+    private String[] keys;
+    private String[] absentKeys;
+    private int[] order;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.keys("key", size);
+        absentKeys = distribution.keys("absent", size);
+        order = distribution.order(size, ORDER_LENGTH);
+        context = type.create();
+        for (String key : keys) {
+            context.put(key, key);
+        }
+    }
+
+    private int next() {
+        return order[cursor++ & (ORDER_LENGTH - 1)];
+    }
+
+    @Benchmark
+    public Object get() {
+        return context.get(keys[next()]);
+    }
+
+    @Benchmark
+    public Object getAbsent() {
+        return context.get(absentKeys[next()]);
+    }
+
+    @Benchmark
+    public Object lookup() {
+        return context.lookup(keys[next()]);
+    }
+
+    @Benchmark
+    public Object lookupAbsent() {
+        return context.lookup(absentKeys[next()]);
+    }
+
+    @Benchmark
+    public String getOfType() {
+        return context.get(keys[next()], String.class);
+    }
+
+    @Benchmark
+    public Object put() {
+        String key = keys[next()];
+        return context.put(key, key);
+    }
+
+    @Benchmark
+    public Object putNewAndRemove() {
+        String key = absentKeys[next()];
+        context.put(key, key);
+        return context.remove(key);
+    }
+
+    @Benchmark
+    public Object removeAndPut() {
+        String key = keys[next()];
+        Object value = context.remove(key);
+        context.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public String removeOfTypeAndPut() {
+        String key = keys[next()];
+        String value = context.removeOfType(key, String.class);
+        context.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public Object removeOrGetDefaultAndPut() {
+        String key = keys[next()];
+        Object value = context.removeOrGetDefault(key, key);
+        context.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public Object removeOrGetDefaultAbsent() {
+        String key = absentKeys[next()];
+        return context.removeOrGetDefault(key, key);
+    }
+
+    @Benchmark
+    public Object getOrComputeAndPut() {
+        return context.getOrComputeAndPut(keys[next()], COMPUTE);
+    }
+
+    @Benchmark
+    public Object computeAndPutAndRemove() {
+        String key = absentKeys[next()];
+        context.getOrComputeAndPut(key, COMPUTE);
+        return context.remove(key);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Context.Entry entry : context.entries()) {
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public Context copy() {
+        return context.copy();
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.nnolab.util.context.benchmarks;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.impl.HashContext;
+import io.github.nnolab.util.context.impl.IndexedHashContext;
+import io.github.nnolab.util.context.impl.MapBasedLIContext;
+import io.github.nnolab.util.context.impl.MapBasedSIContext;
+import io.github.nnolab.util.context.impl.mapb.DefaultMapSuppliers;
+
+/**
+ * Benchmarked context implementations with default capacity.
+ * Map based contexts are taken with every {@link DefaultMapSuppliers} backend.
+ * Identity backends are valid here, because benchmarks always
+ * use the same key instances.
+ *
+ * @author nnolab
+ */
+public enum ContextType {
+
+    HASH {
+        @Override
+        public Context create() {
+            return new HashContext();
+        }
+    },
+
+    INDEXED_HASH {
+        @Override
+        public Context create() {
+            return new IndexedHashContext();
+        }
+    },
+
+    LI_HASH_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedLIContext(DefaultMapSuppliers.HASH_MAP);
+        }
+    },
+
+    LI_IDENTITY_HASH_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedLIContext(DefaultMapSuppliers.IDENTITY_HASH_MAP);
+        }
+    },
+
+    LI_WEAK_HASH_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedLIContext(DefaultMapSuppliers.WEAK_HASH_MAP);
+        }
+    },
+
+    LI_TREE_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedLIContext(DefaultMapSuppliers.TREE_MAP);
+        }
+    },
+
+    SI_HASH_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedSIContext(DefaultMapSuppliers.HASH_MAP);
+        }
+    },
+
+    SI_IDENTITY_HASH_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedSIContext(DefaultMapSuppliers.IDENTITY_HASH_MAP);
+        }
+    },
+
+    SI_WEAK_HASH_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedSIContext(DefaultMapSuppliers.WEAK_HASH_MAP);
+        }
+    },
+
+    SI_TREE_MAP {
+        @Override
+        public Context create() {
+            return new MapBasedSIContext(DefaultMapSuppliers.TREE_MAP);
+        }
+    };
+
+    /**
+     * Create empty context.
+     *
+     * @return new context
+     */
+    public abstract Context create();
+}
@@ -0,0 +1,91 @@
+package io.github.nnolab.util.context.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Shape of keys and order of their access.
+ *
+ * @author nnolab
+ */
+public enum KeyDistribution {
+
+    /**
+     * Distinct keys, accessed one by one in order of insertion.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Distinct keys, accessed uniformly at random.
+     */
+    UNIFORM,
+
+    /**
+     * Distinct keys, accessed with Zipf-like skew to the first keys.
+     */
+    ZIPF,
+
+    /**
+     * Keys with equal hash codes in groups of {@value #COLLISION_GROUP},
+     * accessed uniformly at random.
+     */
+    COLLIDING;
+
+    /**
+     * Number of keys with equal hash code for {@link #COLLIDING} distribution.
+     */
+    public static final int COLLISION_GROUP = 16;
+
+    private static final long SEED = 42;
+
+    /**
+     * Create distinct keys with specified prefix.
+     *
+     * @param prefix prefix of keys
+     * @param size   number of keys
+     * @return keys
+     */
+    public String[] keys(String prefix, int size) {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (this == COLLIDING) {
+                // "Aa" and "BB" have equal hash codes, so have all their
+                // concatenations of equal length
+                StringBuilder key = new StringBuilder(prefix).append(i / COLLISION_GROUP).append('-');
+                for (int bit = COLLISION_GROUP >> 1; bit > 0; bit >>= 1) {
+                    key.append((i & bit) == 0 ? "Aa" : "BB");
+                }
+                keys[i] = key.toString();
+            } else {
+                keys[i] = prefix + i;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Create order of key access.
+     *
+     * @param size   number of keys
+     * @param length length of order, power of two
+     * @return indices of keys
+     */
+    public int[] order(int size, int length) {
+        Random random = new Random(SEED);
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            switch (this) {
+                case SEQUENTIAL:
+                    order[i] = i % size;
+                    break;
+                case ZIPF:
+                    // inverse of continuous 1/x distribution over [1, size + 1)
+                    order[i] = Math.min((int) Math.pow(size + 1, random.nextDouble()) - 1, size - 1);
+                    break;
+                default:
+                    order[i] = random.nextInt(size);
+                    break;
+            }
+        }
+        return order;
+    }
+}
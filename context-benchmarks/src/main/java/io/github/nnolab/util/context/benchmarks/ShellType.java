@@ -0,0 +1,43 @@
+package io.github.nnolab.util.context.benchmarks;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.shells.BaseSyncContextShell;
+import io.github.nnolab.util.context.shells.FullSyncContextShell;
+import io.github.nnolab.util.context.shells.LockSafeSynchContextShell;
+
+/**
+ * Benchmarked thread-safe shells.
+ *
+ * @author nnolab
+ */
+public enum ShellType {
+
+    FULL_SYNC {
+        @Override
+        public Context wrap(Context context) {
+            return new FullSyncContextShell(context);
+        }
+    },
+
+    BASE_SYNC {
+        @Override
+        public Context wrap(Context context) {
+            return new BaseSyncContextShell(context);
+        }
+    },
+
+    LOCK_SAFE_SYNC {
+        @Override
+        public Context wrap(Context context) {
+            return new LockSafeSynchContextShell(context);
+        }
+    };
+
+    /**
+     * Encapsulate context into shell.
+     *
+     * @param context encapsulated context
+     * @return shell
+     */
+    public abstract Context wrap(Context context);
+}
@@ -0,0 +1,118 @@
+package io.github.nnolab.util.context.benchmarks;
+
+import io.github.nnolab.util.context.Context;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks of thread-safe shells over {@link ContextType#HASH} context.
+ * Single-thread benchmarks show cost of uncontended synchronization,
+ * grouped ones run readers and writers concurrently over one shell.
+ * Every thread has its own order of key access.
+ *
+ * @author nnolab
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncShellBenchmark {
+
+    /**
+     * Position of thread in its order of key access.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int[] order;
+        private int position;
+
+        @Setup(Level.Trial)
+        public void setUp(SyncShellBenchmark benchmark) {
+            order = benchmark.distribution.order(benchmark.size, ORDER_LENGTH);
+            position = (int) Thread.currentThread().getId() * 7919;
+        }
+
+        int next() {
+            return order[position++ & (ORDER_LENGTH - 1)];
+        }
+    }
+
+    private static final int ORDER_LENGTH = 1 << 16;
+    private static final Function<String, Object> COMPUTE = key -> key;
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    @Param
+    private ShellType shell;
+
+    @Param({"UNIFORM", "ZIPF"})
+    private KeyDistribution distribution;
+
+    private Context context;
+    private String[] keys;
+    private String[] absentKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.keys("key", size);
+        absentKeys = distribution.keys("absent", size);
+        context = shell.wrap(ContextType.HASH.create());
+        for (String key : keys) {
+            context.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Object get(Cursor cursor) {
+        return context.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public Object put(Cursor cursor) {
+        String key = keys[cursor.next()];
+        return context.put(key, key);
+    }
+
+    @Benchmark
+    public Object getOrComputeAndPut(Cursor cursor) {
+        return context.getOrComputeAndPut(keys[cursor.next()], COMPUTE);
+    }
+
+    @Benchmark
+    public Object getOrCompute(Cursor cursor) {
+        return context.getOrCompute(keys[cursor.next()], COMPUTE);
+    }
+
+    @Benchmark
+    public Object getOrComputeAbsent(Cursor cursor) {
+        return context.getOrCompute(absentKeys[cursor.next()], COMPUTE);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public Object readMostlyGet(Cursor cursor) {
+        return context.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Object readMostlyPut(Cursor cursor) {
+        String key = keys[cursor.next()];
+        return context.put(key, key);
+    }
+
+    @Benchmark
+    @Group("compute")
+    @GroupThreads(4)
+    public Object computeGetOrComputeAndPut(Cursor cursor) {
+        return context.getOrComputeAndPut(keys[cursor.next()], COMPUTE);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.nnolab.util.context.impl;
 
 import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.LazyValue;
 
 import java.io.Serializable;
 import java.util.*;
@@ -50,7 +51,7 @@ public abstract class AbstractContext implements Context, Serializable {
          */
         @Override
         public Object getValue() {
-            return value;
+            return LazyValue.resolve(value);
         }
     }
 
@@ -94,7 +95,7 @@ public abstract class AbstractContext implements Context, Serializable {
         public void add(E element) {
             int e = end + 1;
             if (e == elements.length) {
-                Object[] newElements = new Object[e + 1];
+                Object[] newElements = new Object[e + (e >> 1) + 1];
                 System.arraycopy(elements, 0, newElements, 0, e);
                 elements = newElements;
             }
@@ -155,6 +156,14 @@ public abstract class AbstractContext implements Context, Serializable {
         public SeparatedValues(int capacity) {
             super(capacity);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object next() {
+            return LazyValue.resolve(super.next());
+        }
     }
 
     /**
@@ -255,7 +264,7 @@ public abstract class AbstractContext implements Context, Serializable {
          */
         @Override
         public Object getValue() {
-            return in.value;
+            return LazyValue.resolve(in.value);
         }
     }
 
@@ -323,7 +332,7 @@ public abstract class AbstractContext implements Context, Serializable {
          * @throws NoSuchElementException if no next node available
          */
         protected Object nextValue() {
-            return nextIN().value;
+            return LazyValue.resolve(nextIN().value);
         }
 
         /**
@@ -426,6 +435,7 @@ public abstract class AbstractContext implements Context, Serializable {
 
     protected static final String NULL_KEYS_NOT_SUPPORTED = "Null keys not supported";
     protected static final String NULL_VALUES_NOT_SUPPORTED = "Null values not supported";
+    protected static final String NO_MAPPING_NOT_STORED = "NO_MAPPING can not be stored";
 
     /**
      * Are {@code null} keys supported.
@@ -488,13 +498,28 @@ public abstract class AbstractContext implements Context, Serializable {
      * @param value checked value
      * @throws NullPointerException if {@code key} or {@code value} is {@code null}
      *                              and {@code null} keys or values are not supported
+     * @throws IllegalArgumentException if {@code value} is {@link #NO_MAPPING}
      */
     protected void checkNullKV(String key, Object value) {
         if (key == null && !supportNullKeys) {
             throw new NullPointerException(NULL_KEYS_NOT_SUPPORTED);
         }
-        if (value == null && !supportNullValues) {
-            throw new NullPointerException(NULL_VALUES_NOT_SUPPORTED);
+        checkStoredValue(value);
+    }
+
+    /**
+     * Check value, which is going to be stored, for {@code null}
+     * with regard to supportive and for {@link #NO_MAPPING}.
+     *
+     * @param value checked value
+     * @throws NullPointerException if {@code value} is {@code null}
+     *                              and {@code null} values are not supported
+     * @throws IllegalArgumentException if {@code value} is {@link #NO_MAPPING}
+     */
+    protected void checkStoredValue(Object value) {
+        checkNullValue(value);
+        if (value == NO_MAPPING) {
+            throw new IllegalArgumentException(NO_MAPPING_NOT_STORED);
         }
     }
 
@@ -520,4 +545,30 @@ public abstract class AbstractContext implements Context, Serializable {
         }
         return true;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>Computed by iteration over all mappings.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Entry entry : entries()) {
+            hash += entryHash(entry.getKey(), entry.getValue());
+        }
+        return hash;
+    }
+
+    /**
+     * Hash code of a single mapping, same as {@link Map.Entry#hashCode()}.
+     * This context, mapped as a value, is hashed as {@code null}
+     * to prevent infinite recursion.
+     *
+     * @param key   key
+     * @param value value
+     * @return hash code of mapping
+     */
+    protected int entryHash(String key, Object value) {
+        return Objects.hashCode(key) ^ (value == this ? 0 : Objects.hashCode(value));
+    }
 }
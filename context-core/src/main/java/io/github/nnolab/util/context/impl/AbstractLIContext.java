@@ -1,11 +1,13 @@
 package io.github.nnolab.util.context.impl;
 
 import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.LazyValue;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 /**
@@ -38,6 +40,11 @@ public abstract class AbstractLIContext extends AbstractContext {
      */
     protected transient volatile int size = 0;
 
+    /**
+     * Sum of hash codes of all mappings, maintained on every mutation.
+     */
+    protected transient int contentHash = 0;
+
     /**
      * Put given node into node set.
      *
@@ -97,6 +104,58 @@ public abstract class AbstractLIContext extends AbstractContext {
         putNode(node);
         addNodeToHead(node);
         size++;
+        contentHash += entryHash(key, value);
+    }
+
+    /**
+     * Replace value of existing node.
+     *
+     * @param node  node
+     * @param value new value
+     */
+    protected void setNodeValue(IterNode node, Object value) {
+        contentHash += entryHash(node.key, value) - entryHash(node.key, node.value);
+        node.value = value;
+    }
+
+    /**
+     * Read value of existing node. {@link LazyValue} is resolved
+     * and resolved value is stored instead of it.
+     *
+     * @param node node
+     * @return value of node
+     * @throws NullPointerException if lazy value is resolved to {@code null}
+     *                              and {@code null} values are not supported
+     */
+    protected Object readNodeValue(IterNode node) {
+        Object value = node.value;
+        if (value instanceof LazyValue) {
+            value = ((LazyValue) value).get();
+            checkStoredValue(value);
+            setNodeValue(node, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove existing node.
+     *
+     * @param node node
+     */
+    protected void deleteNode(IterNode node) {
+        removeNode(node);
+        size--;
+        contentHash -= entryHash(node.key, node.value);
+    }
+
+    /**
+     * Prepare node set for specified number of mappings before bulk
+     * insertion, so it is not resized on every insertion.
+     * Does nothing by default.
+     *
+     * @param expectedSize expected number of mappings
+     */
+    protected void ensureCapacity(int expectedSize) {
     }
 
     /**
@@ -118,12 +177,14 @@ public abstract class AbstractLIContext extends AbstractContext {
     protected void read(ObjectInputStream s) throws IOException, ClassNotFoundException {
         s.defaultReadObject();
         size = 0;
+        contentHash = 0;
         int sz = s.readInt();
         for (int i = 0; i < sz; i++) {
             IterNode node = (IterNode) s.readObject();
             putNode(node);
             addNodeToHead(node);
             size++;
+            contentHash += entryHash(node.key, node.value);
         }
     }
 
@@ -160,8 +221,8 @@ public abstract class AbstractLIContext extends AbstractContext {
             addNewNode(key, value);
             return null;
         } else {
-            Object oldVal = node.value;
-            node.value = value;
+            Object oldVal = readNodeValue(node);
+            setNodeValue(node, value);
             return oldVal;
         }
     }
@@ -176,7 +237,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (node == null) {
             return null;
         } else {
-            return node.value;
+            return readNodeValue(node);
         }
     }
 
@@ -190,8 +251,8 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (node == null) {
             addNewNode(key, value);
             return null;
-        } else if (node.value == null) {
-            node.value = value;
+        } else if (readNodeValue(node) == null) {
+            setNodeValue(node, value);
             return null;
         } else {
             return node.value;
@@ -209,7 +270,7 @@ public abstract class AbstractLIContext extends AbstractContext {
             addNewNode(key, value);
             return null;
         } else {
-            return node.value;
+            return readNodeValue(node);
         }
     }
 
@@ -223,10 +284,20 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (node == null) {
             return defaultValue;
         } else {
-            return node.value;
+            return readNodeValue(node);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object lookup(String key) {
+        checkNullKey(key);
+        IterNode node = findNode(key);
+        return node == null ? NO_MAPPING : readNodeValue(node);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -238,7 +309,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (node == null) {
             return function.apply(key);
         } else {
-            return node.value;
+            return readNodeValue(node);
         }
     }
 
@@ -252,11 +323,11 @@ public abstract class AbstractLIContext extends AbstractContext {
         IterNode node = findNode(key);
         if (node == null) {
             Object value = function.apply(key);
-            checkNullValue(value);
+            checkStoredValue(value);
             addNewNode(key, value);
             return value;
         } else {
-            return node.value;
+            return readNodeValue(node);
         }
     }
 
@@ -270,19 +341,43 @@ public abstract class AbstractLIContext extends AbstractContext {
         Objects.requireNonNull(valueType);
         Objects.requireNonNull(function);
         IterNode node = findNode(key);
+        Object current;
         if (node == null) {
             T value = function.apply(key);
-            checkNullValue(value);
+            checkStoredValue(value);
             addNewNode(key, value);
             return value;
-        } else if (!(valueType.isInstance(node.value))) {
+        } else if (!(valueType.isInstance(current = readNodeValue(node)))) {
             T value = function.apply(key);
-            checkNullValue(value);
-            node.value = value;
+            checkStoredValue(value);
+            setNodeValue(node, value);
             return value;
         } else {
-            return (T) node.value;
+            return (T) current;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LongAdder longAdder(String key) {
+        checkNullKey(key);
+        IterNode node = findNode(key);
+        Object current = node == null ? null : readNodeValue(node);
+        if (current instanceof LongAdder) {
+            return (LongAdder) current;
+        }
+        LongAdder adder = new LongAdder();
+        if (node == null) {
+            addNewNode(key, adder);
+        } else {
+            if (current instanceof Number) {
+                adder.add(((Number) current).longValue());
+            }
+            setNodeValue(node, adder);
         }
+        return adder;
     }
 
     /**
@@ -295,9 +390,9 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (node == null) {
             return null;
         } else {
-            removeNode(node);
-            size--;
-            return node.value;
+            Object value = readNodeValue(node);
+            deleteNode(node);
+            return value;
         }
     }
 
@@ -310,9 +405,8 @@ public abstract class AbstractLIContext extends AbstractContext {
         IterNode node = findNode(key);
         if (node == null) {
             return false;
-        } else if (node.value == value) {
-            removeNode(node);
-            size--;
+        } else if (readNodeValue(node) == value) {
+            deleteNode(node);
             return true;
         } else {
             return false;
@@ -330,12 +424,183 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (node == null) {
             return function.apply(key);
         } else {
-            removeNode(node);
-            size--;
-            return node.value;
+            Object value = readNodeValue(node);
+            deleteNode(node);
+            return value;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(String key, Object value) {
+        checkNullKey(key);
+        IterNode node = findNode(key);
+        if (node == null) {
+            return value == null;
+        } else if (Objects.equals(value, readNodeValue(node))) {
+            deleteNode(node);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T removeOfType(String key, Class<T> valueType) {
+        return removeOrGetDefault(key, valueType, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object removeOrGetDefault(String key, Object defaultValue) {
+        checkNullKey(key);
+        IterNode node = findNode(key);
+        Object value;
+        if (node == null || (value = readNodeValue(node)) == null) {
+            return defaultValue;
+        } else {
+            deleteNode(node);
+            return value;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T removeOrGetDefault(String key, Class<T> valueType, T defaultValue) {
+        checkNullKey(key);
+        Objects.requireNonNull(valueType);
+        IterNode node = findNode(key);
+        Object value;
+        if (node == null || !valueType.isInstance(value = readNodeValue(node))) {
+            return defaultValue;
+        } else {
+            deleteNode(node);
+            return (T) value;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T removeOrCompute(String key, Class<T> valueType, Function<String, T> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(valueType);
+        Objects.requireNonNull(function);
+        IterNode node = findNode(key);
+        Object value;
+        if (node == null || !valueType.isInstance(value = readNodeValue(node))) {
+            return function.apply(key);
+        } else {
+            deleteNode(node);
+            return (T) value;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(String key, Object expected, Object newValue) {
+        checkNullKV(key, newValue);
+        IterNode node = findNode(key);
+        if (node == null || !Objects.equals(readNodeValue(node), expected)) {
+            return false;
+        }
+        setNodeValue(node, newValue);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        checkNullKV(key, newValue);
+        IterNode node = findNode(key);
+        if (node == null || readNodeValue(node) != expected) {
+            return false;
+        }
+        setNodeValue(node, newValue);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object compute(String key, BiFunction<String, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        IterNode node = findNode(key);
+        Object newVal = function.apply(key, node == null ? null : readNodeValue(node));
+        if (newVal != null) {
+            if (node == null) {
+                addNewNode(key, newVal);
+            } else {
+                setNodeValue(node, newVal);
+            }
+        } else if (node != null) {
+            deleteNode(node);
+        }
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        IterNode node = findNode(key);
+        Object oldVal;
+        if (node == null || (oldVal = readNodeValue(node)) == null) {
+            return null;
+        }
+        Object newVal = function.apply(key, oldVal);
+        if (newVal != null) {
+            setNodeValue(node, newVal);
+        } else {
+            deleteNode(node);
+        }
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(function);
+        IterNode node = findNode(key);
+        if (node == null) {
+            addNewNode(key, value);
+            return value;
+        }
+        Object oldVal = readNodeValue(node);
+        Object newVal = oldVal == null ? value : function.apply(oldVal, value);
+        if (newVal != null) {
+            setNodeValue(node, newVal);
+        } else {
+            deleteNode(node);
+        }
+        return newVal;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -353,7 +618,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         checkNullValue(value);
         IterNode node = head.next;
         while (node != null) {
-            if (Objects.equals(node.value, value)) {
+            if (Objects.equals(readNodeValue(node), value)) {
                 return true;
             }
             node = node.next;
@@ -377,6 +642,15 @@ public abstract class AbstractLIContext extends AbstractContext {
         return size == 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Maintained on every mutation, so takes constant time.
+     */
+    @Override
+    public int hashCode() {
+        return contentHash;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -394,7 +668,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         }
         IterNode node = head.next;
         while (node != null) {
-            if (!Objects.equals(node.value, cobj.get(node.key))) {
+            if (!Objects.equals(readNodeValue(node), cobj.get(node.key))) {
                 return false;
             }
             node = node.next;
@@ -409,6 +683,7 @@ public abstract class AbstractLIContext extends AbstractContext {
     public AbstractLIContext clear() {
         head.next = null;
         size = 0;
+        contentHash = 0;
         return this;
     }
 
@@ -444,15 +719,55 @@ public abstract class AbstractLIContext extends AbstractContext {
         Objects.requireNonNull(criteria);
         IterNode node = head.next;
         while (node != null) {
-            if (!criteria.test(node.key, node.value)) {
-                removeNode(node);
-                size--;
+            if (!criteria.test(node.key, readNodeValue(node))) {
+                deleteNode(node);
             }
             node = node.next;
         }
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Node set is prepared for all source mappings at once,
+     * and nodes of linked source are iterated directly.
+     */
+    @Override
+    public AbstractLIContext copyFrom(Context source, Context.ReplaceRule replaceRule) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(replaceRule);
+        if (source == this) {
+            throw new IllegalArgumentException();
+        }
+        ensureCapacity(size + source.size());
+        if (!(source instanceof AbstractLIContext)) {
+            super.copyFrom(source, replaceRule);
+            return this;
+        }
+        IterNode node = ((AbstractLIContext) source).head.next;
+        switch (replaceRule) {
+            case PUT:
+                while (node != null) {
+                    put(node.key, node.value);
+                    node = node.next;
+                }
+                break;
+            case PUT_IF_ABSENT:
+                while (node != null) {
+                    putIfAbsent(node.key, node.value);
+                    node = node.next;
+                }
+                break;
+            case PUT_IF_KEY_ABSENT:
+                while (node != null) {
+                    putIfKeyAbsent(node.key, node.value);
+                    node = node.next;
+                }
+                break;
+        }
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -463,6 +778,10 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (acceptor == this) {
             throw new IllegalArgumentException();
         }
+        if (acceptor instanceof AbstractLIContext) {
+            AbstractLIContext target = (AbstractLIContext) acceptor;
+            target.ensureCapacity(target.size + size);
+        }
         IterNode node = head.next;
         switch (replaceRule) {
             case PUT:
@@ -506,7 +825,7 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT:
                 while (node != null) {
                     key = node.key;
-                    value = node.value;
+                    value = readNodeValue(node);
                     if (criteria.test(key, value)) {
                         acceptor.put(key, value);
                     }
@@ -516,7 +835,7 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT_IF_ABSENT:
                 while (node != null) {
                     key = node.key;
-                    value = node.value;
+                    value = readNodeValue(node);
                     if (criteria.test(key, value)) {
                         acceptor.putIfAbsent(key, value);
                     }
@@ -526,7 +845,7 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT_IF_KEY_ABSENT:
                 while (node != null) {
                     key = node.key;
-                    value = node.value;
+                    value = readNodeValue(node);
                     if (criteria.test(key, value)) {
                         acceptor.putIfKeyAbsent(key, value);
                     }
@@ -552,24 +871,21 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT:
                 while (node != null) {
                     acceptor.put(node.key, node.value);
-                    removeNode(node);
-                    size--;
+                    deleteNode(node);
                     node = node.next;
                 }
                 break;
             case PUT_IF_ABSENT:
                 while (node != null) {
                     acceptor.putIfAbsent(node.key, node.value);
-                    removeNode(node);
-                    size--;
+                    deleteNode(node);
                     node = node.next;
                 }
                 break;
             case PUT_IF_KEY_ABSENT:
                 while (node != null) {
                     acceptor.putIfKeyAbsent(node.key, node.value);
-                    removeNode(node);
-                    size--;
+                    deleteNode(node);
                     node = node.next;
                 }
                 break;
@@ -596,11 +912,10 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT:
                 while (node != null) {
                     key = node.key;
-                    value = node.value;
+                    value = readNodeValue(node);
                     if (criteria.test(key, value)) {
                         acceptor.put(key, value);
-                        removeNode(node);
-                        size--;
+                        deleteNode(node);
                     }
                     node = node.next;
                 }
@@ -608,11 +923,10 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT_IF_ABSENT:
                 while (node != null) {
                     key = node.key;
-                    value = node.value;
+                    value = readNodeValue(node);
                     if (criteria.test(key, value)) {
                         acceptor.putIfAbsent(key, value);
-                        removeNode(node);
-                        size--;
+                        deleteNode(node);
                     }
                     node = node.next;
                 }
@@ -620,11 +934,10 @@ public abstract class AbstractLIContext extends AbstractContext {
             case PUT_IF_KEY_ABSENT:
                 while (node != null) {
                     key = node.key;
-                    value = node.value;
+                    value = readNodeValue(node);
                     if (criteria.test(key, value)) {
                         acceptor.putIfKeyAbsent(key, value);
-                        removeNode(node);
-                        size--;
+                        deleteNode(node);
                     }
                     node = node.next;
                 }
@@ -668,7 +981,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (replace) {
             while (node != null) {
                 key = node.key;
-                value = node.value;
+                value = readNodeValue(node);
                 if (criteria.test(key, value)) {
                     acceptor.put(key, value);
                 }
@@ -677,7 +990,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         } else {
             while (node != null) {
                 key = node.key;
-                value = node.value;
+                value = readNodeValue(node);
                 if (criteria.test(key, value)) {
                     acceptor.putIfAbsent(key, value);
                 }
@@ -697,15 +1010,13 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (replace) {
             while (node != null) {
                 acceptor.put(node.key, node.value);
-                removeNode(node);
-                size--;
+                deleteNode(node);
                 node = node.next;
             }
         } else {
             while (node != null) {
                 acceptor.putIfAbsent(node.key, node.value);
-                removeNode(node);
-                size--;
+                deleteNode(node);
                 node = node.next;
             }
         }
@@ -726,22 +1037,20 @@ public abstract class AbstractLIContext extends AbstractContext {
         if (replace) {
             while (node != null) {
                 key = node.key;
-                value = node.value;
+                value = readNodeValue(node);
                 if (criteria.test(key, value)) {
                     acceptor.put(key, value);
-                    removeNode(node);
-                    size--;
+                    deleteNode(node);
                 }
                 node = node.next;
             }
         } else {
             while (node != null) {
                 key = node.key;
-                value = node.value;
+                value = readNodeValue(node);
                 if (criteria.test(key, value)) {
                     acceptor.putIfAbsent(key, value);
-                    removeNode(node);
-                    size--;
+                    deleteNode(node);
                 }
                 node = node.next;
             }
@@ -757,7 +1066,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         Objects.requireNonNull(action);
         IterNode node = head.next;
         while (node != null) {
-            action.accept(node.key, node.value);
+            action.accept(node.key, readNodeValue(node));
             node = node.next;
         }
         return this;
@@ -775,7 +1084,7 @@ public abstract class AbstractLIContext extends AbstractContext {
         IterNode node = head.next;
         while (node != null) {
             key = node.key;
-            value = node.value;
+            value = readNodeValue(node);
             if (criteria.test(key, value)) {
                 action.accept(key, value);
             }
@@ -0,0 +1,448 @@
+package io.github.nnolab.util.context.impl;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.lang.ref.WeakReference;
+
+/**
+ * Immutable key set with fixed key-to-slot mapping,
+ * shared by all {@link ShapedContext} instances with the same keys.
+ * <p>Shapes form a transition tree from {@link #EMPTY}:
+ * adding or removing a key leads to a cached shape, so contexts,
+ * filled with the same keys in the same order, share the same shape instances.
+ * Transitions are weakly referenced and each shared shape strongly references
+ * its parent, so the path to any live shape is kept, and shapes, unused
+ * by any context, are evicted by garbage collector.
+ * Number of cached transitions of each shape and number of keys of shared
+ * shapes are limited. Shapes over the limits are still correct, but not shared,
+ * so {@link ShapedContext} switches to its own mutable dictionary shape.
+ * Tables of transitions are allocated on the first transition,
+ * so leaf shapes hold only their keys.
+ * <p>Thread-safe.
+ *
+ * @author nnolab
+ */
+public class ContextShape {
+
+    /**
+     * Maximum number of cached transitions of a single shape.
+     */
+    public static final int MAX_TRANSITIONS = 64;
+
+    /**
+     * Maximum number of keys of a shape, cached in the transition tree.
+     */
+    public static final int MAX_SHARED_SIZE = 32;
+
+    /**
+     * Shape without keys, the root of all shared shapes.
+     */
+    public static final ContextShape EMPTY = new ContextShape(new String[0]);
+
+    /**
+     * Keys by slots.
+     */
+    private final String[] keys;
+
+    /**
+     * Open-addressing hash table of keys, its length is a power of two.
+     */
+    private final String[] table;
+
+    /**
+     * Slots of keys in the {@link #table}.
+     */
+    private final int[] slots;
+
+    private volatile ConcurrentHashMap<String, WeakReference<ContextShape>> additions;
+    private volatile ConcurrentHashMap<String, WeakReference<ContextShape>> removals;
+
+    /**
+     * Shape, this shape is cached in, or {@code null} if this shape is not shared.
+     * Keeps the path from {@link #EMPTY} while this shape is reachable.
+     */
+    private ContextShape parent;
+
+    private ContextShape(String[] keys) {
+        this.keys = keys;
+        int length = 2;
+        while (length < keys.length * 2) {
+            length <<= 1;
+        }
+        table = new String[length];
+        slots = new int[length];
+        int mask = length - 1;
+        for (int slot = 0; slot < keys.length; slot++) {
+            int pos = hash(keys[slot]) & mask;
+            while (table[pos] != null) {
+                pos = (pos + 1) & mask;
+            }
+            table[pos] = keys[slot];
+            slots[pos] = slot;
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Shared shape with specified keys in specified slot order.
+     *
+     * @param keys keys
+     * @return shape
+     * @throws NullPointerException     if any key is {@code null}
+     * @throws IllegalArgumentException if keys contain duplicates
+     */
+    public static ContextShape of(String... keys) {
+        ContextShape shape = EMPTY;
+        for (String key : keys) {
+            shape = shape.withKey(key);
+        }
+        return shape;
+    }
+
+    /**
+     * Number of keys.
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Key in the specified slot.
+     *
+     * @param slot slot
+     * @return key
+     * @throws IndexOutOfBoundsException if there is no such slot
+     */
+    public String key(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Slot of specified key.
+     *
+     * @param key key
+     * @return slot of the key, or {@code -1} if this shape
+     * does not contain the key
+     * @throws NullPointerException if key is {@code null}
+     */
+    public int slotOf(String key) {
+        int mask = table.length - 1;
+        int pos = hash(key) & mask;
+        String k;
+        while ((k = table[pos]) != null) {
+            if (k == key || k.equals(key)) {
+                return slots[pos];
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Shape with all keys of this shape and specified key
+     * in the last slot.
+     *
+     * @param key new key
+     * @return shape with added key
+     * @throws NullPointerException     if key is {@code null}
+     * @throws IllegalArgumentException if this shape already contains the key
+     */
+    public ContextShape withKey(String key) {
+        ContextShape shape = cached(additions, Objects.requireNonNull(key));
+        if (shape != null) {
+            return shape;
+        }
+        if (slotOf(key) >= 0) {
+            throw new IllegalArgumentException("Key duplication: " + key);
+        }
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        newKeys[keys.length] = key;
+        return transition(true, key, new ContextShape(newKeys));
+    }
+
+    /**
+     * Shape with all keys of this shape except specified one.
+     * The key in the last slot of this shape is moved to the slot
+     * of removed key.
+     *
+     * @param key removed key
+     * @return shape without the key
+     * @throws NullPointerException     if key is {@code null}
+     * @throws IllegalArgumentException if this shape does not contain the key
+     */
+    public ContextShape withoutKey(String key) {
+        ContextShape shape = cached(removals, Objects.requireNonNull(key));
+        if (shape != null) {
+            return shape;
+        }
+        int slot = slotOf(key);
+        if (slot < 0) {
+            throw new IllegalArgumentException("No such key: " + key);
+        }
+        int last = keys.length - 1;
+        String[] newKeys = Arrays.copyOf(keys, last);
+        if (slot != last) {
+            newKeys[slot] = keys[last];
+        }
+        return transition(false, key, new ContextShape(newKeys));
+    }
+
+    private static ContextShape cached(ConcurrentHashMap<String, WeakReference<ContextShape>> cache,
+                                       String key) {
+        WeakReference<ContextShape> ref = cache == null ? null : cache.get(key);
+        return ref == null ? null : ref.get();
+    }
+
+    private ContextShape transition(boolean addition, String key, ContextShape shape) {
+        if (shape.keys.length > MAX_SHARED_SIZE) {
+            return shape;
+        }
+        ConcurrentHashMap<String, WeakReference<ContextShape>> transitions = transitions(addition);
+        if (transitions.size() >= MAX_TRANSITIONS) {
+            transitions.values().removeIf(ref -> ref.get() == null);
+            if (transitions.size() >= MAX_TRANSITIONS) {
+                return shape;
+            }
+        }
+        shape.parent = this;
+        WeakReference<ContextShape> ref = new WeakReference<>(shape);
+        for (; ; ) {
+            WeakReference<ContextShape> cachedRef = transitions.putIfAbsent(key, ref);
+            if (cachedRef == null) {
+                return shape;
+            }
+            ContextShape cached = cachedRef.get();
+            if (cached != null) {
+                return cached;
+            }
+            if (transitions.replace(key, cachedRef, ref)) {
+                return shape;
+            }
+        }
+    }
+
+    /**
+     * Get table of addition or removal transitions, allocating it on demand.
+     *
+     * @param addition {@code true} for additions or {@code false} for removals
+     * @return table of transitions
+     */
+    private ConcurrentHashMap<String, WeakReference<ContextShape>> transitions(boolean addition) {
+        ConcurrentHashMap<String, WeakReference<ContextShape>> transitions = addition ? additions : removals;
+        if (transitions == null) {
+            synchronized (this) {
+                transitions = addition ? additions : removals;
+                if (transitions == null) {
+                    transitions = new ConcurrentHashMap<>(4);
+                    if (addition) {
+                        additions = transitions;
+                    } else {
+                        removals = transitions;
+                    }
+                }
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * Whether this shape is cached in the transition tree.
+     *
+     * @return {@code true} if this shape is shared
+     */
+    boolean isShared() {
+        return this == EMPTY || parent != null;
+    }
+
+    /**
+     * Whether this shape is a mutable dictionary, owned by a single context.
+     *
+     * @return {@code true} if this shape is mutable
+     */
+    boolean isMutable() {
+        return false;
+    }
+
+    /**
+     * New mutable dictionary shape with keys of this shape in the same slots.
+     * {@link #withKey(String)} and {@link #withoutKey(String)} of a dictionary
+     * modify and return it in amortized constant time.
+     *
+     * @return new mutable shape
+     */
+    ContextShape mutable() {
+        return new Dictionary(this);
+    }
+
+    /**
+     * Immutable shape with keys of this shape in the same slots.
+     *
+     * @return this shape, or unshared immutable copy of mutable shape
+     */
+    ContextShape immutable() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ContextShape: " + Arrays.toString(keys);
+    }
+
+    /**
+     * Mutable shape of a single context with too many or too unique keys
+     * to be shared. Removed key is replaced by the key in the last slot
+     * as in immutable shapes.
+     */
+    private static final class Dictionary extends ContextShape {
+
+        private String[] keys;
+        private int size;
+        private String[] table;
+        private int[] slots;
+
+        private Dictionary(ContextShape source) {
+            super(new String[0]);
+            size = source.size();
+            keys = new String[Math.max(size + (size >> 1), 2)];
+            for (int slot = 0; slot < size; slot++) {
+                keys[slot] = source.key(slot);
+            }
+            int length = 2;
+            while (length < keys.length * 2) {
+                length <<= 1;
+            }
+            rehash(length);
+        }
+
+        private void rehash(int length) {
+            table = new String[length];
+            slots = new int[length];
+            for (int slot = 0; slot < size; slot++) {
+                insert(keys[slot], slot);
+            }
+        }
+
+        private void insert(String key, int slot) {
+            int mask = table.length - 1;
+            int pos = hash(key) & mask;
+            while (table[pos] != null) {
+                pos = (pos + 1) & mask;
+            }
+            table[pos] = key;
+            slots[pos] = slot;
+        }
+
+        private int positionOf(String key) {
+            int mask = table.length - 1;
+            int pos = hash(key) & mask;
+            String k;
+            while ((k = table[pos]) != null) {
+                if (k == key || k.equals(key)) {
+                    return pos;
+                }
+                pos = (pos + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Delete key from the table, shifting back following keys of its cluster.
+         *
+         * @param pos position of deleted key
+         */
+        private void delete(int pos) {
+            int mask = table.length - 1;
+            table[pos] = null;
+            for (int next = (pos + 1) & mask; table[next] != null; next = (next + 1) & mask) {
+                int home = hash(table[next]) & mask;
+                if (((next - home) & mask) >= ((next - pos) & mask)) {
+                    table[pos] = table[next];
+                    slots[pos] = slots[next];
+                    table[next] = null;
+                    pos = next;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String key(int slot) {
+            if (slot >= size) {
+                throw new IndexOutOfBoundsException("Slot: " + slot + ", size: " + size);
+            }
+            return keys[slot];
+        }
+
+        @Override
+        public int slotOf(String key) {
+            int pos = positionOf(key);
+            return pos < 0 ? -1 : slots[pos];
+        }
+
+        @Override
+        public ContextShape withKey(String key) {
+            if (positionOf(Objects.requireNonNull(key)) >= 0) {
+                throw new IllegalArgumentException("Key duplication: " + key);
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size + (size >> 1) + 1);
+            }
+            if ((size + 1) * 2 > table.length) {
+                rehash(table.length << 1);
+            }
+            keys[size] = key;
+            insert(key, size++);
+            return this;
+        }
+
+        @Override
+        public ContextShape withoutKey(String key) {
+            int pos = positionOf(Objects.requireNonNull(key));
+            if (pos < 0) {
+                throw new IllegalArgumentException("No such key: " + key);
+            }
+            int slot = slots[pos];
+            delete(pos);
+            int last = --size;
+            if (slot != last) {
+                keys[slot] = keys[last];
+                slots[positionOf(keys[slot])] = slot;
+            }
+            keys[last] = null;
+            return this;
+        }
+
+        @Override
+        boolean isShared() {
+            return false;
+        }
+
+        @Override
+        boolean isMutable() {
+            return true;
+        }
+
+        @Override
+        ContextShape immutable() {
+            return new ContextShape(Arrays.copyOf(keys, size));
+        }
+
+        @Override
+        public String toString() {
+            return "ContextShape: " + Arrays.toString(Arrays.copyOf(keys, size));
+        }
+    }
+}
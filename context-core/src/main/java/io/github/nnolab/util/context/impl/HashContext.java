@@ -179,11 +179,22 @@ public class HashContext extends AbstractLIContext {
         this(source, true);
     }
 
+    /**
+     * Hash table position of the key.
+     *
+     * @param key    key
+     * @param length hash table length
+     * @return position, non-negative even for negative hash codes
+     */
+    private static int position(String key, int length) {
+        return (key.hashCode() & Integer.MAX_VALUE) % length;
+    }
+
     private void putNode(HashTableIterNode node, boolean resizing) {
         if (!resizing && size + 1 > extendThreshold) {
             resize(extendMul, extendFactor, compressFactor);
         }
-        int pos = node.key.hashCode() % hashTable.length;
+        int pos = position(node.key, hashTable.length);
         HashTableIterNode cur = hashTable[pos];
         hashTable[pos] = node;
         node.prevHT = null;
@@ -273,6 +284,30 @@ public class HashContext extends AbstractLIContext {
         this.compressMul = compressMul;
     }
 
+    /**
+     * Extend hash table at once, so the specified number of mappings fits
+     * without further extensions. Table is never compressed by this method.
+     *
+     * @param expectedSize expected number of mappings
+     */
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize <= extendThreshold) {
+            return;
+        }
+        int newCapacity = capacity;
+        while (Math.round(newCapacity * extendFactor) < expectedSize) {
+            int next = Math.round(newCapacity * extendMul);
+            if (next <= newCapacity || next == Integer.MAX_VALUE) {
+                break;
+            }
+            newCapacity = next;
+        }
+        resize(newCapacity);
+        extendThreshold = Math.round(capacity * extendFactor);
+        compressThreshold = (int) (capacity * compressFactor);
+    }
+
     private void writeObject(ObjectOutputStream s) throws IOException {
         write(s);
     }
@@ -282,12 +317,14 @@ public class HashContext extends AbstractLIContext {
         s.defaultReadObject();
         hashTable = new HashTableIterNode[capacity];
         size = 0;
+        contentHash = 0;
         int sz = s.readInt();
         for (int i = 0; i < sz; i++) {
             HashTableIterNode node = (HashTableIterNode) s.readObject();
             putNode(node);
             addNodeToHead(node);
             size++;
+            contentHash += entryHash(node.key, node.value);
         }
     }
 
@@ -312,7 +349,7 @@ public class HashContext extends AbstractLIContext {
      */
     @Override
     protected IterNode findNode(String key) {
-        HashTableIterNode node = hashTable[key.hashCode() % hashTable.length];
+        HashTableIterNode node = hashTable[position(key, hashTable.length)];
         while (node != null) {
             if (key.equals(node.key)) {
                 break;
@@ -331,7 +368,7 @@ public class HashContext extends AbstractLIContext {
             resize(compressMul, extendFactor, compressFactor);
         }
         HashTableIterNode nodeHT = (HashTableIterNode) node;
-        int pos = node.key.hashCode() % hashTable.length;
+        int pos = position(node.key, hashTable.length);
         if (hashTable[pos] == nodeHT) {
             hashTable[pos] = nodeHT.nextHT;
         } else {
@@ -351,41 +388,155 @@ public class HashContext extends AbstractLIContext {
         Arrays.fill(hashTable, null);
         head.next = null;
         size = 0;
+        contentHash = 0;
         if (size < compressThreshold) {
             resize(compressMul, extendFactor, compressFactor);
         }
         return this;
     }
 
+    /**
+     * Removes all of the mappings from this context, like {@link #clear()},
+     * but keeps hash table capacity. Only occupied hash table positions
+     * are cleared, so reset takes time, proportional to number of mappings.
+     * Useful for reusing of contexts, for example, in context pools.
+     *
+     * @return this
+     */
+    public HashContext reset() {
+        IterNode node = head.next;
+        while (node != null) {
+            hashTable[position(node.key, hashTable.length)] = null;
+            node = node.next;
+        }
+        head.next = null;
+        size = 0;
+        contentHash = 0;
+        return this;
+    }
+
+    /**
+     * Create empty context with specified parameters for copies of this context.
+     * Subclasses override it to produce copies of their own type.
+     *
+     * @see #HashContext(boolean, int, float, float, float, float)
+     */
+    protected HashContext createEmpty(boolean supportNullValues, int capacity,
+                                      float extendFactor, float compressFactor,
+                                      float extendMul, float compressMul) {
+        return new HashContext(supportNullValues, capacity,
+                extendFactor, compressFactor,
+                extendMul, compressMul);
+    }
+
     /**
      * {@inheritDoc}
+     * <p>Hash table of the copy is sized once, nodes are linked in the same
+     * order without per-mapping lookups, and content hash code is reused.
      */
     @Override
     public HashContext copy() {
-        HashContext copy = new HashContext(supportNullValues, capacity,
+        HashContext copy = createEmpty(supportNullValues, capacity,
                 extendFactor, compressFactor,
                 extendMul, compressMul);
+        copy.ensureCapacity(size);
+        IterNode tail = copy.head;
         IterNode node = head.next;
         while (node != null) {
-            copy.addNewNode(node.key, node.value);
+            HashTableIterNode copied = (HashTableIterNode) copy.createNewNode(node.key, node.value);
+            copy.putNode(copied, true);
+            copied.prev = tail;
+            tail.next = copied;
+            tail = copied;
             node = node.next;
         }
+        copy.size = size;
+        copy.contentHash = contentHash;
         return copy;
     }
 
+    /**
+     * Put all mappings of linked source with {@link Context.ReplaceRule#PUT} or
+     * {@link Context.ReplaceRule#PUT_IF_KEY_ABSENT} rule by node hooks.
+     * Hash table is sized once, keys and values, already checked by source,
+     * are not checked again, replaced values are not resolved, and nodes
+     * are not looked up, if this context is empty.
+     *
+     * @param source  source context
+     * @param replace {@code true} to replace values of present keys
+     * @return {@code false} if source may contain mappings, not supported
+     * by this context, so nothing is copied
+     */
+    private boolean putAllNodes(AbstractLIContext source, boolean replace) {
+        if ((source.supportNullKeys && !supportNullKeys)
+                || (source.supportNullValues && !supportNullValues)) {
+            return false;
+        }
+        boolean empty = size == 0;
+        ensureCapacity(size + source.size);
+        IterNode node = source.head.next;
+        while (node != null) {
+            IterNode present = empty ? null : findNode(node.key);
+            if (present == null) {
+                addNewNode(node.key, node.value);
+            } else if (replace) {
+                setNodeValue(present, node.value);
+            }
+            node = node.next;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Mappings of linked source are put directly by node hooks,
+     * unless rule is {@link Context.ReplaceRule#PUT_IF_ABSENT},
+     * which needs current values.
+     */
+    @Override
+    public HashContext copyFrom(Context source, Context.ReplaceRule replaceRule) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(replaceRule);
+        if (source == this || !(source instanceof AbstractLIContext)
+                || replaceRule == Context.ReplaceRule.PUT_IF_ABSENT
+                || !putAllNodes((AbstractLIContext) source, replaceRule == Context.ReplaceRule.PUT)) {
+            super.copyFrom(source, replaceRule);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Mappings are put directly by node hooks of hash context acceptor,
+     * unless rule is {@link Context.ReplaceRule#PUT_IF_ABSENT}.
+     */
+    @Override
+    public HashContext copyTo(Context acceptor, Context.ReplaceRule replaceRule) {
+        Objects.requireNonNull(acceptor);
+        Objects.requireNonNull(replaceRule);
+        if (acceptor == this || !(acceptor instanceof HashContext)
+                || replaceRule == Context.ReplaceRule.PUT_IF_ABSENT
+                || !((HashContext) acceptor).putAllNodes(this, replaceRule == Context.ReplaceRule.PUT)) {
+            super.copyTo(acceptor, replaceRule);
+        }
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public HashContext copy(BiPredicate<String, Object> criteria) {
         Objects.requireNonNull(criteria);
-        HashContext copy = new HashContext(supportNullValues, capacity,
+        HashContext copy = createEmpty(supportNullValues, capacity,
                 extendFactor, compressFactor,
                 extendMul, compressMul);
+        Object value;
         IterNode node = head.next;
         while (node != null) {
-            if (criteria.test(node.key, node.value)) {
-                copy.addNewNode(node.key, node.value);
+            value = readNodeValue(node);
+            if (criteria.test(node.key, value)) {
+                copy.addNewNode(node.key, value);
             }
             node = node.next;
         }
@@ -0,0 +1,325 @@
+package io.github.nnolab.util.context.impl;
+
+import io.github.nnolab.util.context.BiContext;
+import io.github.nnolab.util.context.LazyValue;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.*;
+import java.util.function.BiPredicate;
+
+/**
+ * {@link HashContext} with index of keys by values, updated on every mutation.
+ * {@link #containsValue(Object)}, {@link #keysOf(Object)} and
+ * {@link #removeValue(Object)} take constant time (proportional to number
+ * of keys, mapped to the value, for the last two).
+ * <p>Index holds single key for a value without additional allocation,
+ * several keys for the same value are held in a set.
+ * Unresolved lazy values are not indexed, they are resolved and indexed
+ * by the first query by value.
+ * Null keys not allowed.
+ * Not thread-safe.
+ *
+ * @author nnolab
+ */
+public class IndexedHashContext extends HashContext implements BiContext {
+
+    private static final long serialVersionUID = -2461809357916830521L;
+
+    /**
+     * Value to a key or to a set of keys.
+     */
+    private transient HashMap<Object, Object> index = new HashMap<>();
+
+    /**
+     * Number of unresolved lazy values, which are not indexed.
+     */
+    private transient int lazyCount = 0;
+
+    /**
+     * Constructor with full parameters set.
+     *
+     * @see HashContext#HashContext(boolean, int, float, float, float, float)
+     */
+    public IndexedHashContext(boolean supportNullValues, int capacity,
+                              float extendFactor, float compressFactor,
+                              float extendMul, float compressMul) {
+        super(supportNullValues, capacity, extendFactor, compressFactor, extendMul, compressMul);
+    }
+
+    /**
+     * @see #IndexedHashContext(boolean, int, float, float, float, float)
+     */
+    public IndexedHashContext(boolean supportNullValues, int capacity) {
+        this(supportNullValues, capacity, DEFAULT_EXTEND_FACTOR, DEFAULT_COMPRESS_FACTOR, DEFAULT_EXTEND_MULTIPLICATOR, DEFAULT_COMPRESS_MULTIPLICATOR);
+    }
+
+    /**
+     * @see #IndexedHashContext(boolean, int, float, float, float, float)
+     */
+    public IndexedHashContext(int capacity) {
+        this(true, capacity);
+    }
+
+    /**
+     * @see #IndexedHashContext(boolean, int, float, float, float, float)
+     */
+    public IndexedHashContext(boolean supportNullValues) {
+        this(supportNullValues, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @see #IndexedHashContext(boolean, int, float, float, float, float)
+     */
+    public IndexedHashContext() {
+        this(true, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create context with all mappings in specified source.
+     *
+     * @param source            source map
+     * @param supportNullValues {@code null} values option
+     * @throws NullPointerException if source map is {@code null} or if source map
+     *                              contains {@code null} keys, or {@code null} values,
+     *                              but they are not supported
+     */
+    public IndexedHashContext(Map<String, Object> source, boolean supportNullValues) {
+        this(supportNullValues, Math.max(source.size(), 1));
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            checkNullKV(key, value);
+            addNewNode(key, value);
+        }
+    }
+
+    /**
+     * @see #IndexedHashContext(Map, boolean)
+     */
+    public IndexedHashContext(Map<String, Object> source) {
+        this(source, true);
+    }
+
+    /**
+     * Add key to index of the value.
+     *
+     * @param key   key
+     * @param value value
+     */
+    @SuppressWarnings("unchecked")
+    private void index(String key, Object value) {
+        if (value instanceof LazyValue) {
+            lazyCount++;
+            return;
+        }
+        Object keys = index.putIfAbsent(value, key);
+        if (keys instanceof String) {
+            Set<String> set = new LinkedHashSet<>();
+            set.add((String) keys);
+            set.add(key);
+            index.put(value, set);
+        } else if (keys != null) {
+            ((Set<String>) keys).add(key);
+        }
+    }
+
+    /**
+     * Remove key from index of the value.
+     *
+     * @param key   key
+     * @param value value
+     */
+    @SuppressWarnings("unchecked")
+    private void unindex(String key, Object value) {
+        if (value instanceof LazyValue) {
+            lazyCount--;
+            return;
+        }
+        Object keys = index.get(value);
+        if (keys instanceof Set) {
+            Set<String> set = (Set<String>) keys;
+            set.remove(key);
+            if (set.size() == 1) {
+                index.put(value, set.iterator().next());
+            }
+        } else {
+            index.remove(value);
+        }
+    }
+
+    private void readObject(ObjectInputStream s)
+            throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        index = new HashMap<>();
+        reindex();
+    }
+
+    /**
+     * Build index from scratch for all mappings.
+     */
+    private void reindex() {
+        index.clear();
+        lazyCount = 0;
+        IterNode node = head.next;
+        while (node != null) {
+            index(node.key, node.value);
+            node = node.next;
+        }
+    }
+
+    /**
+     * Resolve all lazy values, so they are indexed.
+     */
+    private void resolveLazyValues() {
+        if (lazyCount == 0) {
+            return;
+        }
+        IterNode node = head.next;
+        while (node != null) {
+            readNodeValue(node);
+            node = node.next;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addNewNode(String key, Object value) {
+        super.addNewNode(key, value);
+        index(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void setNodeValue(IterNode node, Object value) {
+        Object oldVal = node.value;
+        super.setNodeValue(node, value);
+        if (!Objects.equals(oldVal, value)) {
+            unindex(node.key, oldVal);
+            index(node.key, value);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void deleteNode(IterNode node) {
+        super.deleteNode(node);
+        unindex(node.key, node.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected HashContext createEmpty(boolean supportNullValues, int capacity,
+                                      float extendFactor, float compressFactor,
+                                      float extendMul, float compressMul) {
+        return new IndexedHashContext(supportNullValues, capacity,
+                extendFactor, compressFactor,
+                extendMul, compressMul);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        checkNullValue(value);
+        resolveLazyValues();
+        return index.containsKey(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Keys keysOf(Object value) {
+        checkNullValue(value);
+        resolveLazyValues();
+        Object keys = index.get(value);
+        if (keys instanceof String) {
+            SeparatedKeys single = new SeparatedKeys(1);
+            single.add((String) keys);
+            return single;
+        }
+        if (keys == null) {
+            return new SeparatedKeys(0);
+        }
+        Set<String> set = (Set<String>) keys;
+        SeparatedKeys all = new SeparatedKeys(set.size());
+        for (String key : set) {
+            all.add(key);
+        }
+        return all;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int removeValue(Object value) {
+        checkNullValue(value);
+        resolveLazyValues();
+        Object keys = index.get(value);
+        if (keys instanceof String) {
+            deleteNode(findNode((String) keys));
+            return 1;
+        }
+        if (keys == null) {
+            return 0;
+        }
+        String[] removed = ((Set<String>) keys).toArray(new String[0]);
+        for (String key : removed) {
+            deleteNode(findNode(key));
+        }
+        return removed.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IndexedHashContext clear() {
+        super.clear();
+        index.clear();
+        lazyCount = 0;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IndexedHashContext reset() {
+        super.reset();
+        index.clear();
+        lazyCount = 0;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IndexedHashContext copy() {
+        IndexedHashContext copy = (IndexedHashContext) super.copy();
+        copy.reindex();
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IndexedHashContext copy(BiPredicate<String, Object> criteria) {
+        return (IndexedHashContext) super.copy(criteria);
+    }
+}
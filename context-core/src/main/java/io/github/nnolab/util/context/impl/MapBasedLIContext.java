@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SortedMap;
 import java.util.function.BiPredicate;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
@@ -205,10 +206,12 @@ public class MapBasedLIContext extends AbstractLIContext {
             throws IOException, ClassNotFoundException {
         s.defaultReadObject();
         size = 0;
+        contentHash = 0;
         for (Map.Entry<String, Object> mapEntry : map.entrySet()) {
             IterNode node = (IterNode) mapEntry.getValue();
             addNodeToHead(node);
             size++;
+            contentHash += entryHash(node.key, node.value);
         }
     }
 
@@ -222,6 +225,29 @@ public class MapBasedLIContext extends AbstractLIContext {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>If encapsulated map is a {@link SortedMap} with natural ordering,
+     * only matching entries are iterated in key order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Entries entries(String prefix) {
+        Objects.requireNonNull(prefix);
+        if (!(map instanceof SortedMap) || ((SortedMap<String, Object>) map).comparator() != null) {
+            return super.entries(prefix);
+        }
+        SeparatedEntries entries = new SeparatedEntries(DEFAULT_CAPACITY);
+        for (Object node : ((SortedMap<String, Object>) map).tailMap(prefix).values()) {
+            Entry entry = ((IterNode) node).entry;
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -245,10 +271,12 @@ public class MapBasedLIContext extends AbstractLIContext {
         Objects.requireNonNull(criteria);
         MapBasedLIContext copy = new MapBasedLIContext(supportNullKeys, supportNullValues,
                 defaultMapSupplier, capacityMapSupplier, size);
+        Object value;
         IterNode node = head.next;
         while (node != null) {
-            if (criteria.test(node.key, node.value)) {
-                copy.addNewNode(node.key, node.value);
+            value = readNodeValue(node);
+            if (criteria.test(node.key, value)) {
+                copy.addNewNode(node.key, value);
             }
             node = node.next;
         }
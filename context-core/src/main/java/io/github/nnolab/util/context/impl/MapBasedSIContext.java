@@ -1,6 +1,7 @@
 package io.github.nnolab.util.context.impl;
 
 import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.LazyValue;
 
 import java.util.*;
 import java.util.function.*;
@@ -198,7 +199,25 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public Object put(String key, Object value) {
         checkNullKV(key, value);
-        return map.put(key, value);
+        return LazyValue.resolve(map.put(key, value));
+    }
+
+    /**
+     * Resolve value, if it is {@link LazyValue}, and store resolved
+     * value instead of it.
+     *
+     * @param key   key
+     * @param value value, mapped to the key
+     * @return resolved value
+     */
+    private Object resolve(String key, Object value) {
+        if (value instanceof LazyValue) {
+            Object resolved = ((LazyValue) value).get();
+            checkStoredValue(resolved);
+            map.replace(key, value, resolved);
+            return resolved;
+        }
+        return value;
     }
 
     /**
@@ -207,7 +226,7 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public Object get(String key) {
         checkNullKey(key);
-        return map.get(key);
+        return resolve(key, map.get(key));
     }
 
     /**
@@ -216,7 +235,11 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public Object putIfAbsent(String key, Object value) {
         checkNullKV(key, value);
-        return map.putIfAbsent(key, value);
+        Object oldVal = resolve(key, map.get(key));
+        if (oldVal == null) {
+            map.put(key, value);
+        }
+        return oldVal;
     }
 
     /**
@@ -225,8 +248,9 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public Object putIfKeyAbsent(String key, Object value) {
         checkNullKV(key, value);
-        if (map.containsKey(key)) {
-            return map.get(key);
+        Object oldVal = map.getOrDefault(key, NO_MAPPING);
+        if (oldVal != NO_MAPPING) {
+            return resolve(key, oldVal);
         }
         return map.put(key, value);
     }
@@ -237,10 +261,17 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public Object getOrDefault(String key, Object defaultValue) {
         checkNullKey(key);
-        if (map.containsKey(key)) {
-            return map.get(key);
-        }
-        return defaultValue;
+        Object value = map.getOrDefault(key, NO_MAPPING);
+        return value == NO_MAPPING ? defaultValue : resolve(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object lookup(String key) {
+        checkNullKey(key);
+        return resolve(key, map.getOrDefault(key, NO_MAPPING));
     }
 
     /**
@@ -250,10 +281,8 @@ public class MapBasedSIContext extends AbstractContext {
     public Object getOrCompute(String key, Function<String, Object> function) {
         checkNullKey(key);
         Objects.requireNonNull(function);
-        if (map.containsKey(key)) {
-            return map.get(key);
-        }
-        return function.apply(key);
+        Object value = map.getOrDefault(key, NO_MAPPING);
+        return value == NO_MAPPING ? function.apply(key) : resolve(key, value);
     }
 
     /**
@@ -263,11 +292,12 @@ public class MapBasedSIContext extends AbstractContext {
     public Object getOrComputeAndPut(String key, Function<String, Object> function) {
         checkNullKey(key);
         Objects.requireNonNull(function);
-        if (map.containsKey(key)) {
-            return map.get(key);
+        Object value = map.getOrDefault(key, NO_MAPPING);
+        if (value != NO_MAPPING) {
+            return resolve(key, value);
         }
         Object newVal = function.apply(key);
-        checkNullValue(newVal);
+        checkStoredValue(newVal);
         map.put(key, newVal);
         return newVal;
     }
@@ -280,12 +310,12 @@ public class MapBasedSIContext extends AbstractContext {
     public <T> T getOrComputeAndPut(String key, Class<T> valueType, Function<String, T> function) {
         checkNullKey(key);
         Objects.requireNonNull(function);
-        Object value = map.get(key);
+        Object value = resolve(key, map.get(key));
         if (valueType.isInstance(value)) {
             return (T) value;
         }
         T newVal = function.apply(key);
-        checkNullValue(newVal);
+        checkStoredValue(newVal);
         map.put(key, newVal);
         return newVal;
     }
@@ -296,7 +326,7 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public Object remove(String key) {
         checkNullKey(key);
-        return map.remove(key);
+        return LazyValue.resolve(map.remove(key));
     }
 
     /**
@@ -305,7 +335,7 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public boolean removeExactly(String key, Object value) {
         checkNullKey(key);
-        Object val = map.get(key);
+        Object val = resolve(key, map.get(key));
         boolean same = val == value;
         if (same) {
             map.remove(key);
@@ -321,11 +351,64 @@ public class MapBasedSIContext extends AbstractContext {
         checkNullKey(key);
         Objects.requireNonNull(function);
         if (map.containsKey(key)) {
-            return map.remove(key);
+            return LazyValue.resolve(map.remove(key));
         }
         return function.apply(key);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(String key, Object expected, Object newValue) {
+        checkNullKV(key, newValue);
+        resolve(key, map.get(key));
+        return map.replace(key, expected, newValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        checkNullKV(key, newValue);
+        if (resolve(key, map.getOrDefault(key, NO_MAPPING)) != expected || expected == NO_MAPPING) {
+            return false;
+        }
+        map.put(key, newValue);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object compute(String key, BiFunction<String, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        return map.compute(key, (k, v) -> function.apply(k, LazyValue.resolve(v)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        return map.computeIfPresent(key, (k, v) -> function.apply(k, LazyValue.resolve(v)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        return map.merge(key, value, (o, v) -> function.apply(LazyValue.resolve(o), v));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -341,7 +424,12 @@ public class MapBasedSIContext extends AbstractContext {
     @Override
     public boolean containsValue(Object value) {
         checkNullValue(value);
-        return map.containsValue(value);
+        for (Object val : map.values()) {
+            if (Objects.equals(LazyValue.resolve(val), value)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -376,7 +464,7 @@ public class MapBasedSIContext extends AbstractContext {
             return false;
         }
         for (Map.Entry<String, Object> entry : map.entrySet()) {
-            if (!Objects.equals(entry.getValue(), cobj.get(entry.getKey()))) {
+            if (!Objects.equals(LazyValue.resolve(entry.getValue()), cobj.get(entry.getKey()))) {
                 return false;
             }
         }
@@ -428,6 +516,29 @@ public class MapBasedSIContext extends AbstractContext {
         return entries;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>If encapsulated map is a {@link SortedMap} with natural ordering,
+     * only matching entries are iterated.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Entries entries(String prefix) {
+        Objects.requireNonNull(prefix);
+        if (!(map instanceof SortedMap) || ((SortedMap<String, Object>) map).comparator() != null) {
+            return super.entries(prefix);
+        }
+        SeparatedEntries entries = new SeparatedEntries(DEFAULT_CAPACITY);
+        for (Map.Entry<String, Object> entry : ((SortedMap<String, Object>) map).tailMap(prefix).entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            entries.add(new SeparatedEntry(key, entry.getValue()));
+        }
+        return entries;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -447,7 +558,7 @@ public class MapBasedSIContext extends AbstractContext {
                 defaultMapSupplier, capacityMapSupplier, map.size());
         for (Map.Entry<String, Object> entry : map.entrySet()) {
             String key = entry.getKey();
-            Object value = entry.getValue();
+            Object value = LazyValue.resolve(entry.getValue());
             if (criteria.test(key, value)) {
                 copy.map.put(key, value);
             }
@@ -464,7 +575,7 @@ public class MapBasedSIContext extends AbstractContext {
         List<String> keysToRemove = new LinkedList<>();
         for (Map.Entry<String, Object> entry : map.entrySet()) {
             String key = entry.getKey();
-            if (!criteria.test(key, entry.getValue())) {
+            if (!criteria.test(key, LazyValue.resolve(entry.getValue()))) {
                 keysToRemove.add(key);
             }
         }
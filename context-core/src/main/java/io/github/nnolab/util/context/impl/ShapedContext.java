@@ -0,0 +1,726 @@
+package io.github.nnolab.util.context.impl;
+
+import io.github.nnolab.util.context.LazyValue;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Context with keys, stored in shared {@link ContextShape},
+ * and values, stored in flat array by key slots.
+ * Putting a new key or removing a key moves context to another shape.
+ * Contexts with the same keys, put in the same order,
+ * share the shape, so each of them holds only array of values.
+ * Context with a shape, that can not be shared, because of too many
+ * or too unique keys, switches to its own mutable dictionary shape,
+ * so adding and removing keys stay amortized constant time.
+ * <p>Has a {@link SeparatedIterator}.
+ * Null keys not allowed.
+ * Not thread-safe.
+ *
+ * @author nnolab
+ */
+public class ShapedContext extends AbstractContext {
+
+    private static final long serialVersionUID = -3081569347260429157L;
+
+    public static final int DEFAULT_CAPACITY = 8;
+
+    private transient ContextShape shape;
+    private transient Object[] values;
+    private transient int contentHash;
+
+    /**
+     * Constructor with {@code null} values option and initial capacity.
+     *
+     * @param supportNullValues {@code null} values option
+     * @param capacity          initial capacity of values array
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public ShapedContext(boolean supportNullValues, int capacity) {
+        super(false, supportNullValues);
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        shape = ContextShape.EMPTY;
+        values = new Object[capacity];
+    }
+
+    /**
+     * @see #ShapedContext(boolean, int)
+     */
+    public ShapedContext(int capacity) {
+        this(true, capacity);
+    }
+
+    /**
+     * @see #ShapedContext(boolean, int)
+     */
+    public ShapedContext(boolean supportNullValues) {
+        this(supportNullValues, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @see #ShapedContext(boolean, int)
+     */
+    public ShapedContext() {
+        this(true, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create context with specified shape and values by its slots.
+     * Values array is copied.
+     *
+     * @param supportNullValues {@code null} values option
+     * @param shape             shape
+     * @param values            values by slots of the shape
+     * @throws NullPointerException     if shape or values array is {@code null},
+     *                                  or if values contain {@code null}, but
+     *                                  {@code null} values are not supported
+     * @throws IllegalArgumentException if number of values is not equal to shape size
+     */
+    public ShapedContext(boolean supportNullValues, ContextShape shape, Object... values) {
+        super(false, supportNullValues);
+        if (values.length != shape.size()) {
+            throw new IllegalArgumentException("Shape size: " + shape.size() + ", values: " + values.length);
+        }
+        for (Object value : values) {
+            checkStoredValue(value);
+        }
+        this.shape = shape;
+        this.values = values.clone();
+        for (int slot = 0; slot < values.length; slot++) {
+            contentHash += entryHash(shape.key(slot), values[slot]);
+        }
+    }
+
+    /**
+     * @see #ShapedContext(boolean, ContextShape, Object...)
+     */
+    public ShapedContext(ContextShape shape, Object... values) {
+        this(true, shape, values);
+    }
+
+    /**
+     * Create context with all mappings in specified source.
+     *
+     * @param source            source map
+     * @param supportNullValues {@code null} values option
+     * @throws NullPointerException if source map is {@code null} or if source map
+     *                              contains {@code null} keys, or {@code null} values,
+     *                              but they are not supported
+     */
+    public ShapedContext(Map<String, Object> source, boolean supportNullValues) {
+        this(supportNullValues, source.size());
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            checkNullKV(key, value);
+            addNew(key, value);
+        }
+    }
+
+    /**
+     * @see #ShapedContext(Map, boolean)
+     */
+    public ShapedContext(Map<String, Object> source) {
+        this(source, true);
+    }
+
+    /**
+     * Current shape of this context.
+     * If this context is in dictionary mode, the result
+     * is an unshared immutable copy of its shape.
+     *
+     * @return current shape
+     */
+    public ContextShape getShape() {
+        return shape.immutable();
+    }
+
+    /**
+     * Move this context to the new shape, switching to dictionary mode
+     * if the new shape is not shared.
+     *
+     * @param newShape new shape
+     */
+    private void moveTo(ContextShape newShape) {
+        shape = newShape.isShared() || newShape.isMutable() ? newShape : newShape.mutable();
+    }
+
+    /**
+     * Add mapping for the key, absent in current shape.
+     *
+     * @param key   new key
+     * @param value value
+     */
+    private void addNew(String key, Object value) {
+        int slot = shape.size();
+        ContextShape newShape = shape.withKey(key);
+        if (slot == values.length) {
+            values = Arrays.copyOf(values, slot + (slot >> 1) + 1);
+        }
+        values[slot] = value;
+        moveTo(newShape);
+        contentHash += entryHash(key, value);
+    }
+
+    /**
+     * Replace value in existing slot.
+     *
+     * @param slot  slot
+     * @param value new value
+     */
+    private void setValue(int slot, Object value) {
+        String key = shape.key(slot);
+        contentHash += entryHash(key, value) - entryHash(key, values[slot]);
+        values[slot] = value;
+    }
+
+    /**
+     * Read value in existing slot. {@link LazyValue} is resolved
+     * and resolved value is stored instead of it.
+     *
+     * @param slot slot
+     * @return value
+     */
+    private Object readValue(int slot) {
+        Object value = values[slot];
+        if (value instanceof LazyValue) {
+            value = ((LazyValue) value).get();
+            checkStoredValue(value);
+            setValue(slot, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove mapping by slot of current shape.
+     * {@link LazyValue} is resolved before removal.
+     *
+     * @param slot slot of removed key
+     * @return removed value
+     */
+    private Object removeSlot(int slot) {
+        Object value = readValue(slot);
+        int last = shape.size() - 1;
+        contentHash -= entryHash(shape.key(slot), value);
+        moveTo(shape.withoutKey(shape.key(slot)));
+        values[slot] = values[last];
+        values[last] = null;
+        return value;
+    }
+
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        int size = shape.size();
+        s.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            s.writeObject(shape.key(slot));
+            s.writeObject(values[slot]);
+        }
+    }
+
+    private void readObject(ObjectInputStream s)
+            throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int size = s.readInt();
+        shape = ContextShape.EMPTY;
+        values = new Object[size];
+        contentHash = 0;
+        for (int slot = 0; slot < size; slot++) {
+            String key = (String) s.readObject();
+            moveTo(shape.withKey(key));
+            values[slot] = s.readObject();
+            contentHash += entryHash(key, values[slot]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Context: {");
+        for (int slot = 0; slot < shape.size(); slot++) {
+            Object value = values[slot];
+            sb.append(shape.key(slot)).append("=");
+            if (value == this) {
+                sb.append("(this Context)");
+            } else {
+                sb.append(value);
+            }
+            sb.append("; ");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Maintained on every mutation, so takes constant time.
+     */
+    @Override
+    public int hashCode() {
+        return contentHash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object put(String key, Object value) {
+        checkNullKV(key, value);
+        int slot = shape.slotOf(key);
+        if (slot < 0) {
+            addNew(key, value);
+            return null;
+        }
+        Object old = readValue(slot);
+        setValue(slot, value);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get(String key) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        return slot < 0 ? null : readValue(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        checkNullKV(key, value);
+        int slot = shape.slotOf(key);
+        if (slot < 0) {
+            addNew(key, value);
+            return null;
+        }
+        Object old = readValue(slot);
+        if (old == null) {
+            setValue(slot, value);
+        }
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object putIfKeyAbsent(String key, Object value) {
+        checkNullKV(key, value);
+        int slot = shape.slotOf(key);
+        if (slot < 0) {
+            addNew(key, value);
+            return null;
+        }
+        return readValue(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getOrDefault(String key, Object defaultValue) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        return slot < 0 ? defaultValue : readValue(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object lookup(String key) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        return slot < 0 ? NO_MAPPING : readValue(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getOrCompute(String key, Function<String, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        return slot < 0 ? function.apply(key) : readValue(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getOrComputeAndPut(String key, Function<String, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        if (slot >= 0) {
+            return readValue(slot);
+        }
+        Object newVal = function.apply(key);
+        checkStoredValue(newVal);
+        addNew(key, newVal);
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrComputeAndPut(String key, Class<T> valueType, Function<String, T> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        if (slot >= 0) {
+            Object current = readValue(slot);
+            if (valueType.isInstance(current)) {
+                return (T) current;
+            }
+        }
+        T newVal = function.apply(key);
+        checkStoredValue(newVal);
+        if (slot >= 0) {
+            setValue(slot, newVal);
+        } else {
+            addNew(key, newVal);
+        }
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(String key) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        return slot < 0 ? null : removeSlot(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeExactly(String key, Object value) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        if (slot < 0) {
+            return value == null;
+        }
+        if (readValue(slot) != value) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object removeOrCompute(String key, Function<String, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        return slot < 0 ? function.apply(key) : removeSlot(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(String key, Object value) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        if (slot < 0) {
+            return value == null;
+        }
+        if (!Objects.equals(value, readValue(slot))) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T removeOfType(String key, Class<T> valueType) {
+        return removeOrGetDefault(key, valueType, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object removeOrGetDefault(String key, Object defaultValue) {
+        checkNullKey(key);
+        int slot = shape.slotOf(key);
+        return slot < 0 || readValue(slot) == null ? defaultValue : removeSlot(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T removeOrGetDefault(String key, Class<T> valueType, T defaultValue) {
+        checkNullKey(key);
+        Objects.requireNonNull(valueType);
+        int slot = shape.slotOf(key);
+        return slot < 0 || !valueType.isInstance(readValue(slot)) ? defaultValue : (T) removeSlot(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T removeOrCompute(String key, Class<T> valueType, Function<String, T> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(valueType);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        return slot < 0 || !valueType.isInstance(readValue(slot)) ? function.apply(key) : (T) removeSlot(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(String key, Object expected, Object newValue) {
+        checkNullKV(key, newValue);
+        int slot = shape.slotOf(key);
+        if (slot < 0 || !Objects.equals(readValue(slot), expected)) {
+            return false;
+        }
+        setValue(slot, newValue);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replaceExactly(String key, Object expected, Object newValue) {
+        checkNullKV(key, newValue);
+        int slot = shape.slotOf(key);
+        if (slot < 0 || readValue(slot) != expected) {
+            return false;
+        }
+        setValue(slot, newValue);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object compute(String key, BiFunction<String, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        Object newVal = function.apply(key, slot < 0 ? null : readValue(slot));
+        if (newVal != null) {
+            if (slot < 0) {
+                addNew(key, newVal);
+            } else {
+                setValue(slot, newVal);
+            }
+        } else if (slot >= 0) {
+            removeSlot(slot);
+        }
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object computeIfPresent(String key, BiFunction<String, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        Object oldVal;
+        if (slot < 0 || (oldVal = readValue(slot)) == null) {
+            return null;
+        }
+        Object newVal = function.apply(key, oldVal);
+        if (newVal != null) {
+            setValue(slot, newVal);
+        } else {
+            removeSlot(slot);
+        }
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object merge(String key, Object value, BiFunction<Object, Object, Object> function) {
+        checkNullKey(key);
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(function);
+        int slot = shape.slotOf(key);
+        if (slot < 0) {
+            addNew(key, value);
+            return value;
+        }
+        Object oldVal = readValue(slot);
+        Object newVal = oldVal == null ? value : function.apply(oldVal, value);
+        if (newVal != null) {
+            setValue(slot, newVal);
+        } else {
+            removeSlot(slot);
+        }
+        return newVal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(String key) {
+        checkNullKey(key);
+        return shape.slotOf(key) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        checkNullValue(value);
+        for (int slot = 0; slot < shape.size(); slot++) {
+            if (Objects.equals(readValue(slot), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return shape.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return shape.size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShapedContext clear() {
+        Arrays.fill(values, 0, shape.size(), null);
+        shape = ContextShape.EMPTY;
+        contentHash = 0;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Keys keys() {
+        int size = shape.size();
+        SeparatedKeys keys = new SeparatedKeys(size);
+        for (int slot = 0; slot < size; slot++) {
+            keys.add(shape.key(slot));
+        }
+        return keys;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Values values() {
+        int size = shape.size();
+        SeparatedValues values = new SeparatedValues(size);
+        for (int slot = 0; slot < size; slot++) {
+            values.add(this.values[slot]);
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entries entries() {
+        int size = shape.size();
+        SeparatedEntries entries = new SeparatedEntries(size);
+        for (int slot = 0; slot < size; slot++) {
+            entries.add(new SeparatedEntry(shape.key(slot), values[slot]));
+        }
+        return entries;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The copy shares the shape of this context,
+     * or gets its own copy of the shape in dictionary mode.
+     */
+    @Override
+    public ShapedContext copy() {
+        ShapedContext copy = new ShapedContext(supportNullValues, 0);
+        copy.shape = shape.isMutable() ? shape.mutable() : shape;
+        copy.values = Arrays.copyOf(values, shape.size());
+        copy.contentHash = contentHash;
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShapedContext copy(BiPredicate<String, Object> criteria) {
+        Objects.requireNonNull(criteria);
+        int size = shape.size();
+        ShapedContext copy = new ShapedContext(supportNullValues, size);
+        for (int slot = 0; slot < size; slot++) {
+            String key = shape.key(slot);
+            Object value = readValue(slot);
+            if (criteria.test(key, value)) {
+                copy.addNew(key, value);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShapedContext filter(BiPredicate<String, Object> criteria) {
+        Objects.requireNonNull(criteria);
+        for (int slot = shape.size() - 1; slot >= 0; slot--) {
+            if (!criteria.test(shape.key(slot), readValue(slot))) {
+                removeSlot(slot);
+            }
+        }
+        return this;
+    }
+}
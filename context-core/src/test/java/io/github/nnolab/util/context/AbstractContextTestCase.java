@@ -6,6 +6,8 @@ import org.junit.Test;
 import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 
 import static org.junit.Assert.*;
@@ -723,6 +725,77 @@ public abstract class AbstractContextTestCase<C extends Context> {
         assertFalse(contextE.equals(context));
     }
 
+    /**
+     * {@link Context#equals(Object)} with value, mutated after put
+     */
+    @Test
+    public void testEqualsWithMutatedValue() {
+        List<Integer> list1 = new ArrayList<>();
+        List<Integer> list2 = new ArrayList<>(Collections.singletonList(1));
+        Map<String, Object> map1 = put123(getSupportMap());
+        map1.put("list", list1);
+        Map<String, Object> map2 = put123(getSupportMap());
+        map2.put("list", list2);
+        C context1 = getTestableContext(map1);
+        C context2 = getTestableContext(map2);
+        Context contextE = getSupportContext();
+        put123(contextE);
+        contextE.put("list", list2);
+        assertFalse(context1.equals(context2));
+
+        list1.add(1);
+        assertTrue(context1.equals(context2));
+        assertTrue(context2.equals(context1));
+        assertTrue(context1.equals(contextE));
+        assertTrue(contextE.equals(context1));
+    }
+
+    /**
+     * {@link Context#equals(Object)} with unresolved lazy values
+     */
+    @Test
+    public void testEqualsLazy() {
+        C context = getTestableContext(put123(getSupportMap()));
+        C other = getTestableContext(put123(getSupportMap()));
+        context.putLazy("lazy", () -> value05);
+        other.put("lazy", value05);
+        assertTrue(context.equals(other));
+        context.putLazy("lazy", () -> value05);
+        assertTrue(other.equals(context));
+    }
+
+    /**
+     * {@link Context#hashCode()}
+     */
+    @Test
+    public void testHashCode() {
+
+        Map<String, Object> map = put12345(getSupportMap());
+        C context = getTestableContext(map);
+        Context contextE = getSupportContext();
+        put12345(contextE);
+
+        assertEquals(map.hashCode(), context.hashCode());
+        assertEquals(contextE.hashCode(), context.hashCode());
+        assertEquals(context.hashCode(), context.copy().hashCode());
+
+        context.put(key1, value3);
+        map.put(key1, value3);
+        context.put("key6", value05);
+        map.put("key6", value05);
+        context.remove(key2);
+        map.remove(key2);
+        context.merge(key3, value4, (o, n) -> null);
+        map.remove(key3);
+        context.filter((k, v) -> !k.equals(key4));
+        map.remove(key4);
+        assertEquals(map.hashCode(), context.hashCode());
+        assertFalse(context.equals(contextE));
+
+        context.clear();
+        assertEquals(0, context.hashCode());
+    }
+
     /**
      * {@link Context#copy()}
      * {@link Context#copy(BiPredicate)}
@@ -1955,6 +2028,223 @@ public abstract class AbstractContextTestCase<C extends Context> {
         assertTrue(map.isEmpty());
     }
 
+    /**
+     * {@link Context#entries(String)}
+     */
+    @Test
+    public void testEntriesWithPrefix() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+        Map<String, Object> map = getSupportMap();
+
+        for (Context.Entry entry : context.entries("key")) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        assertFull12345WithSize(map);
+        map.clear();
+
+        for (Context.Entry entry : context.entries(key1)) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(1, map.size());
+        assertEquals(value1, map.get(key1));
+
+        assertFalse(context.entries("value").iterator().hasNext());
+
+        try {
+            context.entries(null);
+            fail();
+        } catch (NullPointerException e) {
+        }
+    }
+
+    /**
+     * {@link Context#view(String)}
+     */
+    @Test
+    public void testView() {
+
+        Map<String, Object> source = put12345(getSupportMap());
+        source.put("value", value2);
+        C context = getTestableContext(source);
+        Context view = context.view("key");
+
+        assertEquals(5, view.size());
+        assertEquals(value1, view.get("1"));
+        assertTrue(view.containsKey("5"));
+        assertFalse(view.containsKey(key1));
+        assertFalse(view.containsKey("value"));
+        assertTrue(view.containsValue(value4));
+
+        assertNull(view.put("6", value4));
+        assertEquals(value4, context.get("key6"));
+        context.put("key7", value3);
+        assertEquals(value3, view.get("7"));
+        assertEquals(value4, view.remove("6"));
+        assertFalse(context.containsKey("key6"));
+        assertEquals("8", view.getOrComputeAndPut("8", key -> key));
+        assertEquals("8", context.get("key8"));
+
+        Context nested = view.view("7");
+        assertEquals(value3, nested.get(""));
+        assertEquals(1, nested.size());
+
+        Context copy = view.copy();
+        assertEquals(7, copy.size());
+        assertEquals(value1, copy.get("1"));
+        assertTrue(copy.equals(view));
+        assertTrue(view.equals(copy));
+
+        view.filter((key, value) -> !key.equals("1"));
+        assertFalse(context.containsKey(key1));
+        assertEquals(value2, context.get("value"));
+
+        view.clear();
+        assertTrue(view.isEmpty());
+        assertEquals(1, context.size());
+        assertEquals(value2, context.get("value"));
+
+        try {
+            view.get((String) null);
+            fail();
+        } catch (NullPointerException e) {
+        }
+        try {
+            context.view(null);
+            fail();
+        } catch (NullPointerException e) {
+        }
+    }
+
+    /**
+     * {@link Context#lookup(String)}
+     */
+    @Test
+    public void testLookup() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+
+        assertEquals(value1, context.lookup(key1));
+        assertEquals(value4, context.lookup(key4));
+        assertSame(Context.NO_MAPPING, context.lookup("key6"));
+        assertSame(Context.NO_MAPPING, context.lookup("value"));
+        assertFalse(context.containsKey("key6"));
+    }
+
+    /**
+     * {@link Context#replace(String, Object, Object)},
+     * {@link Context#replaceExactly(String, Object, Object)}
+     */
+    @Test
+    public void testReplace() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+
+        assertFalse(context.replace(key1, value2, value3));
+        assertEquals(value1, context.get(key1));
+        assertTrue(context.replace(key1, Integer.valueOf(1), value3));
+        assertEquals(value3, context.get(key1));
+        assertFalse(context.replace("key6", null, value1));
+        assertFalse(context.containsKey("key6"));
+
+        assertFalse(context.replaceExactly(key2, Integer.valueOf(2000), value4));
+        assertEquals(value2, context.get(key2));
+        assertTrue(context.replaceExactly(key2, value2, value4));
+        assertEquals(value4, context.get(key2));
+        assertFalse(context.replaceExactly("key6", null, value1));
+        assertFalse(context.containsKey("key6"));
+        assertEquals(5, context.size());
+
+        String stored = new String("value6");
+        String equal = new String("value6");
+        context.put("key6", stored);
+        assertFalse(context.replaceExactly("key6", equal, value1));
+        assertSame(stored, context.get("key6"));
+        assertTrue(context.replace("key6", equal, value1));
+        assertEquals(value1, context.get("key6"));
+        assertEquals(6, context.size());
+    }
+
+    /**
+     * {@link Context#compute(String, BiFunction)},
+     * {@link Context#computeIfPresent(String, BiFunction)},
+     * {@link Context#merge(String, Object, BiFunction)}
+     */
+    @Test
+    public void testComputeMethods() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+
+        assertEquals(11, context.compute(key1, (k, v) -> (Integer) v + 10));
+        assertEquals(11, context.get(key1));
+        assertEquals(key1, context.compute("key6", (k, v) -> v == null ? key1 : v));
+        assertEquals(key1, context.get("key6"));
+        assertNull(context.compute("key6", (k, v) -> null));
+        assertFalse(context.containsKey("key6"));
+        assertNull(context.compute("key7", (k, v) -> null));
+        assertFalse(context.containsKey("key7"));
+
+        assertEquals(20, context.computeIfPresent(key2, (k, v) -> (Integer) v * 10));
+        assertEquals(20, context.get(key2));
+        assertNull(context.computeIfPresent("key6", (k, v) -> {
+            throw new AssertionError();
+        }));
+        assertFalse(context.containsKey("key6"));
+        assertNull(context.computeIfPresent(key2, (k, v) -> null));
+        assertFalse(context.containsKey(key2));
+
+        assertEquals(value4, context.merge(key2, value4, (o, n) -> {
+            throw new AssertionError();
+        }));
+        assertEquals(7, context.merge(key3, value4, (o, n) -> (Integer) o + (Integer) n));
+        assertEquals(7, context.get(key3));
+        assertNull(context.merge(key3, value4, (o, n) -> null));
+        assertFalse(context.containsKey(key3));
+        assertEquals(4, context.size());
+
+        try {
+            context.compute(key1, null);
+            fail();
+        } catch (NullPointerException e) {
+        }
+        try {
+            context.merge(key1, null, (o, n) -> n);
+            fail();
+        } catch (NullPointerException e) {
+        }
+    }
+
+    /**
+     * {@link Context#longAdder(String)}, {@link Context#addLong(String, long)},
+     * {@link Context#incrementLong(String)}, {@link Context#sumLong(String)}
+     */
+    @Test
+    public void testLongCounters() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+
+        assertEquals(0, context.sumLong("counter"));
+        context.incrementLong("counter");
+        context.addLong("counter", 41);
+        assertEquals(42, context.sumLong("counter"));
+        LongAdder adder = context.longAdder("counter");
+        assertSame(adder, context.longAdder("counter"));
+        assertSame(adder, context.get("counter"));
+        assertEquals(42, adder.sum());
+
+        context.put("number", 10);
+        assertEquals(10, context.sumLong("number"));
+        context.addLong("number", 5);
+        assertEquals(15, context.sumLong("number"));
+        assertTrue(context.get("number") instanceof LongAdder);
+
+        context.put(key1, "value");
+        assertEquals(0, context.sumLong(key1));
+        context.incrementLong(key1);
+        assertEquals(1, context.sumLong(key1));
+        assertEquals(7, context.size());
+    }
+
     @Test
     public void testToString() {
         Map<String, Object> map = put12345(getSupportMap());
@@ -2089,4 +2379,143 @@ public abstract class AbstractContextTestCase<C extends Context> {
 
         shortMutable12345Checks(copy);
     }
+
+    /**
+     * {@link Context#putLazy(String, Supplier)}
+     */
+    @Test
+    public void testPutLazy() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertNull(context.putLazy("lazy", () -> {
+            calls.incrementAndGet();
+            return value05;
+        }));
+        assertTrue(context.containsKey("lazy"));
+        assertEquals(6, context.size());
+        Context copy = context.copy();
+        for (String key : context.keys()) {
+            assertNotNull(key);
+        }
+        assertEquals(0, calls.get());
+
+        assertEquals(value05, context.get("lazy"));
+        assertEquals(value05, context.get("lazy", Float.class));
+        assertEquals(value05, copy.get("lazy"));
+        assertEquals(1, calls.get());
+
+        context.putLazy(key1, () -> value3);
+        assertEquals(value3, context.getOrDefault(key1, value4));
+        context.putLazy(key2, () -> 10);
+        assertEquals(11, context.merge(key2, 1, (o, n) -> (Integer) o + (Integer) n));
+        context.putLazy(key3, () -> 20);
+        assertEquals(21, context.compute(key3, (k, v) -> (Integer) v + 1));
+        context.putLazy(key4, () -> value1);
+        assertTrue(context.replace(key4, value1, value2));
+        assertEquals(value2, context.get(key4));
+
+        context.putLazy(key5, () -> value5);
+        for (Object value : context.values()) {
+            assertFalse(value instanceof LazyValue);
+        }
+        for (Context.Entry entry : context.entries()) {
+            assertFalse(entry.getValue() instanceof LazyValue);
+        }
+        assertEquals(value5, context.get(key5));
+    }
+
+    /**
+     * Removal and type checks of values, put by {@link Context#putLazy(String, Supplier)}
+     */
+    @Test
+    public void testRemoveLazy() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+
+        context.putLazy(key1, () -> value1);
+        assertEquals(value1, context.remove(key1));
+        assertFalse(context.containsKey(key1));
+
+        context.putLazy(key1, () -> value1);
+        assertEquals(value1, context.removeOrGetDefault(key1, value2));
+        assertFalse(context.containsKey(key1));
+
+        context.putLazy(key1, () -> value1);
+        assertEquals(value1, context.removeOrCompute(key1, k -> value2));
+        assertFalse(context.containsKey(key1));
+
+        context.putLazy(key1, () -> value1);
+        assertFalse(context.removeExactly(key1, value2));
+        assertTrue(context.removeExactly(key1, value1));
+        assertFalse(context.containsKey(key1));
+
+        context.putLazy(key1, () -> value1);
+        assertTrue(context.remove(key1, value1));
+        assertFalse(context.containsKey(key1));
+
+        context.putLazy(key2, () -> value2);
+        assertNull(context.removeOfType(key2, LazyValue.class));
+        assertEquals(value2, context.removeOfType(key2, Integer.class));
+        assertFalse(context.containsKey(key2));
+
+        context.putLazy(key2, () -> value2);
+        assertEquals(value2, context.removeOrGetDefault(key2, Integer.class, null));
+        assertFalse(context.containsKey(key2));
+
+        context.putLazy(key2, () -> value2);
+        assertEquals(value2, context.removeOrCompute(key2, Integer.class, k -> null));
+        assertFalse(context.containsKey(key2));
+
+        context.putLazy(key3, () -> 20L);
+        assertEquals(20L, context.longAdder(key3).sum());
+        context.putLazy(key3, () -> new LongAdder());
+        LongAdder adder = context.longAdder(key3);
+        assertSame(adder, context.longAdder(key3));
+    }
+
+    /**
+     * Values, put by {@link Context#putLazy(String, Supplier)}, are resolved
+     * when they are returned, compared or passed to user code
+     */
+    @Test
+    public void testLazyValuePaths() {
+
+        C context = getTestableContext(put12345(getSupportMap()));
+        BiPredicate<String, Object> notLazy = (k, v) -> {
+            assertFalse(v instanceof LazyValue);
+            return true;
+        };
+
+        context.putLazy(key1, () -> value1);
+        assertEquals(value1, context.put(key1, value2));
+        context.putLazy(key1, () -> value1);
+        assertEquals(value1, context.putIfAbsent(key1, value2));
+        assertEquals(value1, context.putIfKeyAbsent(key1, value2));
+        context.putLazy(key1, () -> value1);
+        assertTrue(context.replaceExactly(key1, value1, value2));
+        assertEquals(value2, context.get(key1));
+
+        context.putLazy(key1, () -> value05);
+        assertTrue(context.containsValue(value05));
+        context.putLazy(key1, () -> value05);
+        context.forEach((k, v) -> assertFalse(v instanceof LazyValue));
+        context.putLazy(key1, () -> value05);
+        context.forEach(notLazy, (k, v) -> assertFalse(v instanceof LazyValue));
+
+        context.putLazy(key1, () -> value05);
+        Context copy = context.copy(notLazy);
+        assertEquals(value05, copy.get(key1));
+        context.putLazy(key1, () -> value05);
+        context.copyTo(getSupportContext(), notLazy);
+        context.putLazy(key1, () -> value05);
+        Map<String, Object> map = getSupportMap();
+        context.copyTo(map, true, notLazy);
+        assertEquals(value05, map.get(key1));
+        context.putLazy(key1, () -> value05);
+        context.filter(notLazy);
+        assertEquals(value05, context.get(key1));
+        assertEquals(5, context.size());
+    }
 }
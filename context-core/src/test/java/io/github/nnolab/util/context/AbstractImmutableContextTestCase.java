@@ -217,6 +217,62 @@ public abstract class AbstractImmutableContextTestCase<IC extends ImmutableConte
         );
     }
 
+    @Override
+    public void testView() {
+        IC context = getTestableContext(put12345(getSupportMap()));
+        Context view = context.view("key");
+        assertEquals(5, view.size());
+        assertEquals(value1, view.get("1"));
+        checkUnsupported(
+                () -> {view.put("6", value1);},
+                () -> {view.remove("1");},
+                () -> {view.clear();}
+        );
+        assertFull12345WithSize(context);
+    }
+
+    @Override
+    public void testHashCode() {
+        Map<String, Object> map = put12345(getSupportMap());
+        IC context = getTestableContext(map);
+        assertEquals(map.hashCode(), context.hashCode());
+        assertEquals(context.hashCode(), context.copy().hashCode());
+    }
+
+    @Override
+    public void testReplace() {
+        IC context = getTestableContext(put12345(getSupportMap()));
+        checkUnsupported(
+                () -> {context.replace(key1, value1, value2);},
+                () -> {context.replaceExactly(key1, value1, value2);}
+        );
+        assertFull12345WithSize(context);
+    }
+
+    @Override
+    public void testComputeMethods() {
+        IC context = getTestableContext(put12345(getSupportMap()));
+        checkUnsupported(
+                () -> {context.compute(key1, (k, v) -> v);},
+                () -> {context.computeIfPresent(key1, (k, v) -> v);},
+                () -> {context.merge(key1, value2, (o, n) -> n);}
+        );
+        assertFull12345WithSize(context);
+    }
+
+    @Override
+    public void testLongCounters() {
+        IC context = getTestableContext(put12345(getSupportMap()));
+        assertEquals(1, context.sumLong(key1));
+        assertEquals(0, context.sumLong("counter"));
+        checkUnsupported(
+                () -> {context.longAdder("counter");},
+                () -> {context.addLong("counter", 1);},
+                () -> {context.incrementLong(key1);}
+        );
+        assertFull12345WithSize(context);
+    }
+
     @Override
     public void testForEach() {
         immutableTestForEach();
@@ -226,4 +282,31 @@ public abstract class AbstractImmutableContextTestCase<IC extends ImmutableConte
     public void testSerialization() {
         doImmutableSerializationChecks();
     }
+
+    @Override
+    public void testPutLazy() {
+        IC context = getTestableContext(put12345(getSupportMap()));
+        checkUnsupported(
+                () -> {context.putLazy("lazy", () -> value1);}
+        );
+        assertFull12345WithSize(context);
+    }
+
+    @Override
+    public void testEqualsLazy() {
+        // lazy values can not be put, so there is nothing to compare
+        testPutLazy();
+    }
+
+    @Override
+    public void testRemoveLazy() {
+        // lazy values can not be put, so there is nothing to remove
+        testPutLazy();
+    }
+
+    @Override
+    public void testLazyValuePaths() {
+        // lazy values can not be put, so there is nothing to resolve
+        testPutLazy();
+    }
 }
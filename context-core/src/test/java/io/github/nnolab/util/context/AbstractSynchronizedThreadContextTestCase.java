@@ -132,4 +132,139 @@ public abstract class AbstractSynchronizedThreadContextTestCase<C extends Contex
             throw err;
         }
     }
+
+    @Test
+    public void testSyncLongCounters() throws Throwable {
+
+        C context = getTestableContext();
+        context.put("counter", 100);
+        Thread[] threads = new Thread[4];
+        AtomicReference<Throwable> err = new AtomicReference<>();
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    context.incrementLong("counter");
+                    context.addLong("other", 2);
+                }
+            });
+            threads[i].setUncaughtExceptionHandler((t, e) -> err.set(e));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (err.get() != null) {
+            throw err.get();
+        }
+        assertEquals(40100, context.sumLong("counter"));
+        assertEquals(80000, context.sumLong("other"));
+    }
+
+    @Test
+    public void testSyncLongCountersWithWrites() throws Throwable {
+
+        C context = getTestableContext();
+        Thread[] threads = new Thread[4];
+        AtomicBoolean finish = new AtomicBoolean(false);
+        AtomicReference<Throwable> err = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            while (!finish.get()) {
+                put12345(context);
+                context.remove(key1);
+            }
+        });
+        writer.setUncaughtExceptionHandler((t, e) -> err.set(e));
+        writer.start();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    context.incrementLong("counter");
+                }
+            });
+            threads[i].setUncaughtExceptionHandler((t, e) -> err.set(e));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        finish.set(true);
+        writer.join();
+
+        if (err.get() != null) {
+            throw err.get();
+        }
+        assertEquals(40000, context.sumLong("counter"));
+
+        LongAdder adder = context.longAdder("counter");
+        context.remove("counter");
+        context.incrementLong("counter");
+        assertNotSame(adder, context.longAdder("counter"));
+        assertEquals(1, context.sumLong("counter"));
+        assertEquals(40000, adder.sum());
+        context.put("counter", 10L);
+        context.incrementLong("counter");
+        assertEquals(11, context.sumLong("counter"));
+    }
+
+    @Test
+    public void testSyncLazy() throws Throwable {
+
+        C context = getTestableContext();
+        AtomicInteger calls = new AtomicInteger();
+        context.putLazy(key1, () -> {
+            calls.incrementAndGet();
+            return value1;
+        });
+        Thread[] threads = new Thread[4];
+        AtomicReference<Throwable> err = new AtomicReference<>();
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    assertEquals(value1, context.get(key1));
+                }
+            });
+            threads[i].setUncaughtExceptionHandler((t, e) -> err.set(e));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (err.get() != null) {
+            throw err.get();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testSyncMerge() throws Throwable {
+
+        C context = getTestableContext();
+        Thread[] threads = new Thread[4];
+        AtomicReference<Throwable> err = new AtomicReference<>();
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    context.merge(key1, 1, (o, n) -> (Integer) o + (Integer) n);
+                    context.compute(key2, (k, v) -> v == null ? 1 : (Integer) v + 1);
+                }
+            });
+            threads[i].setUncaughtExceptionHandler((t, e) -> err.set(e));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (err.get() != null) {
+            throw err.get();
+        }
+        assertEquals(40000, context.get(key1));
+        assertEquals(40000, context.get(key2));
+    }
 }
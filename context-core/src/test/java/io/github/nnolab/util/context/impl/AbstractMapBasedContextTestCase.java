@@ -0,0 +1,49 @@
+package io.github.nnolab.util.context.impl;
+
+import io.github.nnolab.util.context.AbstractContextTestCase;
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.impl.mapb.DefaultMapSuppliers;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Base class for testing contexts, based on {@link Map}.
+ *
+ * @param <C> implementation
+ * @author nnolab
+ */
+public abstract class AbstractMapBasedContextTestCase<C extends Context> extends AbstractContextTestCase<C> {
+
+    /**
+     * Get testable context, based on maps of specified supplier.
+     *
+     * @param mapSupplier supplier of maps
+     * @return testable context
+     */
+    protected abstract C getTestableContext(Supplier<Map<String, Object>> mapSupplier);
+
+    @Test
+    public void testSortedEntriesWithPrefix() {
+
+        C context = getTestableContext(DefaultMapSuppliers.TREE_MAP);
+        context.put("b.2", value2);
+        context.put("a", value1);
+        context.put("b.1", value1);
+        context.put("c", value3);
+        context.put("b", value4);
+
+        List<String> keys = new ArrayList<>();
+        for (Context.Entry entry : context.entries("b.")) {
+            keys.add(entry.getKey());
+        }
+        assertEquals(Arrays.asList("b.1", "b.2"), keys);
+
+        Context view = context.view("b.");
+        assertEquals(2, view.size());
+        assertEquals(value1, view.get("1"));
+    }
+}
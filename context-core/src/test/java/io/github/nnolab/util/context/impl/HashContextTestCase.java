@@ -1,9 +1,15 @@
 package io.github.nnolab.util.context.impl;
 
 import io.github.nnolab.util.context.AbstractContextTestCase;
+import io.github.nnolab.util.context.Context;
+import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.*;
+
 /**
  * Test case for {@link HashContext}.
  *
@@ -27,4 +33,132 @@ public class HashContextTestCase extends AbstractContextTestCase<HashContext> {
         context.resize(2, 0.5f, 2, 0.5f);
         return context;
     }
+
+    @Test
+    public void testReset() {
+        HashContext context = new HashContext(2);
+        put12345(context);
+        assertSame(context, context.reset());
+        assertTrue(context.isEmpty());
+        assertFalse(context.keys().iterator().hasNext());
+        assertFalse(context.containsKey(key1));
+        put12345(context);
+        assertEquals(5, context.size());
+        assertEquals(value3, context.get(key3));
+        context.remove(key3);
+        context.reset();
+        put123(context);
+        assertEquals(3, context.size());
+        assertEquals(value2, context.get(key2));
+    }
+
+    private List<String> keyList(HashContext context) {
+        List<String> list = new ArrayList<>();
+        for (String key : context.keys()) {
+            list.add(key);
+        }
+        return list;
+    }
+
+    @Test
+    public void testFastCopy() {
+        HashContext context = new HashContext(1);
+        put12345(context);
+        context.remove(key3);
+
+        HashContext copy = context.copy();
+        assertEquals(context, copy);
+        assertEquals(context.hashCode(), copy.hashCode());
+        assertEquals(keyList(context), keyList(copy));
+
+        copy.put(key3, value3);
+        copy.remove(key1);
+        assertTrue(context.containsKey(key1));
+        assertFalse(context.containsKey(key3));
+        assertEquals(value3, copy.get(key3));
+        assertNull(copy.get(key1));
+    }
+
+    @Test
+    public void testEnsureCapacity() {
+        HashContext context = new HashContext(1);
+        context.ensureCapacity(100);
+        put12345(context);
+        assertEquals(5, context.size());
+        assertEquals(value4, context.get(key4));
+
+        HashContext target = new HashContext(1);
+        target.put(key1, value05);
+        target.copyFrom(context, Context.ReplaceRule.PUT_IF_ABSENT);
+        assertEquals(5, target.size());
+        assertEquals(value05, target.get(key1));
+        assertEquals(value5, target.get(key5));
+
+        HashContext acceptor = new HashContext(1);
+        context.copyTo(acceptor);
+        assertEquals(context, acceptor);
+    }
+
+    @Test
+    public void testBulkCopy() {
+        HashContext context = new HashContext(1);
+        put12345(context);
+
+        HashContext empty = new HashContext(1);
+        empty.copyFrom(context, Context.ReplaceRule.PUT);
+        assertEquals(context, empty);
+        assertEquals(context.hashCode(), empty.hashCode());
+
+        HashContext target = new HashContext(1);
+        target.put(key1, value05);
+        target.putLazy(key2, () -> {
+            throw new AssertionError();
+        });
+        context.copyTo(target, Context.ReplaceRule.PUT);
+        assertEquals(context, target);
+        assertEquals(context.hashCode(), target.hashCode());
+
+        target = new HashContext(1);
+        target.put(key1, value05);
+        context.copyTo(target, Context.ReplaceRule.PUT_IF_KEY_ABSENT);
+        assertEquals(5, target.size());
+        assertEquals(value05, target.get(key1));
+        assertEquals(value2, target.get(key2));
+
+        HashContext nonNull = new HashContext(false, 1);
+        context.put("key6", null);
+        nonNull.put(key1, value05);
+        try {
+            nonNull.copyFrom(context, Context.ReplaceRule.PUT);
+            fail();
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNoMappingNotStored() {
+
+        HashContext context = getTestableContext();
+        try {
+            context.put(key1, Context.NO_MAPPING);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        context.putLazy(key1, () -> Context.NO_MAPPING);
+        try {
+            context.get(key1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            context.getOrComputeAndPut(key2, k -> Context.NO_MAPPING);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertFalse(context.containsKey(key2));
+    }
 }
@@ -0,0 +1,101 @@
+package io.github.nnolab.util.context.impl;
+
+import io.github.nnolab.util.context.AbstractContextTestCase;
+import io.github.nnolab.util.context.Context;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for {@link IndexedHashContext}.
+ *
+ * @author nnolab
+ */
+public class IndexedHashContextTestCase extends AbstractContextTestCase<IndexedHashContext> {
+
+    @Override
+    protected IndexedHashContext getTestableContext() {
+        return new IndexedHashContext();
+    }
+
+    @Override
+    protected IndexedHashContext getTestableContext(int capacity) {
+        return new IndexedHashContext(capacity);
+    }
+
+    @Override
+    protected IndexedHashContext getTestableContext(Map<String, Object> source) {
+        return new IndexedHashContext(source);
+    }
+
+    private Set<String> keySet(Context.Keys keys) {
+        Set<String> set = new HashSet<>();
+        for (String key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Test
+    public void testKeysOf() {
+        IndexedHashContext context = getTestableContext(put12345(getSupportMap()));
+
+        assertEquals(new HashSet<>(Arrays.asList(key1, key5)), keySet(context.keysOf(value1)));
+        assertEquals(Collections.singleton(key2), keySet(context.keysOf(value2)));
+        assertTrue(keySet(context.keysOf(value05)).isEmpty());
+
+        context.put(key5, value2);
+        assertEquals(Collections.singleton(key1), keySet(context.keysOf(value1)));
+        assertEquals(new HashSet<>(Arrays.asList(key2, key5)), keySet(context.keysOf(value2)));
+
+        context.compute(key2, (k, v) -> value05);
+        context.remove(key5);
+        assertFalse(context.containsValue(value2));
+        assertTrue(context.containsValue(value05));
+        assertEquals(Collections.singleton(key2), keySet(context.keysOf(value05)));
+
+        IndexedHashContext copy = context.copy();
+        assertEquals(Collections.singleton(key2), keySet(copy.keysOf(value05)));
+        copy.put(key4, value05);
+        assertEquals(new HashSet<>(Arrays.asList(key2, key4)), keySet(copy.keysOf(value05)));
+        assertEquals(Collections.singleton(key2), keySet(context.keysOf(value05)));
+
+        context.clear();
+        assertFalse(context.containsValue(value1));
+        assertTrue(keySet(context.keysOf(value1)).isEmpty());
+
+        context.put(key1, value05);
+        context.copyFrom(copy, Context.ReplaceRule.PUT);
+        assertEquals(new HashSet<>(Arrays.asList(key2, key4)), keySet(context.keysOf(value05)));
+        assertEquals(Collections.singleton(key1), keySet(context.keysOf(value1)));
+    }
+
+    @Test
+    public void testRemoveValue() {
+        IndexedHashContext context = getTestableContext(put12345(getSupportMap()));
+
+        assertEquals(2, context.removeValue(value1));
+        assertFalse(context.containsKey(key1));
+        assertFalse(context.containsKey(key5));
+        assertEquals(1, context.removeValue(value3));
+        assertEquals(0, context.removeValue(value3));
+        assertEquals(2, context.size());
+        assertEquals(value2, context.get(key2));
+        assertEquals(value4, context.get(key4));
+    }
+
+    @Test
+    public void testLazyValueIndex() {
+        IndexedHashContext context = getTestableContext(put12345(getSupportMap()));
+
+        context.putLazy("lazy", () -> value05);
+        assertTrue(context.containsValue(value05));
+        assertEquals(Collections.singleton("lazy"), keySet(context.keysOf(value05)));
+        context.putLazy(key2, () -> value05);
+        assertFalse(context.containsValue(value2));
+        assertEquals(2, context.removeValue(value05));
+        assertFalse(context.containsKey("lazy"));
+    }
+}
@@ -1,16 +1,16 @@
 package io.github.nnolab.util.context.impl;
 
-import io.github.nnolab.util.context.AbstractContextTestCase;
 import io.github.nnolab.util.context.impl.mapb.*;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Tests for {@link MapBasedLIContext}.
  *
  * @author nnolab
  */
-public class MapBasedLIContextTestCase extends AbstractContextTestCase<MapBasedLIContext> {
+public class MapBasedLIContextTestCase extends AbstractMapBasedContextTestCase<MapBasedLIContext> {
     
     @Override
     protected MapBasedLIContext getTestableContext() {
@@ -34,4 +34,9 @@ public class MapBasedLIContextTestCase extends AbstractContextTestCase<MapBasedL
                 CapacityMapSuppliers.HASH_MAP,
                 source);
     }
+
+    @Override
+    protected MapBasedLIContext getTestableContext(Supplier<Map<String, Object>> mapSupplier) {
+        return new MapBasedLIContext(mapSupplier);
+    }
 }
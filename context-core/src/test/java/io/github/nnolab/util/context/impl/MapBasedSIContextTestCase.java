@@ -1,16 +1,20 @@
 package io.github.nnolab.util.context.impl;
 
-import io.github.nnolab.util.context.AbstractContextTestCase;
+import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.context.impl.mapb.*;
+import org.junit.Test;
 
-import java.util.Map;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
 
 /**
  * Tests for {@link MapBasedSIContext}.
  *
  * @author nnolab
  */
-public class MapBasedSIContextTestCase extends AbstractContextTestCase<MapBasedSIContext> {
+public class MapBasedSIContextTestCase extends AbstractMapBasedContextTestCase<MapBasedSIContext> {
 
     @Override
     protected MapBasedSIContext getTestableContext() {
@@ -34,4 +38,35 @@ public class MapBasedSIContextTestCase extends AbstractContextTestCase<MapBasedS
                 CapacityMapSuppliers.HASH_MAP,
                 source);
     }
+
+    @Override
+    protected MapBasedSIContext getTestableContext(Supplier<Map<String, Object>> mapSupplier) {
+        return new MapBasedSIContext(mapSupplier);
+    }
+
+    @Test
+    public void testNoMappingNotStored() {
+
+        MapBasedSIContext context = getTestableContext();
+        try {
+            context.put(key1, Context.NO_MAPPING);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        context.putLazy(key1, () -> Context.NO_MAPPING);
+        try {
+            context.get(key1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            context.getOrComputeAndPut(key2, k -> Context.NO_MAPPING);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertFalse(context.containsKey(key2));
+    }
 }
@@ -0,0 +1,145 @@
+package io.github.nnolab.util.context.impl;
+
+import io.github.nnolab.util.context.AbstractContextTestCase;
+import io.github.nnolab.util.context.Context;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for {@link ShapedContext}.
+ *
+ * @author nnolab
+ */
+public class ShapedContextTestCase extends AbstractContextTestCase<ShapedContext> {
+
+    @Override
+    protected ShapedContext getTestableContext() {
+        return new ShapedContext();
+    }
+
+    @Override
+    protected ShapedContext getTestableContext(int capacity) {
+        return new ShapedContext(capacity);
+    }
+
+    @Override
+    protected ShapedContext getTestableContext(Map<String, Object> source) {
+        return new ShapedContext(source);
+    }
+
+    @Test
+    public void testShapeSharing() {
+
+        ShapedContext context1 = new ShapedContext(1);
+        ShapedContext context2 = new ShapedContext();
+        put12345(context1);
+        put12345(context2);
+        assertSame(context1.getShape(), context2.getShape());
+        assertSame(ContextShape.of(key1, key2, key3, key4, key5), context1.getShape());
+        assertSame(context1.getShape(), context1.copy().getShape());
+
+        context1.remove(key2);
+        context2.remove(key2);
+        assertSame(context1.getShape(), context2.getShape());
+        assertEquals(value5, context1.get(key5));
+        assertEquals(value3, context1.get(key3));
+
+        context1.clear();
+        assertSame(ContextShape.EMPTY, context1.getShape());
+
+        ShapedContext context3 = new ShapedContext(ContextShape.of(key1, key2), value1, value2);
+        assertEquals(value1, context3.get(key1));
+        assertEquals(value2, context3.get(key2));
+        assertEquals(2, context3.size());
+
+        try {
+            new ShapedContext(ContextShape.of(key1, key2), value1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            ContextShape.of(key1, key1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testSharedShapeTransitions() {
+
+        ContextShape base = ContextShape.of(key1, key2);
+        String key = "testSharedShapeTransitions";
+        ContextShape shape = base.withKey(key);
+        assertSame(shape, base.withKey(key));
+        ContextShape removed = shape.withoutKey(key1);
+        assertSame(removed, shape.withoutKey(key1));
+        assertEquals(key, removed.key(0));
+        assertEquals(key2, removed.key(1));
+        String[] keys = new String[ContextShape.MAX_SHARED_SIZE + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "testSharedShapeTransitions" + i;
+        }
+        assertNotSame(ContextShape.of(keys), ContextShape.of(keys));
+        assertEquals(ContextShape.of(keys).size(), keys.length);
+    }
+
+    @Test
+    public void testDictionaryMode() {
+
+        int count = ContextShape.MAX_SHARED_SIZE * 8;
+        ShapedContext context = getTestableContext();
+        for (int i = 0; i < count; i++) {
+            context.put("testDictionaryMode" + i, i);
+        }
+        assertEquals(count, context.size());
+        ShapedContext copy = context.copy();
+        ContextShape shape = context.getShape();
+        for (int i = 0; i < count; i += 3) {
+            assertEquals(i, context.remove("testDictionaryMode" + i));
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 3 == 0 ? null : i, context.get("testDictionaryMode" + i));
+            assertEquals(i, copy.get("testDictionaryMode" + i));
+            assertEquals("testDictionaryMode" + i, shape.key(i));
+        }
+        assertEquals(count, copy.size());
+        assertEquals(count, shape.size());
+        assertEquals(count - (count + 2) / 3, context.size());
+        assertEquals(context.size(), context.getShape().size());
+        context.put(key1, value1);
+        assertFalse(copy.containsKey(key1));
+        assertEquals(context, serialTransform(context));
+        assertEquals(copy, serialTransform(copy));
+        context.clear();
+        assertSame(ContextShape.EMPTY, context.getShape());
+    }
+
+    @Test
+    public void testNoMappingNotStored() {
+
+        ShapedContext context = getTestableContext();
+        try {
+            context.put(key1, Context.NO_MAPPING);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        context.putLazy(key1, () -> Context.NO_MAPPING);
+        try {
+            context.get(key1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            context.getOrComputeAndPut(key2, k -> Context.NO_MAPPING);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertFalse(context.containsKey(key2));
+    }
+}
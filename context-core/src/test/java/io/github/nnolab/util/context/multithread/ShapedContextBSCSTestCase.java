@@ -0,0 +1,14 @@
+package io.github.nnolab.util.context.multithread;
+
+import io.github.nnolab.util.context.impl.ShapedContext;
+import io.github.nnolab.util.context.shells.BaseSyncContextShell;
+
+/**
+ * Test case for {@link ShapedContext} in {@link BaseSyncContextShell}.
+ *
+ * @author nnolab
+ */
+public class ShapedContextBSCSTestCase extends
+        AbstractBaseSyncContextShellTestCase<ShapedContext>
+        implements ShapedContextProvider {
+}
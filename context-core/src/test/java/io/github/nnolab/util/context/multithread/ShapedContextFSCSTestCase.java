@@ -0,0 +1,14 @@
+package io.github.nnolab.util.context.multithread;
+
+import io.github.nnolab.util.context.impl.ShapedContext;
+import io.github.nnolab.util.context.shells.FullSyncContextShell;
+
+/**
+ * Test case for {@link ShapedContext} in {@link FullSyncContextShell}.
+ *
+ * @author nnolab
+ */
+public class ShapedContextFSCSTestCase
+        extends AbstractFullSyncContextShellTestCase<ShapedContext>
+        implements ShapedContextProvider {
+}
@@ -0,0 +1,29 @@
+package io.github.nnolab.util.context.multithread;
+
+import io.github.nnolab.util.context.impl.ShapedContext;
+
+import java.util.Map;
+
+/**
+ * Provider of {@link ShapedContext}.
+ *
+ * @author nnolab
+ */
+public interface ShapedContextProvider
+        extends ContextImplementationProvider<ShapedContext> {
+
+    @Override
+    default ShapedContext getContext() {
+        return new ShapedContext();
+    }
+
+    @Override
+    default ShapedContext getContext(int capacity) {
+        return new ShapedContext(capacity);
+    }
+
+    @Override
+    default ShapedContext getContext(Map<String, Object> source) {
+        return new ShapedContext(source);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.nnolab.util.context.pool;
+
+import io.github.nnolab.util.context.impl.HashContext;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for {@link ContextPool}.
+ *
+ * @author nnolab
+ */
+public class ContextPoolTestCase {
+
+    @Test
+    public void testBorrowRelease() {
+
+        ContextPool<HashContext> pool = new ContextPool<>(HashContext::new, HashContext::reset, 1, 1);
+        HashContext context1 = pool.borrow();
+        HashContext context2 = pool.borrow();
+        HashContext context3 = pool.borrow();
+        assertNotSame(context1, context2);
+        assertEquals(0, pool.getLocalSize());
+
+        context1.put("key1", 1);
+        pool.release(context1);
+        assertTrue(context1.isEmpty());
+        assertEquals(1, pool.getLocalSize());
+        pool.release(context2);
+        assertEquals(1, pool.getSharedSize());
+        pool.release(context3);
+        assertEquals(1, pool.getLocalSize());
+        assertEquals(1, pool.getSharedSize());
+
+        assertSame(context1, pool.borrow());
+        assertSame(context2, pool.borrow());
+        assertNotSame(context3, pool.borrow());
+
+        try {
+            pool.release(null);
+            fail();
+        } catch (NullPointerException e) {
+        }
+        try {
+            new ContextPool<>(HashContext::new, HashContext::reset, -1, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testSharing() throws Exception {
+
+        ContextPool<HashContext> pool = new ContextPool<>(HashContext::new, HashContext::reset, 0, 4);
+        HashContext context = pool.borrow();
+        AtomicReference<HashContext> borrowed = new AtomicReference<>();
+        pool.release(context);
+        Thread thread = new Thread(() -> borrowed.set(pool.borrow()));
+        thread.start();
+        thread.join();
+        assertSame(context, borrowed.get());
+        assertEquals(0, pool.getSharedSize());
+    }
+}
@@ -1,8 +1,15 @@
 package io.github.nnolab.util.context.shells;
 
 import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.LazyValue;
+import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
 
 /**
  * Test case for {@link LockSafeSynchContextShell}.
@@ -16,4 +23,87 @@ public class LockSafeSynchContextShellTestCase
     protected Function<Context, LockSafeSynchContextShell> getShellConstructor() {
         return LockSafeSynchContextShell::new;
     }
+
+    @Test
+    public void testConcurrentMerge() throws Throwable {
+
+        LockSafeSynchContextShell context = getTestableContext();
+        Thread[] threads = new Thread[4];
+        AtomicReference<Throwable> err = new AtomicReference<>();
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    context.merge(key1, 1, (o, n) -> (Integer) o + (Integer) n);
+                    context.compute(key2, (k, v) -> v == null ? 1 : (Integer) v + 1);
+                    context.computeIfPresent(key2, (k, v) -> (Integer) v == 1 ? null : (Integer) v - 1);
+                    context.incrementLong(key3);
+                }
+            });
+            threads[i].setUncaughtExceptionHandler((t, e) -> err.set(e));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (err.get() != null) {
+            throw err.get();
+        }
+        assertEquals(40000, context.get(key1));
+        assertNull(context.get(key2));
+        assertFalse(context.containsKey(key2));
+        assertEquals(40000, context.sumLong(key3));
+    }
+
+    @Test
+    public void testLazyResolvedOutsideOfLock() {
+
+        LockSafeSynchContextShell context = getTestableContext();
+        Supplier<Object> supplier = () -> {
+            assertFalse(Thread.holdsLock(context));
+            return value05;
+        };
+
+        context.putLazy(key1, supplier);
+        assertEquals(value05, context.get(key1));
+        context.putLazy(key1, supplier);
+        assertEquals(value05, context.getOrDefault(key1, value1));
+        context.putLazy(key1, supplier);
+        assertEquals(value05, context.lookup(key1));
+        context.putLazy(key1, supplier);
+        assertEquals(value05, context.put(key1, value1));
+        context.putLazy(key1, supplier);
+        assertEquals(value05, context.putIfAbsent(key1, value1));
+        assertEquals(value05, context.putIfKeyAbsent(key1, value1));
+        context.putLazy(key1, supplier);
+        assertTrue(context.replaceExactly(key1, value05, value1));
+        context.putLazy(key1, supplier);
+        assertTrue(context.removeExactly(key1, value05));
+        context.putLazy(key1, supplier);
+        assertEquals(value05, context.remove(key1));
+        context.putLazy(key1, supplier);
+        context.hashCode();
+        assertTrue(context.containsValue(value05));
+        for (Context.Entry entry : context.entries()) {
+            assertFalse(entry.getValue() instanceof LazyValue);
+        }
+        assertEquals(value05, context.get(key1));
+    }
+
+    @Test
+    public void testCachedLongCounter() {
+
+        LockSafeSynchContextShell context = getTestableContext();
+        LongAdder adder = context.longAdder(key1);
+        context.incrementLong(key1);
+        assertSame(adder, context.longAdder(key1));
+        context.remove(key1);
+        context.incrementLong(key1);
+        assertNotSame(adder, context.longAdder(key1));
+        assertEquals(1, context.sumLong(key1));
+        context.put(key1, 10L);
+        context.addLong(key1, 2);
+        assertEquals(12, context.sumLong(key1));
+    }
 }
@@ -0,0 +1,90 @@
+package io.github.nnolab.util.context.shells;
+
+import io.github.nnolab.util.context.*;
+import io.github.nnolab.util.context.test.ContextTI;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for {@link PrefixContextView}.
+ * Parent context contains mappings, invisible through the view.
+ *
+ * @author nnolab
+ */
+public class PrefixContextViewTestCase extends AbstractContextTestCase<PrefixContextView> {
+
+    private static final String PREFIX = "ns.";
+
+    private PrefixContextView createView(Map<String, Object> source, int capacity) {
+        Context parent = new ContextTI(capacity + 2);
+        parent.put("ns", value1);
+        parent.put("other.key1", value1);
+        if (source != null) {
+            for (Map.Entry<String, Object> entry : source.entrySet()) {
+                parent.put(PREFIX + entry.getKey(), entry.getValue());
+            }
+        }
+        return new PrefixContextView(parent, PREFIX);
+    }
+
+    @Override
+    protected PrefixContextView getTestableContext() {
+        return createView(null, 1);
+    }
+
+    @Override
+    protected PrefixContextView getTestableContext(int capacity) {
+        return createView(null, capacity);
+    }
+
+    @Override
+    protected PrefixContextView getTestableContext(Map<String, Object> source) {
+        return createView(source, source.size());
+    }
+
+    @Test
+    public void testWriteThrough() {
+
+        PrefixContextView view = getTestableContext(put123(getSupportMap()));
+        Context parent = view.getParent();
+
+        assertEquals(5, parent.size());
+        view.put(key4, value4);
+        assertEquals(value4, parent.get(PREFIX + key4));
+        parent.remove(PREFIX + key1);
+        assertFalse(view.containsKey(key1));
+
+        PrefixContextView nested = view.view("key");
+        assertSame(parent, nested.getParent());
+        assertEquals(PREFIX + "key", nested.getPrefix());
+        assertEquals(value2, nested.get("2"));
+
+        view.clear();
+        assertTrue(view.isEmpty());
+        assertEquals(2, parent.size());
+        assertEquals(value1, parent.get("ns"));
+        assertEquals(value1, parent.get("other.key1"));
+    }
+
+    /**
+     * Copy of view reads values through parent entries,
+     * so lazy values are resolved by copying.
+     */
+    @Override
+    public void testPutLazy() {
+
+        PrefixContextView view = getTestableContext(put123(getSupportMap()));
+        int[] calls = new int[1];
+
+        view.putLazy("lazy", () -> ++calls[0]);
+        assertTrue(view.getParent().containsKey(PREFIX + "lazy"));
+        assertEquals(0, calls[0]);
+        assertEquals(1, view.get("lazy"));
+        assertEquals(1, view.getParent().get(PREFIX + "lazy"));
+        assertEquals(1, view.copy().get("lazy"));
+        assertEquals(1, calls[0]);
+    }
+}
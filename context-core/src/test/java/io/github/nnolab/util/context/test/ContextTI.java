@@ -90,13 +90,13 @@ public class ContextTI extends TIBasis implements Context {
     @Override
     public Context copy(BiPredicate<String, Object> criteria) {
         Objects.requireNonNull(criteria);
-        return createCopy(ContextTI::new, entry -> criteria.test(entry.key, entry.value));
+        return createCopy(ContextTI::new, entry -> criteria.test(entry.key, entry.getValue()));
     }
 
     @Override
     public Context filter(BiPredicate<String, Object> criteria) {
         Objects.requireNonNull(criteria);
-        filter(entry -> criteria.test(entry.key, entry.value));
+        filter(entry -> criteria.test(entry.key, entry.getValue()));
         return this;
     }
 }
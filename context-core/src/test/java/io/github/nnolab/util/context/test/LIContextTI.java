@@ -35,15 +35,19 @@ public class LIContextTI extends AbstractLIContext {
 
     /**
      * Construct context from original with selection criteria.
+     * Values are copied as is, if criteria is {@code null}.
      *
      * @param original original context
-     * @param criteria selection criteria
+     * @param criteria selection criteria or {@code null} to copy all
      */
     private LIContextTI(LIContextTI original, BiPredicate<String, Object> criteria) {
+        Object value;
         IterNode node = original.head.next;
         while (node != null) {
-            if (criteria.test(node.key, node.value)) {
+            if (criteria == null) {
                 addNewNode(node.key, node.value);
+            } else if (criteria.test(node.key, value = original.readNodeValue(node))) {
+                addNewNode(node.key, value);
             }
             node = node.next;
         }
@@ -81,7 +85,7 @@ public class LIContextTI extends AbstractLIContext {
 
     @Override
     public Context copy() {
-        return new LIContextTI(this, (key, value) -> true);
+        return new LIContextTI(this, null);
     }
 
     @Override
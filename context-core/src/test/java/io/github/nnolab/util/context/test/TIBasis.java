@@ -1,6 +1,7 @@
 package io.github.nnolab.util.context.test;
 
 import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.LazyValue;
 
 import java.io.Serializable;
 import java.util.*;
@@ -34,6 +35,9 @@ public class TIBasis implements Serializable {
 
         @Override
         public Object getValue() {
+            if (value instanceof LazyValue) {
+                value = ((LazyValue) value).get();
+            }
             return value;
         }
     }
@@ -268,7 +272,7 @@ public class TIBasis implements Serializable {
             addEntry(newEntry);
             return null;
         } else {
-            Object oldValue = entry.value;
+            Object oldValue = entry.getValue();
             entry.value = value;
             return oldValue;
         }
@@ -281,7 +285,7 @@ public class TIBasis implements Serializable {
             addEntry(newEntry);
             return null;
         } else {
-            Object oldValue = entry.value;
+            Object oldValue = entry.getValue();
             if (oldValue == null) {
                 entry.value = value;
             }
@@ -296,14 +300,14 @@ public class TIBasis implements Serializable {
             addEntry(newEntry);
             return null;
         } else {
-            return entry.value;
+            return entry.getValue();
         }
     }
 
     protected Object doGetOrCompute(String key, Function<String, Object> function) {
         Objects.requireNonNull(function);
         EntryImpl entry = findEntry(key);
-        return entry == null ? function.apply(key) : entry.value;
+        return entry == null ? function.apply(key) : entry.getValue();
     }
 
     protected Object doGetOrComputeAndPut(String key, Function<String, Object> function) {
@@ -314,7 +318,7 @@ public class TIBasis implements Serializable {
             addEntry(newEntry);
             return newEntry.value;
         } else {
-            return entry.value;
+            return entry.getValue();
         }
     }
 
@@ -323,7 +327,7 @@ public class TIBasis implements Serializable {
         Objects.requireNonNull(valueType);
         Objects.requireNonNull(function);
         EntryImpl entry = findEntry(key);
-        if (entry != null && valueType.isInstance(entry.value)) {
+        if (entry != null && valueType.isInstance(entry.getValue())) {
             return (T) entry.value;
         } else {
             EntryImpl newEntry = new EntryImpl(key, function.apply(key));
@@ -338,13 +342,13 @@ public class TIBasis implements Serializable {
             return null;
         } else {
             removeEntry(entry);
-            return entry.value;
+            return entry.getValue();
         }
     }
 
     protected boolean doRemoveExactly(String key, Object value) {
         EntryImpl entry = findEntry(key);
-        if (entry != null && entry.value == value) {
+        if (entry != null && entry.getValue() == value) {
             removeEntry(entry);
             return true;
         } else {
@@ -359,13 +363,13 @@ public class TIBasis implements Serializable {
             return supplier.apply(key);
         } else {
             removeEntry(entry);
-            return entry.value;
+            return entry.getValue();
         }
     }
 
     protected boolean doContainsValue(Object value) {
         for (int i = 0; i < size; i++) {
-            if (Objects.equals(entries[i].value, value)) {
+            if (Objects.equals(entries[i].getValue(), value)) {
                 return true;
             }
         }
@@ -413,13 +417,21 @@ public class TIBasis implements Serializable {
             return false;
         }
         for (int i = 0; i < size; i++) {
-            if (!Objects.equals(context.get(entries[i].key), entries[i].value)) {
+            if (!Objects.equals(context.get(entries[i].key), entries[i].getValue())) {
                 return false;
             }
         }
         return true;
     }
 
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < size; i++) {
+            hash += Objects.hashCode(entries[i].key) ^ Objects.hashCode(entries[i].value);
+        }
+        return hash;
+    }
+
     public Context.Keys keys() {
         return new SeparatedKeys(entries, size);
     }
@@ -0,0 +1,138 @@
+package io.github.nnolab.util.taskexe;
+
+import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskBatchControl} over array of task controls.
+ *
+ * @author nnolab
+ */
+final class ArrayTaskBatchControl implements TaskBatchControl {
+
+    private final TaskControl[] taskControls;
+
+    ArrayTaskBatchControl(TaskControl[] taskControls) {
+        this.taskControls = Objects.requireNonNull(taskControls);
+    }
+
+    /**
+     * Await next stage of task, which is not finished.
+     *
+     * @param taskControl  control of task
+     * @param stage        current not final stage
+     * @param nanosTimeout timeout in nanoseconds, negative for infinite waiting
+     * @return actual stage
+     * @throws InterruptedException if current thread interrupted
+     */
+    private static TaskControl.TaskStage awaitNextStage(TaskControl taskControl, TaskControl.TaskStage stage,
+                                                        long nanosTimeout) throws InterruptedException {
+        try {
+            return nanosTimeout < 0
+                    ? taskControl.awaitNextStage(stage)
+                    : taskControl.awaitNextStage(stage, nanosTimeout, TimeUnit.NANOSECONDS);
+        } catch (UselessWaitingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return taskControls.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskControl get(int index) {
+        return taskControls[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getStageCount(TaskControl.TaskStage stage) {
+        Objects.requireNonNull(stage);
+        int count = 0;
+        for (TaskControl taskControl : taskControls) {
+            if (taskControl.getTaskStage() == stage) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinished() {
+        for (TaskControl taskControl : taskControls) {
+            if (taskControl.getTaskStage().hasAfter()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void awaitAll() throws InterruptedException {
+        for (TaskControl taskControl : taskControls) {
+            TaskControl.TaskStage stage = taskControl.getTaskStage();
+            while (stage.hasAfter()) {
+                stage = awaitNextStage(taskControl, stage, -1L);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean awaitAll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Invalid timeout: " + timeout);
+        }
+        long nanosTimeout = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanosTimeout;
+        for (TaskControl taskControl : taskControls) {
+            TaskControl.TaskStage stage = taskControl.getTaskStage();
+            while (stage.hasAfter()) {
+                if (nanosTimeout <= 0) {
+                    return false;
+                }
+                stage = awaitNextStage(taskControl, stage, nanosTimeout);
+                nanosTimeout = deadline - System.nanoTime();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelAll() {
+        for (TaskControl taskControl : taskControls) {
+            taskControl.cancelTask();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<TaskControl> iterator() {
+        return Collections.unmodifiableList(Arrays.asList(taskControls)).iterator();
+    }
+}
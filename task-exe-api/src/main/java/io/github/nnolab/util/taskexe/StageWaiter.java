@@ -0,0 +1,77 @@
+package io.github.nnolab.util.taskexe;
+
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Default support of {@link TaskControl#onStage(TaskStage, Consumer)}
+ * for controls, which can only be awaited. Every registered callback
+ * is held by shared daemon thread, which awaits stages of task by
+ * {@link TaskControl#awaitNextStage(TaskStage)}.
+ *
+ * @author nnolab
+ */
+final class StageWaiter {
+
+    private static final ExecutorService WAITERS = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "task-stage-waiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private StageWaiter() {
+    }
+
+    /**
+     * Invoke callback, when specified control reaches specified stage.
+     * If control is already at that stage, callback is invoked at once
+     * by current thread. If control passed that stage, callback is dropped.
+     *
+     * @param control  task control
+     * @param stage    stage to wait for
+     * @param callback callback
+     */
+    static void onStage(TaskControl control, TaskStage stage, Consumer<TaskControl> callback) {
+        TaskStage current = control.getTaskStage();
+        if (current == stage) {
+            invoke(callback, control);
+            return;
+        }
+        if (!current.isBefore(stage)) {
+            return;
+        }
+        WAITERS.execute(() -> {
+            TaskStage reached = current;
+            try {
+                while (reached.isBefore(stage)) {
+                    reached = control.awaitNextStage(reached);
+                }
+            } catch (UselessWaitingException | InterruptedException e) {
+                return;
+            }
+            if (reached == stage) {
+                invoke(callback, control);
+            }
+        });
+    }
+
+    /**
+     * Invoke callback, passing its failure to uncaught exception handler
+     * of current thread, so caller is not broken by callback.
+     *
+     * @param callback callback
+     * @param control  task control
+     */
+    private static void invoke(Consumer<TaskControl> callback, TaskControl control) {
+        try {
+            callback.accept(control);
+        } catch (Throwable e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.nnolab.util.taskexe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control over execution of batch of tasks, submitted together
+ * by {@link TaskExecutorService#executeAll}.
+ * Iterates controls of tasks in order of submission.
+ *
+ * @author nnolab
+ */
+public interface TaskBatchControl extends Iterable<TaskControl> {
+
+    /**
+     * Get number of tasks in batch.
+     *
+     * @return number of tasks
+     */
+    int size();
+
+    /**
+     * Get control of task with specified index in batch.
+     *
+     * @param index index of task
+     * @return task control
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    TaskControl get(int index);
+
+    /**
+     * Get number of tasks of batch, which are in specified stage.
+     *
+     * @param stage task stage
+     * @return number of tasks in stage
+     * @throws NullPointerException if stage is {@code null}
+     */
+    int getStageCount(TaskControl.TaskStage stage);
+
+    /**
+     * Returns {@code true}, if all tasks of batch reached final stage.
+     *
+     * @return {@code true} if all tasks finished or {@code false} otherwise
+     */
+    boolean isFinished();
+
+    /**
+     * Await until all tasks of batch reach final stage.
+     *
+     * @throws InterruptedException if current thread interrupted
+     */
+    void awaitAll() throws InterruptedException;
+
+    /**
+     * Await for specified timeout until all tasks of batch reach final stage.
+     *
+     * @param timeout timeout to wait
+     * @param unit    unit of timeout
+     * @return {@code true} if all tasks finished
+     *         or {@code false} if timeout elapsed
+     * @throws IllegalArgumentException if specified timeout lesser than 0
+     * @throws NullPointerException     if specified time unit is {@code null}
+     * @throws InterruptedException     if current thread interrupted
+     */
+    boolean awaitAll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Cancel all tasks of batch.
+     *
+     * @see TaskControl#cancelTask()
+     */
+    void cancelAll();
+
+    /**
+     * Batch control over specified task controls.
+     * Stage counts are calculated on demand by all controls.
+     *
+     * @param taskControls controls of tasks
+     * @return batch control
+     * @throws NullPointerException if array of controls is {@code null}
+     */
+    static TaskBatchControl of(TaskControl... taskControls) {
+        return new ArrayTaskBatchControl(taskControls);
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.nnolab.util.taskexe;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.pool.ContextPool;
+
+import java.util.Objects;
+
+/**
+ * Factory of contexts for tasks, submitted to {@link TaskExecutor}
+ * without context.
+ * Executor takes context from factory at submission and returns it
+ * back, when task reaches a final stage.
+ * Context, returned to factory, may be reused for other tasks,
+ * so it must not be accessed through {@link TaskControl#getContext()}
+ * after task is finished.
+ *
+ * @author nnolab
+ */
+public interface TaskContextFactory {
+
+    /**
+     * Get context for the specified task.
+     *
+     * @param task task to be executed
+     * @return context for task
+     */
+    Context lendContext(Task task);
+
+    /**
+     * Take back context, lent to the specified task,
+     * after task reached a final stage.
+     *
+     * @param task    finished task
+     * @param context context, lent to task
+     */
+    void reclaimContext(Task task, Context context);
+
+    /**
+     * Factory, lending contexts from the specified pool.
+     *
+     * @param pool context pool
+     * @param <C>  pooled contexts type
+     * @return pooled context factory
+     * @throws NullPointerException if pool is {@code null}
+     */
+    static <C extends Context> TaskContextFactory pooled(ContextPool<C> pool) {
+        Objects.requireNonNull(pool);
+        return new TaskContextFactory() {
+
+            @Override
+            public Context lendContext(Task task) {
+                return pool.borrow();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void reclaimContext(Task task, Context context) {
+                pool.release((C) context);
+            }
+        };
+    }
+}
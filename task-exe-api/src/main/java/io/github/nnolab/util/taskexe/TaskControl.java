@@ -3,7 +3,11 @@ package io.github.nnolab.util.taskexe;
 import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Interface, that provides monitoring and control actions over
@@ -212,6 +216,65 @@ public interface TaskControl {
         return awaitNextStage(startStage, unit.toMillis(timeout));
     }
 
+    /**
+     * Register callback, invoked with this control, when task reaches
+     * specified stage. Callback is invoked once by thread, that updated
+     * task stage, right after update. If task is already at specified stage,
+     * callback is invoked at once by current thread. If task will never reach
+     * specified stage (for example, finished or cancelled before start),
+     * callback is not invoked.
+     * <p>Callback must be short and must not block, because it delays
+     * thread, that executes task. Exception of callback does not affect task.
+     * <p>Default implementation awaits stages by {@link #awaitNextStage(TaskStage)}
+     * in shared daemon thread, so callback is invoked by that thread a bit later
+     * than stage update, and intermediate stage may be missed, if task passes
+     * it faster than waiter wakes up. Implementations should override it.
+     *
+     * @param stage    stage to react on
+     * @param callback callback
+     * @throws NullPointerException if stage or callback is {@code null}
+     */
+    default void onStage(TaskStage stage, Consumer<TaskControl> callback) {
+        Objects.requireNonNull(stage);
+        Objects.requireNonNull(callback);
+        StageWaiter.onStage(this, stage, callback);
+    }
+
+    /**
+     * Register callback, passed to specified executor, when task reaches
+     * specified stage.
+     * @see #onStage(TaskStage, Consumer)
+     *
+     * @param stage    stage to react on
+     * @param callback callback
+     * @param executor executor of callback
+     * @throws NullPointerException if stage, callback or executor is {@code null}
+     */
+    default void onStage(TaskStage stage, Consumer<TaskControl> callback, Executor executor) {
+        Objects.requireNonNull(callback);
+        Objects.requireNonNull(executor);
+        onStage(stage, tc -> executor.execute(() -> callback.accept(tc)));
+    }
+
+    /**
+     * Get future, completed with this control, when task is complete,
+     * completed exceptionally with cause of failure, when task is failed,
+     * and cancelled, when task is cancelled.
+     * Completion or cancellation of future does not affect task.
+     *
+     * @return future of task finish
+     */
+    default CompletableFuture<TaskControl> toCompletableFuture() {
+        CompletableFuture<TaskControl> future = new CompletableFuture<>();
+        onStage(TaskStage.COMPLETE, future::complete);
+        onStage(TaskStage.FAILED, tc -> {
+            Throwable cause = tc.getFailureCause();
+            future.completeExceptionally(cause != null ? cause : new IllegalStateException("Task failed"));
+        });
+        onStage(TaskStage.CANCELLED, tc -> future.cancel(false));
+        return future;
+    }
+
     /**
      * Attempt to cancel task execution.
      * Effect of this call depends on current task stage
@@ -1,7 +1,14 @@
 package io.github.nnolab.util.taskexe;
 
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import io.github.nnolab.util.taskexe.exceptions.SaturatedExecutionException;
+
+import java.util.Collection;
+import java.util.Optional;
 import java.util.Spliterator;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * An {@link TaskExecutor}, that provides methods for monitoring
@@ -25,6 +32,64 @@ public interface TaskExecutorService extends TaskExecutor {
         }
     }
 
+    /**
+     * Submit specified task for execution with specified context,
+     * if service is not saturated. Unlike {@link #execute(Task, Context)},
+     * never waits for free place and never runs task in current thread.
+     * <p>By default {@link #execute(Task, Context)} is invoked,
+     * and {@link SaturatedExecutionException} gives empty result.
+     *
+     * @param task    task to be executed
+     * @param context context for task
+     * @return control over task execution or empty result,
+     * if service has too many unfinished tasks
+     * @throws NullPointerException     if specified task is {@code null}
+     * @throws DeniedExecutionException if executor denied to execute task
+     *                                  by other reason, than saturation
+     */
+    default Optional<TaskControl> tryExecute(Task task, Context context) {
+        try {
+            return Optional.of(execute(task, context));
+        } catch (SaturatedExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Submit all specified tasks for execution with contexts,
+     * returned by specified function for every task (contexts may
+     * be {@code null}). Returned {@link TaskBatchControl} holds
+     * controls of tasks in order of collection iteration.
+     * <p>Implementations may register whole batch at once, that is
+     * cheaper, than submission of every task by {@link #execute}.
+     * By default tasks are submitted one by one, and if execution
+     * of some task is denied, already submitted tasks of batch
+     * are cancelled.
+     *
+     * @param tasks    tasks to be executed
+     * @param contexts function, returning context for every task
+     * @return control over execution of batch
+     * @throws NullPointerException     if collection, function or any task is {@code null}
+     * @throws DeniedExecutionException if executor denied to execute tasks
+     */
+    default TaskBatchControl executeAll(Collection<? extends Task> tasks,
+                                        Function<? super Task, ? extends Context> contexts) {
+        TaskControl[] taskControls = new TaskControl[tasks.size()];
+        int i = 0;
+        try {
+            for (Task task : tasks) {
+                taskControls[i] = execute(task, contexts.apply(task));
+                i++;
+            }
+        } catch (RuntimeException | Error e) {
+            while (--i >= 0) {
+                taskControls[i].cancelTask();
+            }
+            throw e;
+        }
+        return TaskBatchControl.of(taskControls);
+    }
+
     /**
      * Get overall count of all tasks, exists in this service in any stage.
      *
@@ -0,0 +1,49 @@
+package io.github.nnolab.util.taskexe.exceptions;
+
+import io.github.nnolab.util.taskexe.TaskExecutor;
+
+/**
+ * Exception thrown by {@link TaskExecutor}, when task cannot be accepted
+ * for execution, because executor has too many unfinished tasks.
+ * Unlike other denials, it is temporary: the same task may be accepted later.
+ *
+ * @author nnolab
+ */
+public class SaturatedExecutionException extends DeniedExecutionException {
+
+    private static final long serialVersionUID = -2651879341178453520L;
+
+    /**
+     * Default constructor.
+     */
+    public SaturatedExecutionException() {
+    }
+
+    /**
+     * Constructor with message.
+     *
+     * @param message message
+     */
+    public SaturatedExecutionException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor with cause.
+     *
+     * @param cause cause
+     */
+    public SaturatedExecutionException(Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message message
+     * @param cause cause
+     */
+    public SaturatedExecutionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.nnolab.util.taskexe.benchmarks;
+
+import io.github.nnolab.util.taskexe.Task;
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+import io.github.nnolab.util.taskexe.TaskExecutor;
+import io.github.nnolab.util.taskexe.TaskExecutorService;
+import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of one task: from submission to the moment,
+ * submitting thread sees it finished. {@link #await()} blocks in
+ * {@link TaskControl#awaitNextStage(TaskStage)} or
+ * {@link Future#get()}, {@link #spin()} polls stage or future,
+ * so difference between them is wake-up latency of waiting.
+ *
+ * @author nnolab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyBenchmark {
+
+    @Param
+    private PoolType pool;
+
+    @Param
+    private WrapperType wrapper;
+
+    /**
+     * Work of task in {@link Blackhole#consumeCPU(long)} tokens,
+     * 0 for empty task.
+     */
+    @Param({"0", "100"})
+    private long work;
+
+    private ExecutorService executorService;
+    private TaskExecutor taskExecutor;
+    private Runnable runnable;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executorService = pool.create(1);
+        taskExecutor = wrapper.wrap(executorService);
+        runnable = () -> {
+            if (work > 0) {
+                Blackhole.consumeCPU(work);
+            }
+        };
+        task = context -> runnable.run();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (taskExecutor instanceof TaskExecutorService) {
+            ((TaskExecutorService) taskExecutor).shutdown();
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Object await() throws Exception {
+        if (taskExecutor == null) {
+            return executorService.submit(runnable).get();
+        }
+        return awaitFinished(taskExecutor.execute(task, null));
+    }
+
+    @Benchmark
+    public Object spin() {
+        if (taskExecutor == null) {
+            Future<?> future = executorService.submit(runnable);
+            while (!future.isDone()) {
+                // busy wait
+            }
+            return future;
+        }
+        TaskControl control = taskExecutor.execute(task, null);
+        TaskStage stage;
+        while ((stage = control.getTaskStage()).hasAfter()) {
+            // busy wait
+        }
+        return stage;
+    }
+
+    /**
+     * Wait for final stage of task by {@link TaskControl#awaitNextStage(TaskStage)}.
+     *
+     * @param control task control
+     * @return final stage
+     * @throws UselessWaitingException never, because only not final stage is awaited
+     * @throws InterruptedException    if current thread interrupted
+     */
+    static TaskStage awaitFinished(TaskControl control)
+            throws UselessWaitingException, InterruptedException {
+        TaskStage stage = control.getTaskStage();
+        while (stage.hasAfter()) {
+            stage = control.awaitNextStage(stage);
+        }
+        return stage;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.nnolab.util.taskexe.benchmarks;
+
+import io.github.nnolab.util.taskexe.Task;
+import io.github.nnolab.util.taskexe.TaskExecutor;
+import io.github.nnolab.util.taskexe.TaskExecutorService;
+import io.github.nnolab.util.taskexe.impl.executors.SynchronousTaskExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of task lifecycle without threads: every task executor runs
+ * empty task in calling thread, so only creation of task control,
+ * stage updates and bookkeeping of service are measured
+ * against direct call of task.
+ *
+ * @author nnolab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LifecycleBenchmark {
+
+    /**
+     * Way to run task.
+     */
+    public enum Target {
+        DIRECT,
+        SYNCHRONOUS,
+        PROXY,
+        LINKED,
+        SEPARATED
+    }
+
+    @Param
+    private Target target;
+
+    private TaskExecutor taskExecutor;
+    private final Task task = context -> {};
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (target) {
+            case SYNCHRONOUS:
+                taskExecutor = new SynchronousTaskExecutor();
+                break;
+            case PROXY:
+                taskExecutor = WrapperType.PROXY.wrap(Runnable::run);
+                break;
+            case LINKED:
+                taskExecutor = WrapperType.LINKED.wrap(Runnable::run);
+                break;
+            case SEPARATED:
+                taskExecutor = WrapperType.SEPARATED.wrap(Runnable::run);
+                break;
+            default:
+                taskExecutor = null;
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (taskExecutor instanceof TaskExecutorService) {
+            ((TaskExecutorService) taskExecutor).shutdown();
+        }
+    }
+
+    @Benchmark
+    public Object execute() throws Throwable {
+        if (taskExecutor == null) {
+            task.execute(null);
+            return task;
+        }
+        return taskExecutor.execute(task, null);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.nnolab.util.taskexe.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw executors, which run tasks of benchmarked task executors
+ * and serve as baseline.
+ *
+ * @author nnolab
+ */
+public enum PoolType {
+
+    THREAD_POOL {
+        @Override
+        public ExecutorService create(int threads) {
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>());
+        }
+    },
+
+    FORK_JOIN {
+        @Override
+        public ExecutorService create(int threads) {
+            return new ForkJoinPool(threads);
+        }
+    };
+
+    /**
+     * Create executor with specified number of threads.
+     *
+     * @param threads number of threads
+     * @return new executor
+     */
+    public abstract ExecutorService create(int threads);
+}
@@ -0,0 +1,90 @@
+package io.github.nnolab.util.taskexe.benchmarks;
+
+import io.github.nnolab.util.taskexe.Task;
+import io.github.nnolab.util.taskexe.TaskExecutor;
+import io.github.nnolab.util.taskexe.TaskExecutorService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of task submission and execution. Every operation submits
+ * a batch of tasks and waits, until all of them are done, so queues of
+ * executors do not grow without bound. Tasks count down the same latch
+ * for every executor, so only submission and lifecycle costs differ.
+ *
+ * @author nnolab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmitBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param
+    private PoolType pool;
+
+    @Param
+    private WrapperType wrapper;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    /**
+     * Work of every task in {@link Blackhole#consumeCPU(long)} tokens,
+     * 0 for empty tasks.
+     */
+    @Param({"0", "100"})
+    private long work;
+
+    private ExecutorService executorService;
+    private TaskExecutor taskExecutor;
+    private CountDownLatch latch;
+    private Runnable runnable;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executorService = pool.create(threads);
+        taskExecutor = wrapper.wrap(executorService);
+        runnable = () -> {
+            if (work > 0) {
+                Blackhole.consumeCPU(work);
+            }
+            latch.countDown();
+        };
+        task = context -> runnable.run();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (taskExecutor instanceof TaskExecutorService) {
+            ((TaskExecutorService) taskExecutor).shutdown();
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void submit() throws InterruptedException {
+        latch = new CountDownLatch(BATCH);
+        if (taskExecutor == null) {
+            for (int i = 0; i < BATCH; i++) {
+                executorService.execute(runnable);
+            }
+        } else {
+            for (int i = 0; i < BATCH; i++) {
+                taskExecutor.execute(task, null);
+            }
+        }
+        latch.await();
+    }
+}
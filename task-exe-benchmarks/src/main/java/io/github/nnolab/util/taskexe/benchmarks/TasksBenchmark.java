@@ -0,0 +1,124 @@
+package io.github.nnolab.util.taskexe.benchmarks;
+
+import io.github.nnolab.util.taskexe.Task;
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.TaskExecutorService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iteration of {@link TaskExecutorService#getTasks()} over service with
+ * specified number of pending tasks. Pending tasks are held by executor
+ * of service and are never run during measurement. In {@code underLoad}
+ * group other threads submit and await short tasks concurrently with
+ * iteration.
+ *
+ * @author nnolab
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TasksBenchmark {
+
+    /**
+     * Executor, which holds submitted runnables, while it is holding,
+     * and passes them to pool otherwise.
+     */
+    private static class HoldingExecutor implements Executor {
+
+        private final ExecutorService pool;
+        private final List<Runnable> held = new ArrayList<>();
+        private volatile boolean holding = true;
+
+        HoldingExecutor(ExecutorService pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (holding) {
+                synchronized (held) {
+                    held.add(command);
+                }
+            } else {
+                pool.execute(command);
+            }
+        }
+
+        void release() {
+            holding = false;
+            synchronized (held) {
+                held.forEach(pool::execute);
+                held.clear();
+            }
+        }
+    }
+
+    @Param({"LINKED", "SEPARATED"})
+    private WrapperType wrapper;
+
+    @Param({"16", "1024", "65536"})
+    private int pending;
+
+    private final Task task = context -> {};
+    private ExecutorService pool;
+    private HoldingExecutor executor;
+    private TaskExecutorService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = PoolType.THREAD_POOL.create(2);
+        executor = new HoldingExecutor(pool);
+        service = (TaskExecutorService) wrapper.wrap(executor);
+        for (int i = 0; i < pending; i++) {
+            service.execute(task, null);
+        }
+        executor.holding = false;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.release();
+        service.shutdown();
+        service.awaitTermination();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private int iterateTasks(Blackhole blackhole) {
+        int count = 0;
+        for (TaskControl control : service.getTasks()) {
+            blackhole.consume(control);
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int iterate(Blackhole blackhole) {
+        return iterateTasks(blackhole);
+    }
+
+    @Benchmark
+    @Group("underLoad")
+    @GroupThreads(1)
+    public int underLoadIterate(Blackhole blackhole) {
+        return iterateTasks(blackhole);
+    }
+
+    @Benchmark
+    @Group("underLoad")
+    @GroupThreads(2)
+    public Object underLoadChurn() throws Exception {
+        return LatencyBenchmark.awaitFinished(service.execute(task, null));
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.nnolab.util.taskexe.benchmarks;
+
+import io.github.nnolab.util.taskexe.TaskExecutor;
+import io.github.nnolab.util.taskexe.impl.executors.ExecutorProxyTaskExecutor;
+import io.github.nnolab.util.taskexe.impl.executors.LinkedTaskExecutorService;
+import io.github.nnolab.util.taskexe.impl.executors.SeparatedTaskExecutorService;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Task executors, benchmarked over raw executors.
+ *
+ * @author nnolab
+ */
+public enum WrapperType {
+
+    /**
+     * No task executor: runnables are passed to raw executor.
+     */
+    NONE {
+        @Override
+        public TaskExecutor wrap(Executor executor) {
+            return null;
+        }
+    },
+
+    PROXY {
+        @Override
+        public TaskExecutor wrap(Executor executor) {
+            return new ExecutorProxyTaskExecutor(executor);
+        }
+    },
+
+    LINKED {
+        @Override
+        public TaskExecutor wrap(Executor executor) {
+            return new LinkedTaskExecutorService(executor);
+        }
+    },
+
+    SEPARATED {
+        @Override
+        public TaskExecutor wrap(Executor executor) {
+            return new SeparatedTaskExecutorService(executor);
+        }
+    };
+
+    /**
+     * Create task executor over specified executor.
+     *
+     * @param executor raw executor
+     * @return new task executor or {@code null} for {@link #NONE}
+     */
+    public abstract TaskExecutor wrap(Executor executor);
+}
@@ -2,23 +2,37 @@ package io.github.nnolab.util.taskexe.impl.executors;
 
 import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
 import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.*;
+import java.util.concurrent.atomic.*;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
 
 /**
  * An abstract {@link TaskExecutorService} with common functional.
+ * <p>Lifecycle of tasks is tracked by atomic counters, updated on every
+ * stage change of {@link InnerTaskControl}, so termination is detected
+ * in constant time without global lock.
+ * Actions are signalled by {@link ActionSignal}.
  *
  * @author nnolab
  */
 public abstract class AbstractTaskExecutorService implements TaskExecutorService {
 
     /**
-     * A {@link TaskControlImpl}, bounded to task executor state.
+     * A {@link AtomicTaskControl}, bounded to task executor state.
+     * Submission is registered by {@link #submitted()} after construction,
+     * so subclass state is initialized when journal sees the control.
      */
-    protected class InnerTaskControl extends TaskControlImpl {
+    protected class InnerTaskControl extends AtomicTaskControl {
+
+        private final TaskExecutorMetrics taskMetrics;
+        private long submittedNanos;
+        private long startedNanos;
 
         /**
          * Create new control with given task, context and executor.
@@ -29,6 +43,52 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
          */
         public InnerTaskControl(Task task, Context context, TaskExecutor executor) {
             super(task, context, executor);
+            taskMetrics = task != null ? metrics : null;
+        }
+
+        /**
+         * Publish {@code PENDING} stage to journal and count submission
+         * in metrics. Invoked once by submitting thread, when control
+         * is completely constructed, before it is visible to other threads.
+         */
+        protected void submitted() {
+            TaskExecutorMetrics m = taskMetrics;
+            if (m != null) {
+                m.taskSubmitted();
+                submittedNanos = System.nanoTime();
+            }
+            TaskEventJournal j = journal;
+            if (j != null) {
+                j.publish(this, PENDING);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>Counters of service are updated, metrics are recorded
+         * and event is published to journal before callbacks are invoked.
+         * Pending task is excluded after its cancellation callbacks.
+         */
+        @Override
+        protected void stageUpdated(TaskStage oldStage, TaskStage newStage) {
+            taskStageUpdated(oldStage, newStage);
+            TaskExecutorMetrics m = taskMetrics;
+            if (m != null) {
+                if (newStage == RUNNING) {
+                    startedNanos = System.nanoTime();
+                    m.taskStarted(startedNanos - submittedNanos);
+                } else if (!newStage.hasAfter()) {
+                    m.taskFinished(newStage, oldStage == RUNNING ? System.nanoTime() - startedNanos : -1L);
+                }
+            }
+            TaskEventJournal j = journal;
+            if (j != null) {
+                j.publish(this, newStage);
+            }
+            super.stageUpdated(oldStage, newStage);
+            if (oldStage == PENDING && newStage == CANCELLED) {
+                pendingTaskCancelled(this);
+            }
         }
 
         /**
@@ -37,13 +97,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
         @Override
         public void cancelTask() {
             super.cancelTask();
-            AbstractTaskExecutorService.this.lock.lock();
-            try {
-                AbstractTaskExecutorService.this.statePoint = new Object();
-                AbstractTaskExecutorService.this.condition.signalAll();
-            } finally {
-                AbstractTaskExecutorService.this.lock.unlock();
-            }
+            signalAction();
         }
     }
 
@@ -69,7 +123,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
         public void add(TaskControl taskControl) {
             int i = end + 1;
             if (i >= taskControls.length) {
-                taskControls = new TaskControl[i + 1];
+                taskControls = Arrays.copyOf(taskControls, i + 1);
             }
             end = i;
             taskControls[i] = taskControl;
@@ -152,7 +206,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
 
     /**
      * A {@link Tasks} implementation that uses chained task controls
-     * to iterate.
+     * to iterate. Removed nodes, still present in chain, are skipped.
      */
     protected static class LinkedTasks implements Iterator<TaskControl>, Tasks {
 
@@ -168,7 +222,20 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
          */
         public LinkedTasks(TaskControlNode zero) {
             cur = zero;
-            next = cur.next;
+            next = firstPresent(cur.next);
+        }
+
+        /**
+         * Skip removed nodes.
+         *
+         * @param node node to start from
+         * @return first not removed node or {@code null}
+         */
+        private static TaskControlNode firstPresent(TaskControlNode node) {
+            while (node != null && node.removed) {
+                node = node.next;
+            }
+            return node;
         }
 
         /**
@@ -176,7 +243,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
          */
         @Override
         public boolean hasNext() {
-            next = cur.next;
+            next = firstPresent(cur.next);
             return next != null;
         }
 
@@ -190,7 +257,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
             }
             TaskControlNode node = next;
             cur = next;
-            next = cur.next;
+            next = firstPresent(cur.next);
             return new TaskControlShell(node);
         }
 
@@ -203,13 +270,376 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
         }
     }
 
-    protected final Lock lock = new ReentrantLock(true);
-    protected final Condition condition = lock.newCondition();
+    protected final ActionSignal signal = new ActionSignal();
 
     protected volatile boolean terminating = false;
     protected volatile boolean terminated = false;
 
-    protected volatile Object statePoint = new Object();
+    private final AtomicInteger unfinishedCount = new AtomicInteger();
+    private final AtomicInteger runningCount = new AtomicInteger();
+    private final AtomicLong finishedCount = new AtomicLong();
+
+    private volatile TaskEventJournal journal;
+    private volatile TaskExecutorMetrics metrics;
+
+    /**
+     * Change point of state and signal to all action waiters.
+     */
+    protected void signalAction() {
+        signal.signal();
+    }
+
+    /**
+     * Register new unfinished task, if service is not shut down.
+     * Every acquired task must be finished or released by
+     * {@link #releaseTask()}.
+     *
+     * @return {@code true} if task is acquired or {@code false}
+     * if service is shut down
+     */
+    protected boolean acquireTask() {
+        return acquireTasks(1);
+    }
+
+    /**
+     * Register specified number of new unfinished tasks at once,
+     * if service is not shut down.
+     *
+     * @param count number of tasks
+     * @return {@code true} if tasks are acquired or {@code false}
+     * if service is shut down
+     * @see #acquireTask()
+     */
+    protected boolean acquireTasks(int count) {
+        unfinishedCount.addAndGet(count);
+        return checkAcquired(count);
+    }
+
+    /**
+     * Register specified number of new unfinished tasks at once,
+     * if service is not shut down and number of unfinished tasks
+     * does not exceed specified limit after registration.
+     * Tasks are registered over limit only if there are no
+     * unfinished tasks, so batch larger than limit is not denied forever.
+     *
+     * @param count number of tasks
+     * @param limit max number of unfinished tasks
+     * @return {@code true} if tasks are acquired or {@code false}
+     * if service is shut down or limit is reached
+     * @see #acquireTasks(int)
+     */
+    protected boolean acquireTasks(int count, int limit) {
+        int unfinished;
+        do {
+            unfinished = unfinishedCount.get();
+            if (unfinished > 0 && unfinished > limit - count) {
+                return false;
+            }
+        } while (!unfinishedCount.compareAndSet(unfinished, unfinished + count));
+        return checkAcquired(count);
+    }
+
+    /**
+     * Check service is not shut down after registration of tasks,
+     * or unregister them otherwise.
+     *
+     * @param count number of registered tasks
+     * @return {@code true} if tasks stay registered
+     */
+    private boolean checkAcquired(int count) {
+        if (terminating || terminated) {
+            if (unfinishedCount.addAndGet(-count) == 0 && terminating && tryTerminate()) {
+                signalAction();
+            }
+            tasksDenied(count);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Count specified number of tasks as denied in attached metrics.
+     * Denial by {@link #acquireTasks(int)} is counted automatically,
+     * implementations count only other denials.
+     *
+     * @param count number of denied tasks
+     */
+    protected void tasksDenied(int count) {
+        TaskExecutorMetrics m = metrics;
+        if (m != null) {
+            m.tasksDenied(count);
+        }
+    }
+
+    /**
+     * Unregister unfinished task and terminate service,
+     * if it was the last task after shutdown.
+     *
+     * @return {@code true} if service became terminated
+     */
+    protected boolean releaseTask() {
+        return unfinishedCount.decrementAndGet() == 0 && terminating && tryTerminate();
+    }
+
+    /**
+     * Release task, excluded from service after run, if it was started,
+     * and signal action, if it was started or service is terminated.
+     * Task, which was not started, is released by its cancellation.
+     *
+     * @param started task was started
+     */
+    protected void taskExcluded(boolean started) {
+        if (started) {
+            releaseTask();
+        }
+        if (started || terminated) {
+            signalAction();
+        }
+    }
+
+    /**
+     * Acquire task, lending context to it by specified factory,
+     * if task has no context.
+     *
+     * @param task           task
+     * @param context        context of task, may be {@code null}
+     * @param contextFactory factory of contexts, may be {@code null}
+     * @return context of task: specified one or lent
+     * @throws DeniedExecutionException if service is shut down,
+     *                                  lent context is reclaimed then
+     * @see #acquireTask()
+     */
+    protected Context acquireTask(Task task, Context context, TaskContextFactory contextFactory) {
+        boolean lent = isLent(context, contextFactory);
+        Context taskContext = lendContext(task, context, contextFactory);
+        if (!acquireTask()) {
+            reclaimContext(task, taskContext, contextFactory, lent);
+            throw new DeniedExecutionException();
+        }
+        return taskContext;
+    }
+
+    /**
+     * Check, if context for task with specified context
+     * is lent by specified factory.
+     *
+     * @param context        context of task, may be {@code null}
+     * @param contextFactory factory of contexts, may be {@code null}
+     * @return {@code true} if task has no context and there is factory
+     */
+    protected static boolean isLent(Context context, TaskContextFactory contextFactory) {
+        return context == null && contextFactory != null;
+    }
+
+    /**
+     * Lend context for task by specified factory, if task has no context.
+     *
+     * @param task           task
+     * @param context        context of task, may be {@code null}
+     * @param contextFactory factory of contexts, may be {@code null}
+     * @return context of task: specified one or lent
+     * @see #isLent(Context, TaskContextFactory)
+     */
+    protected static Context lendContext(Task task, Context context, TaskContextFactory contextFactory) {
+        return isLent(context, contextFactory) ? contextFactory.lendContext(task) : context;
+    }
+
+    /**
+     * Reclaim context of task to specified factory, if it was lent.
+     *
+     * @param task           task
+     * @param context        context of task
+     * @param contextFactory factory, which lent context
+     * @param lent           context was lent
+     */
+    protected static void reclaimContext(Task task, Context context, TaskContextFactory contextFactory, boolean lent) {
+        if (lent) {
+            contextFactory.reclaimContext(task, context);
+        }
+    }
+
+    /**
+     * Execute task of started control by current thread.
+     * Stage of control is not updated, so implementations may
+     * do their own actions before update. Cause of failure is set
+     * to control, and {@link ThreadDeath} must be rethrown by
+     * {@link #rethrowThreadDeath(InnerTaskControl)} after task
+     * is excluded from service.
+     *
+     * @param taskControl control of running task
+     * @return {@code CANCELLED} if interruptable task was interrupted,
+     * {@code FAILED} if task threw exception or {@code COMPLETE} otherwise
+     */
+    protected static TaskStage executeTask(InnerTaskControl taskControl) {
+        Task task = taskControl.getTask();
+        try {
+            //---------------------
+            task.execute(taskControl.getContext());
+            //---------------------
+        } catch (Throwable e) {
+            taskControl.setFailureCause(e);
+            return FAILED;
+        }
+        if ((task instanceof InterruptableTask)
+                && ((InterruptableTask) task).isInterrupted()) {
+            return CANCELLED;
+        }
+        return COMPLETE;
+    }
+
+    /**
+     * Rethrow {@link ThreadDeath}, if task failed with it.
+     *
+     * @param taskControl control of excluded task
+     * @see #executeTask(InnerTaskControl)
+     */
+    protected static void rethrowThreadDeath(InnerTaskControl taskControl) {
+        Throwable cause = taskControl.getFailureCause();
+        if (cause instanceof ThreadDeath) {
+            throw (ThreadDeath) cause;
+        }
+    }
+
+    /**
+     * Update counters of tasks, when stage of inner task control is updated.
+     * Task, cancelled before start, is released at once, because it may be
+     * never taken for execution. Started task must be released by
+     * implementation, when it is excluded from service.
+     *
+     * @param oldStage previous task stage
+     * @param newStage new task stage
+     */
+    private void taskStageUpdated(TaskControl.TaskStage oldStage, TaskControl.TaskStage newStage) {
+        if (newStage == RUNNING) {
+            runningCount.incrementAndGet();
+        } else if (oldStage == RUNNING) {
+            runningCount.decrementAndGet();
+        }
+        if (oldStage.hasAfter() && !newStage.hasAfter()) {
+            finishedCount.incrementAndGet();
+            if (oldStage == PENDING) {
+                releaseTask();
+            }
+        }
+    }
+
+    /**
+     * Do special actions, when pending task is cancelled before start.
+     * Invoked by thread, which cancelled task, after counters are updated,
+     * event is published to journal and callbacks are invoked.
+     *
+     * @param taskControl control of cancelled task
+     */
+    protected void pendingTaskCancelled(InnerTaskControl taskControl) {
+    }
+
+    /**
+     * Start shutdown of service and terminate it, if there are
+     * no unfinished tasks.
+     *
+     * @return {@code false} if service is already terminated
+     * or {@code true} otherwise
+     */
+    protected synchronized boolean startShutdown() {
+        if (terminated) {
+            return false;
+        }
+        terminating = true;
+        tryTerminate();
+        return true;
+    }
+
+    /**
+     * Terminate service, if shutdown is requested and there are no unfinished tasks.
+     *
+     * @return {@code true} if service became terminated
+     */
+    protected synchronized boolean tryTerminate() {
+        if (!terminating || unfinishedCount.get() != 0) {
+            return false;
+        }
+        terminated = true;
+        terminating = false;
+        onTermination();
+        return true;
+    }
+
+    /**
+     * Do special actions, when service becomes terminated.
+     * Invoked once, while holding monitor of service.
+     */
+    protected void onTermination() {
+    }
+
+    /**
+     * Attach journal of task lifecycle events to service.
+     * Tasks, submitted after that, publish their submission and
+     * every stage update to journal.
+     * Unlike {@link #awaitAction(Object)}, journal lets monitors
+     * read what happened since their last read, without
+     * inspection of all tasks.
+     *
+     * @param journal journal or {@code null} to detach journal
+     */
+    public void setEventJournal(TaskEventJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Get attached journal of task lifecycle events.
+     *
+     * @return journal or {@code null}
+     */
+    public TaskEventJournal getEventJournal() {
+        return journal;
+    }
+
+    /**
+     * Attach metrics of task execution to service.
+     * Tasks, submitted after that, are counted and timed.
+     *
+     * @param metrics metrics or {@code null} to detach metrics
+     */
+    public void setMetrics(TaskExecutorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get attached metrics of task execution.
+     *
+     * @return metrics or {@code null}
+     */
+    public TaskExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get number of pending tasks, accepted by service.
+     *
+     * @return number of pending tasks
+     */
+    public int getPendingTaskCount() {
+        return Math.max(unfinishedCount.get() - runningCount.get(), 0);
+    }
+
+    /**
+     * Get number of running tasks.
+     *
+     * @return number of running tasks
+     */
+    public int getRunningTaskCount() {
+        return runningCount.get();
+    }
+
+    /**
+     * Get number of tasks, which reached final stage
+     * (complete, failed or cancelled) since service creation.
+     *
+     * @return number of finished tasks
+     */
+    public long getFinishedTaskCount() {
+        return finishedCount.get();
+    }
 
     /**
      * {@inheritDoc}
@@ -232,14 +662,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
      */
     @Override
     public void awaitTermination() throws InterruptedException {
-        lock.lock();
-        try {
-            while (!terminated) {
-                condition.await();
-            }
-        } finally {
-            lock.unlock();
-        }
+        signal.awaitCondition(this::isTerminated);
     }
 
     /**
@@ -258,22 +681,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
         if (timeout < 0) {
             throw new IllegalArgumentException("Invalid timeout: " + timeout);
         }
-        lock.lock();
-        try {
-            long nanosTimeout = unit.toNanos(timeout);
-            if (nanosTimeout < 0) {
-                nanosTimeout = Long.MAX_VALUE;
-            }
-            while (!terminated) {
-                if (nanosTimeout <= 0) {
-                    return false;
-                }
-                nanosTimeout = condition.awaitNanos(nanosTimeout);
-            }
-            return true;
-        } finally {
-            lock.unlock();
-        }
+        return signal.awaitCondition(this::isTerminated, timeout, unit);
     }
 
     /**
@@ -281,15 +689,7 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
      */
     @Override
     public Object awaitAction(Object statePoint) throws InterruptedException {
-        lock.lock();
-        try {
-            while (statePoint == this.statePoint) {
-                condition.await();
-            }
-            return this.statePoint;
-        } finally {
-            lock.unlock();
-        }
+        return signal.await(statePoint);
     }
 
     /**
@@ -308,18 +708,6 @@ public abstract class AbstractTaskExecutorService implements TaskExecutorService
         if (timeout < 0) {
             throw new IllegalArgumentException("Invalid timeout: " + timeout);
         }
-        lock.lock();
-        try {
-            long nanosTimeout = unit.toNanos(timeout);
-            if (nanosTimeout < 0) {
-                nanosTimeout = Long.MAX_VALUE;
-            }
-            while (statePoint == this.statePoint && nanosTimeout > 0) {
-                nanosTimeout = condition.awaitNanos(nanosTimeout);
-            }
-            return this.statePoint;
-        } finally {
-            lock.unlock();
-        }
+        return signal.await(statePoint, timeout, unit);
     }
 }
@@ -0,0 +1,228 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Point of state, changed on every action in task executor service,
+ * with waiting for change.
+ * Signalling takes no lock, allocates nothing and touches no waiters,
+ * unless somebody waits for change, so it is cheap on hot paths of task
+ * submission and execution. New point of state is allocated only when
+ * it is read after change. Waiters are parked in stack by {@link LockSupport},
+ * without monitors, so waiting virtual threads do not pin their carriers.
+ * Used for implementation of {@link io.github.nnolab.util.taskexe.TaskExecutorService#awaitAction(Object)}
+ * and {@link io.github.nnolab.util.taskexe.TaskExecutorService#awaitTermination()}.
+ *
+ * @author nnolab
+ */
+public class ActionSignal {
+
+    /**
+     * Node of stack of parked waiters.
+     */
+    private static final class Waiter {
+
+        volatile Thread thread;
+        Waiter next;
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * Shared point of state, which was not read since the last change.
+     * It is never returned by {@link #getStatePoint()}.
+     */
+    private static final Object UNOBSERVED = new Object();
+
+    private static final AtomicReferenceFieldUpdater<ActionSignal, Object> STATE_POINT =
+            AtomicReferenceFieldUpdater.newUpdater(ActionSignal.class, Object.class, "statePoint");
+
+    private final AtomicReference<Waiter> waiters = new AtomicReference<>();
+
+    private volatile Object statePoint = UNOBSERVED;
+
+    /**
+     * Get actual point of state.
+     *
+     * @return actual point of state, never {@code null}
+     */
+    public Object getStatePoint() {
+        while (true) {
+            Object sp = statePoint;
+            if (sp != UNOBSERVED) {
+                return sp;
+            }
+            Object observed = new Object();
+            if (STATE_POINT.compareAndSet(this, UNOBSERVED, observed)) {
+                return observed;
+            }
+        }
+    }
+
+    /**
+     * Change point of state and wake up all waiters, if there are any.
+     */
+    public void signal() {
+        if (statePoint != UNOBSERVED) {
+            statePoint = UNOBSERVED;
+        }
+        if (waiters.get() == null) {
+            return;
+        }
+        Waiter waiter = waiters.getAndSet(null);
+        while (waiter != null) {
+            Thread thread = waiter.thread;
+            if (thread != null) {
+                waiter.thread = null;
+                LockSupport.unpark(thread);
+            }
+            waiter = waiter.next;
+        }
+    }
+
+    /**
+     * Wait, while actual point of state is the specified one.
+     *
+     * @param statePoint expected point of state
+     * @return actual point of state
+     * @throws InterruptedException if current thread interrupted
+     */
+    public Object await(Object statePoint) throws InterruptedException {
+        return await(statePoint, -1L);
+    }
+
+    /**
+     * Wait for specified timeout, while actual point of state
+     * is the specified one.
+     *
+     * @param statePoint expected point of state
+     * @param timeout    timeout to wait
+     * @param unit       unit of timeout
+     * @return actual point of state
+     * @throws NullPointerException if specified time unit is {@code null}
+     * @throws InterruptedException if current thread interrupted
+     */
+    public Object await(Object statePoint, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanosTimeout = unit.toNanos(timeout);
+        if (nanosTimeout <= 0) {
+            return getStatePoint();
+        }
+        return await(statePoint, nanosTimeout);
+    }
+
+    /**
+     * Wait, while actual point of state is the specified one.
+     *
+     * @param statePoint   expected point of state
+     * @param nanosTimeout positive timeout in nanoseconds or negative
+     *                     for infinite waiting
+     * @return actual point of state
+     * @throws InterruptedException if current thread interrupted
+     */
+    private Object await(Object statePoint, long nanosTimeout) throws InterruptedException {
+        long deadline = nanosTimeout > 0 ? System.nanoTime() + nanosTimeout : 0L;
+        Waiter waiter = null;
+        try {
+            while (statePoint == this.statePoint) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (waiter == null || waiter.thread == null) {
+                    waiter = new Waiter(Thread.currentThread());
+                    pushWaiter(waiter);
+                    continue;
+                }
+                if (nanosTimeout < 0) {
+                    LockSupport.park(this);
+                } else {
+                    long nanos = deadline - System.nanoTime();
+                    if (nanos <= 0) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, nanos);
+                }
+            }
+        } finally {
+            if (waiter != null) {
+                waiter.thread = null;
+            }
+        }
+        return getStatePoint();
+    }
+
+    /**
+     * Push waiter to stack, unlinking waiters on top of stack,
+     * which stopped waiting before signal.
+     *
+     * @param waiter new waiter
+     */
+    private void pushWaiter(Waiter waiter) {
+        while (true) {
+            Waiter top = waiters.get();
+            if (top != null && top.thread == null) {
+                waiters.compareAndSet(top, top.next);
+                continue;
+            }
+            waiter.next = top;
+            if (waiters.compareAndSet(top, waiter)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wait until specified condition becomes true.
+     * Every change of condition must be followed by {@link #signal()}.
+     *
+     * @param condition condition to wait for
+     * @throws InterruptedException if current thread interrupted
+     */
+    public void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Object sp = getStatePoint();
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            await(sp);
+        }
+    }
+
+    /**
+     * Wait for specified timeout until specified condition becomes true.
+     * Every change of condition must be followed by {@link #signal()}.
+     *
+     * @param condition condition to wait for
+     * @param timeout   timeout to wait
+     * @param unit      unit of timeout
+     * @return {@code true} if condition became true
+     * or {@code false} if timeout elapsed
+     * @throws NullPointerException if specified time unit is {@code null}
+     * @throws InterruptedException if current thread interrupted
+     */
+    public boolean awaitCondition(BooleanSupplier condition, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long nanosTimeout = unit.toNanos(timeout);
+        if (nanosTimeout < 0) {
+            nanosTimeout = Long.MAX_VALUE;
+        }
+        long deadline = System.nanoTime() + nanosTimeout;
+        while (!condition.getAsBoolean()) {
+            Object sp = getStatePoint();
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            if (nanosTimeout <= 0) {
+                return false;
+            }
+            await(sp, nanosTimeout, TimeUnit.NANOSECONDS);
+            nanosTimeout = deadline - System.nanoTime();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit of tasks, which are allowed to run at once.
+ * Limit follows run time of tasks by gradient algorithm:
+ * long-term average of run time is compared with the latest one,
+ * and while they are close, limit grows by square root of itself,
+ * and when run time grows, because tasks start to compete for
+ * something, limit shrinks in proportion. So limit settles near
+ * concurrency, which tasks can take without queueing downstream.
+ * <p>Only run times of completed tasks are sampled, and limit
+ * does not grow, while less than half of it is used.
+ * Long-term average decays, when run time drops, so limit
+ * follows downstream, which became faster.
+ * <p>Limit is attached to service by
+ * {@link ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(java.util.concurrent.Executor,
+ * boolean, io.github.nnolab.util.taskexe.TaskContextFactory, TaskLimit, AdaptiveConcurrencyLimit)}.
+ * One instance may be shared by several services to guard common downstream.
+ *
+ * @author nnolab
+ */
+public class AdaptiveConcurrencyLimit {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+    private static final double DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double longRunTime;
+    private long sampleCount;
+
+    /**
+     * Create limit with specified initial value and bounds.
+     * Limit with equal bounds does not adapt.
+     *
+     * @param initialLimit initial limit
+     * @param minLimit     the least limit
+     * @param maxLimit     the greatest limit
+     * @throws IllegalArgumentException if min limit is not positive or
+     *                                  initial limit is out of bounds
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limit: " + initialLimit
+                    + " of [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Create limit with default initial value and bounds
+     * from 1 to {@value #DEFAULT_MAX_LIMIT}.
+     *
+     * @see #AdaptiveConcurrencyLimit(int, int, int)
+     */
+    public AdaptiveConcurrencyLimit() {
+        this(DEFAULT_INITIAL_LIMIT, 1, DEFAULT_MAX_LIMIT);
+    }
+
+    /**
+     * Get current limit.
+     *
+     * @return max number of tasks, allowed to run at once
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get number of tasks, allowed to run and not finished yet.
+     *
+     * @return number of tasks
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Take permit to run task, if limit is not reached.
+     *
+     * @return {@code true} if permit is taken
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Return permit of task, which did not complete.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Return permit of completed task and adapt limit to its run time.
+     *
+     * @param runNanos run time of task
+     */
+    void release(long runNanos) {
+        sample(Math.max(runNanos, 1L), inFlight.get());
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void sample(long runNanos, int running) {
+        if (minLimit == maxLimit) {
+            return;
+        }
+        sampleCount++;
+        longRunTime += (runNanos - longRunTime) / Math.min(sampleCount, LONG_WINDOW);
+        if (longRunTime > 2 * runNanos) {
+            longRunTime *= DECAY;
+        }
+        if (running < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRunTime / runNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
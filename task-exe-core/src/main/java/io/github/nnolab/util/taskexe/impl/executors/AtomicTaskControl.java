@@ -0,0 +1,320 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Lightweight implementation of {@link TaskControl}.
+ * Task stage is updated by CAS, without lock.
+ * Threads, waiting for next stage, are parked in stack of waiters,
+ * created lazily by {@link #awaitNextStage(TaskStage)}, so control
+ * without waiters takes no additional objects and update of its stage
+ * takes no more than single CAS.
+ * <p>Callbacks of {@link #onStage(TaskStage, Consumer)} are held the same way:
+ * holder of callbacks is created by the first registration.
+ *
+ * @author nnolab
+ */
+public class AtomicTaskControl implements TaskControl {
+
+    /**
+     * Node of Treiber stack of parked waiters.
+     */
+    private static final class Waiter {
+
+        volatile Thread thread;
+        Waiter next;
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<AtomicTaskControl, TaskStage> STAGE =
+            AtomicReferenceFieldUpdater.newUpdater(AtomicTaskControl.class, TaskStage.class, "taskStage");
+
+    private static final AtomicReferenceFieldUpdater<AtomicTaskControl, Waiter> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(AtomicTaskControl.class, Waiter.class, "waiters");
+
+    private static final AtomicReferenceFieldUpdater<AtomicTaskControl, StageCallbacks> CALLBACKS =
+            AtomicReferenceFieldUpdater.newUpdater(AtomicTaskControl.class, StageCallbacks.class, "callbacks");
+
+    protected final Task task;
+    protected final Context context;
+    protected final TaskExecutor executor;
+
+    protected volatile TaskStage taskStage;
+    protected volatile Throwable failureCause;
+
+    private volatile Waiter waiters;
+    private volatile StageCallbacks callbacks;
+
+    /**
+     * Create new control with given task, context and executor.
+     *
+     * @param task     task
+     * @param context  context
+     * @param executor executor
+     */
+    public AtomicTaskControl(Task task, Context context, TaskExecutor executor) {
+        this.task = task;
+        this.context = context;
+        this.executor = executor;
+        taskStage = TaskStage.PENDING;
+    }
+
+    private void checkStage(TaskStage taskStage) throws UselessWaitingException {
+        if (!taskStage.hasAfter()) {
+            throw new UselessWaitingException(taskStage);
+        }
+    }
+
+    /**
+     * Update task stage, setting specified stage, wake up
+     * all stage change waiters and invoke callbacks of new stage.
+     *
+     * @param newStage new task stage
+     */
+    public void updateTaskStage(TaskStage newStage) {
+        TaskStage oldStage = STAGE.getAndSet(this, newStage);
+        stageUpdated(oldStage, newStage);
+    }
+
+    /**
+     * If current stage is such as specified, update task stage,
+     * setting specified stage, wake up all stage change waiters,
+     * invoke callbacks of new stage and return {@code true}.
+     * Otherwise return {@code false}.
+     *
+     * @param expectedStage expected current task stage
+     * @param newStage      new task stage
+     * @return {@code true} if current stage is expected, or {@code false} otherwise
+     */
+    public boolean tryUpdateTaskStage(TaskStage expectedStage, TaskStage newStage) {
+        if (STAGE.compareAndSet(this, expectedStage, newStage)) {
+            stageUpdated(expectedStage, newStage);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Notify waiters and callbacks of stage update. Subclasses may
+     * override it to track stages, invoking super method at the end,
+     * so callbacks observe state, updated by subclass.
+     *
+     * @param oldStage previous task stage
+     * @param newStage new task stage
+     */
+    protected void stageUpdated(TaskStage oldStage, TaskStage newStage) {
+        releaseWaiters();
+        StageCallbacks c = callbacks;
+        if (c != null) {
+            c.fire(this, newStage);
+        }
+    }
+
+    /**
+     * Take all waiters from stack and unpark them.
+     */
+    private void releaseWaiters() {
+        if (waiters == null) {
+            return;
+        }
+        Waiter waiter = WAITERS.getAndSet(this, null);
+        while (waiter != null) {
+            Thread thread = waiter.thread;
+            if (thread != null) {
+                waiter.thread = null;
+                LockSupport.unpark(thread);
+            }
+            waiter = waiter.next;
+        }
+    }
+
+    /**
+     * Push waiter to stack, dropping abandoned waiters from its top.
+     *
+     * @param waiter waiter
+     */
+    private void pushWaiter(Waiter waiter) {
+        while (true) {
+            Waiter top = waiters;
+            if (top != null && top.thread == null) {
+                WAITERS.compareAndSet(this, top, top.next);
+                continue;
+            }
+            waiter.next = top;
+            if (WAITERS.compareAndSet(this, top, waiter)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wait until task stage becomes after specified one.
+     *
+     * @param startStage   start stage
+     * @param nanosTimeout timeout in nanoseconds, negative for infinite waiting
+     * @return current task stage
+     * @throws InterruptedException if current thread was interrupted
+     */
+    private TaskStage awaitAfter(TaskStage startStage, long nanosTimeout) throws InterruptedException {
+        TaskStage stage = taskStage;
+        if (stage.isAfter(startStage) || nanosTimeout == 0) {
+            return stage;
+        }
+        long deadline = nanosTimeout > 0 ? System.nanoTime() + nanosTimeout : 0L;
+        Waiter waiter = null;
+        try {
+            while (true) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                stage = taskStage;
+                if (stage.isAfter(startStage)) {
+                    return stage;
+                }
+                if (waiter == null || waiter.thread == null) {
+                    waiter = new Waiter(Thread.currentThread());
+                    pushWaiter(waiter);
+                    continue;
+                }
+                if (nanosTimeout < 0) {
+                    LockSupport.park(this);
+                } else {
+                    long nanos = deadline - System.nanoTime();
+                    if (nanos <= 0) {
+                        return taskStage;
+                    }
+                    LockSupport.parkNanos(this, nanos);
+                }
+            }
+        } finally {
+            if (waiter != null) {
+                waiter.thread = null;
+            }
+        }
+    }
+
+    /**
+     * Set given {@link Throwable} as cause of task failure.
+     *
+     * @param failureCause cause of task failure
+     */
+    public void setFailureCause(Throwable failureCause) {
+        this.failureCause = failureCause;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Context getContext() {
+        return context;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskStage getTaskStage() {
+        return taskStage;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Throwable getFailureCause() {
+        return failureCause;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskStage awaitNextStage(TaskStage startStage)
+            throws UselessWaitingException, InterruptedException {
+        checkStage(startStage);
+        return awaitAfter(startStage, -1L);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskStage awaitNextStage(TaskStage startStage, long timeout)
+            throws UselessWaitingException, InterruptedException {
+        return awaitNextStage(startStage, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskStage awaitNextStage(TaskStage startStage, long timeout, TimeUnit unit)
+            throws UselessWaitingException, InterruptedException {
+        checkStage(startStage);
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Invalid timeout: " + timeout);
+        }
+        long nanosTimeout = unit.toNanos(timeout);
+        return awaitAfter(startStage, nanosTimeout < 0 ? -1L : nanosTimeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStage(TaskStage stage, Consumer<TaskControl> callback) {
+        Objects.requireNonNull(stage);
+        Objects.requireNonNull(callback);
+        StageCallbacks c = callbacks;
+        if (c == null) {
+            if (!taskStage.hasAfter()) {
+                if (taskStage == stage) {
+                    StageCallbacks.invoke(callback, this);
+                }
+                return;
+            }
+            CALLBACKS.compareAndSet(this, null, new StageCallbacks());
+            c = callbacks;
+        }
+        c.add(this, stage, callback);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelTask() {
+        if (!tryUpdateTaskStage(TaskStage.PENDING, TaskStage.CANCELLED)
+                && (task instanceof InterruptableTask)) {
+            ((InterruptableTask) task).interrupt();
+        }
+    }
+}
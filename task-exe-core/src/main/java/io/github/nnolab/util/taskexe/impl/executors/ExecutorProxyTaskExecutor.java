@@ -16,6 +16,21 @@ import java.util.concurrent.Executor;
 public class ExecutorProxyTaskExecutor implements TaskExecutor {
 
     private final Executor executor;
+    private final TaskContextFactory contextFactory;
+
+    /**
+     * Create task executor with given proxy executor and
+     * context factory for tasks, submitted without context.
+     *
+     * @param executor       proxy executor
+     * @param contextFactory factory of contexts for tasks without context,
+     *                       may be {@code null}
+     * @throws NullPointerException if specified executor is {@code null}
+     */
+    public ExecutorProxyTaskExecutor(Executor executor, TaskContextFactory contextFactory) {
+        this.executor = Objects.requireNonNull(executor);
+        this.contextFactory = contextFactory;
+    }
 
     /**
      * Create task executor with given proxy executor.
@@ -24,7 +39,7 @@ public class ExecutorProxyTaskExecutor implements TaskExecutor {
      * @throws NullPointerException if specified executor is {@code null}
      */
     public ExecutorProxyTaskExecutor(Executor executor) {
-        this.executor = Objects.requireNonNull(executor);
+        this(executor, null);
     }
 
     /**
@@ -32,28 +47,45 @@ public class ExecutorProxyTaskExecutor implements TaskExecutor {
      */
     @Override
     public TaskControl execute(Task task, Context context) {
-        TaskControlImpl taskControl = new TaskControlImpl(task, context, this);
-        executor.execute(() -> {
-            if (taskControl.tryUpdateTaskStage(TaskControl.TaskStage.PENDING, TaskControl.TaskStage.RUNNING)) {
-                try {
-                    //---------------------
-                    task.execute(context);
-                    //---------------------
-                    if ((task instanceof InterruptableTask)
-                            && ((InterruptableTask) task).isInterrupted()) {
-                        taskControl.updateTaskStage(TaskControl.TaskStage.CANCELLED);
-                    } else {
-                        taskControl.updateTaskStage(TaskControl.TaskStage.COMPLETE);
-                    }
-                } catch (Throwable e) {
-                    taskControl.setFailureCause(e);
-                    taskControl.updateTaskStage(TaskControl.TaskStage.FAILED);
-                    if (e instanceof ThreadDeath) {
-                        throw (ThreadDeath) e;
+        boolean lent = context == null && contextFactory != null;
+        Context taskContext = lent ? contextFactory.lendContext(task) : context;
+        AtomicTaskControl taskControl = new AtomicTaskControl(task, taskContext, this);
+        boolean error = true;
+        try {
+            executor.execute(() -> {
+                ThreadDeath td = null;
+                if (taskControl.tryUpdateTaskStage(TaskControl.TaskStage.PENDING, TaskControl.TaskStage.RUNNING)) {
+                    try {
+                        //---------------------
+                        task.execute(taskContext);
+                        //---------------------
+                        if ((task instanceof InterruptableTask)
+                                && ((InterruptableTask) task).isInterrupted()) {
+                            taskControl.updateTaskStage(TaskControl.TaskStage.CANCELLED);
+                        } else {
+                            taskControl.updateTaskStage(TaskControl.TaskStage.COMPLETE);
+                        }
+                    } catch (Throwable e) {
+                        taskControl.setFailureCause(e);
+                        taskControl.updateTaskStage(TaskControl.TaskStage.FAILED);
+                        if (e instanceof ThreadDeath) {
+                            td = (ThreadDeath) e;
+                        }
                     }
                 }
+                if (lent) {
+                    contextFactory.reclaimContext(task, taskContext);
+                }
+                if (td != null) {
+                    throw td;
+                }
+            });
+            error = false;
+        } finally {
+            if (error && lent) {
+                contextFactory.reclaimContext(task, taskContext);
             }
-        });
+        }
         return new TaskControlShell(taskControl);
     }
 }
@@ -4,15 +4,29 @@ import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.*;
 import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
 import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import io.github.nnolab.util.taskexe.exceptions.SaturatedExecutionException;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.function.Function;
 
 import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
 
 /**
  * A {@link TaskExecutorService} that wraps submitted task in {@link Runnable}
  * and delegates execution to inner {@link Executor}.
+ * <p>Submission and execution of tasks take no global lock:
+ * registry of task controls must be thread-safe, and lifecycle
+ * is tracked by counters of {@link AbstractTaskExecutorService}.
+ * <p>Number of unfinished tasks may be bounded by {@link TaskLimit}:
+ * its policy decides, what happens to submission, when limit is reached.
+ * <p>Number of running tasks may be bounded by {@link AdaptiveConcurrencyLimit}:
+ * tasks over limit stay {@code PENDING} in service and are passed to executor,
+ * when running tasks finish. Tasks, run by submitting thread because of
+ * {@link TaskLimit.Policy#CALLER_RUNS} policy, are not limited.
  *
  * @author nnolab
  */
@@ -20,6 +34,71 @@ public abstract class ExecutorProxyTaskExecutorService extends AbstractTaskExecu
 
     protected final Executor executor;
     protected final boolean tryShutdownExecutor;
+    protected final TaskContextFactory contextFactory;
+    protected final TaskLimit taskLimit;
+    protected final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    /**
+     * Task, waiting for permit of concurrency limit.
+     * Task is owned by the thread, which removes it from
+     * {@link #gatedTasks}, entry in {@link #gate} is skipped,
+     * if task is already removed.
+     */
+    private static final class GatedTask {
+
+        final InnerTaskControl taskControl;
+        final boolean lent;
+
+        GatedTask(InnerTaskControl taskControl, boolean lent) {
+            this.taskControl = taskControl;
+            this.lent = lent;
+        }
+    }
+
+    private final Queue<GatedTask> gate = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<InnerTaskControl, GatedTask> gatedTasks = new ConcurrentHashMap<>();
+    private volatile boolean cancellingAll;
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation, specified limit of unfinished tasks
+     * and adaptive limit of running tasks.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @param taskLimit           limit of unfinished tasks
+     * @param concurrencyLimit    limit of running tasks, may be {@code null}
+     * @throws NullPointerException if specified executor or task limit is {@code null}
+     * @see #ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory)
+     */
+    public ExecutorProxyTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                            TaskContextFactory contextFactory, TaskLimit taskLimit,
+                                            AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.executor = Objects.requireNonNull(executor);
+        this.tryShutdownExecutor = tryShutdownExecutor;
+        this.contextFactory = contextFactory;
+        this.taskLimit = Objects.requireNonNull(taskLimit);
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation and specified limit of unfinished tasks.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @param taskLimit           limit of unfinished tasks
+     * @throws NullPointerException if specified executor or task limit is {@code null}
+     * @see #ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory)
+     */
+    public ExecutorProxyTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                            TaskContextFactory contextFactory, TaskLimit taskLimit) {
+        this(executor, tryShutdownExecutor, contextFactory, taskLimit, null);
+    }
 
     /**
      * Create task executor service with specified {@link Executor}
@@ -30,14 +109,31 @@ public abstract class ExecutorProxyTaskExecutorService extends AbstractTaskExecu
      * at invocation of {@link #shutdown()} and
      * {@link ExecutorService#shutdownNow()} will be invoked
      * at invocation of {@link #shutdownNow()}
+     * <p>If context factory is specified, tasks, submitted without context,
+     * get context from it, and context is returned back, when task is finished.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @throws NullPointerException if specified executor is {@code null}
+     */
+    public ExecutorProxyTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                            TaskContextFactory contextFactory) {
+        this(executor, tryShutdownExecutor, contextFactory, TaskLimit.UNBOUNDED);
+    }
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation and without context factory.
      *
      * @param executor            executor to delegate tasks execution
      * @param tryShutdownExecutor shutdown executor flag
      * @throws NullPointerException if specified executor is {@code null}
+     * @see #ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory)
      */
     public ExecutorProxyTaskExecutorService(Executor executor, boolean tryShutdownExecutor) {
-        this.executor = Objects.requireNonNull(executor);
-        this.tryShutdownExecutor = tryShutdownExecutor;
+        this(executor, tryShutdownExecutor, null);
     }
 
     /**
@@ -53,7 +149,9 @@ public abstract class ExecutorProxyTaskExecutorService extends AbstractTaskExecu
 
     /**
      * Create new {@link InnerTaskControl} with given task and
-     * context and add it to submitted tasks set.
+     * context and add it to submitted tasks set. Control must be
+     * {@link InnerTaskControl#submitted() submitted} before it is added.
+     * May be invoked concurrently.
      *
      * @param task    task to execute
      * @param context context for execution
@@ -63,7 +161,7 @@ public abstract class ExecutorProxyTaskExecutorService extends AbstractTaskExecu
 
     /**
      * Do special actions with specified task control, when task
-     * is terminated.
+     * is terminated. May be invoked concurrently.
      *
      * @param taskControl task control to utilize
      */
@@ -75,110 +173,408 @@ public abstract class ExecutorProxyTaskExecutorService extends AbstractTaskExecu
     protected abstract void cancelAllPendingTasks();
 
     /**
-     * Check all tasks are complete, failed or cancelled.
+     * Find the oldest pending task to cancel by {@link TaskLimit.Policy#DISCARD_OLDEST}
+     * policy. By default there is no such task.
+     * May be invoked concurrently.
      *
-     * @return {@code true}, if all tasks finished or {@code false}
+     * @return control of pending task or {@code null}
      */
-    protected abstract boolean checkAllTasksFinished();
+    protected InnerTaskControl findOldestPendingTask() {
+        return null;
+    }
+
+    /**
+     * Get limit of unfinished tasks.
+     *
+     * @return task limit
+     */
+    public TaskLimit getTaskLimit() {
+        return taskLimit;
+    }
+
+    /**
+     * Get adaptive limit of running tasks.
+     *
+     * @return concurrency limit or {@code null}
+     */
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Create new {@link InnerTaskControl}s with given tasks and
+     * contexts and add them to submitted tasks set.
+     * By default {@link #createTaskControl(Task, Context)}
+     * is invoked for every task.
+     * May be invoked concurrently.
+     *
+     * @param tasks    tasks to execute
+     * @param contexts contexts for execution, in order of tasks
+     * @return new task controls, in order of tasks
+     */
+    protected InnerTaskControl[] createTaskControls(Task[] tasks, Context[] contexts) {
+        InnerTaskControl[] taskControls = new InnerTaskControl[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            taskControls[i] = createTaskControl(tasks[i], contexts[i]);
+        }
+        return taskControls;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
     public TaskControl execute(Task task, Context context) {
-        InnerTaskControl taskControl;
-        lock.lock();
+        return submit(task, context, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Policy of task limit is not applied.
+     */
+    @Override
+    public Optional<TaskControl> tryExecute(Task task, Context context) {
+        return Optional.ofNullable(submit(task, context, true));
+    }
+
+    /**
+     * Submit task, applying policy of task limit, if it is reached
+     * and submission is not trying.
+     *
+     * @param task    task to be executed
+     * @param context context for task
+     * @param trying  {@code true} to return {@code null} instead of policy applying
+     * @return control over task execution or {@code null} if trying submission failed
+     */
+    private TaskControl submit(Task task, Context context, boolean trying) {
+        Objects.requireNonNull(task);
+        boolean lent = isLent(context, contextFactory);
+        Context taskContext = lendContext(task, context, contextFactory);
+        boolean callerRuns = false;
+        boolean admitted = false;
         try {
-            if (terminating || terminated) {
-                throw new DeniedExecutionException();
+            callerRuns = admit(1, trying);
+            admitted = true;
+        } catch (SaturatedExecutionException e) {
+            if (!trying) {
+                throw e;
             }
-            taskControl = createTaskControl(task, context);
-            statePoint = new Object();
-            condition.signalAll();
         } finally {
-            lock.unlock();
+            if (!admitted) {
+                reclaimContext(task, taskContext, contextFactory, lent);
+            }
         }
-        boolean error = true;
-        try {
-            executor.execute(() -> {
-                ThreadDeath td = null;
-                boolean started = taskControl.tryUpdateTaskStage(PENDING, RUNNING);
-                if (started) {
-                    lock.lock();
-                    try {
-                        statePoint = new Object();
-                        condition.signalAll();
-                    } finally {
-                        lock.unlock();
-                    }
-                    try {
-                        //---------------------
-                        task.execute(context);
-                        //---------------------
-                        if ((task instanceof InterruptableTask)
-                                && ((InterruptableTask) task).isInterrupted()) {
-                            taskControl.updateTaskStage(CANCELLED);
-                        } else {
-                            taskControl.updateTaskStage(COMPLETE);
+        if (!admitted) {
+            return null;
+        }
+        InnerTaskControl taskControl = createTaskControl(task, taskContext);
+        signalAction();
+        if (callerRuns) {
+            runTask(taskControl, lent);
+        } else {
+            dispatch(taskControl, lent);
+        }
+        return new TaskControlShell(taskControl);
+    }
+
+    /**
+     * Acquire specified number of tasks, applying policy of task limit,
+     * if limit is reached.
+     *
+     * @param count  number of tasks
+     * @param trying {@code true} to reject at once, if limit is reached
+     * @return {@code true} if tasks are acquired over limit
+     * and must be run by submitting thread
+     * @throws DeniedExecutionException    if service is shut down
+     * @throws SaturatedExecutionException if tasks are not admitted by policy
+     */
+    private boolean admit(int count, boolean trying) {
+        if (taskLimit.isUnbounded()) {
+            if (!acquireTasks(count)) {
+                throw new DeniedExecutionException();
+            }
+            return false;
+        }
+        int limit = taskLimit.getMaxTasks();
+        if (acquireTasks(count, limit)) {
+            return false;
+        }
+        checkNotShutdown(count);
+        if (trying) {
+            tasksDenied(count);
+            throw new SaturatedExecutionException();
+        }
+        switch (taskLimit.getPolicy()) {
+            case BLOCK:
+                long nanosTimeout = taskLimit.getTimeoutNanos();
+                long deadline = System.nanoTime() + nanosTimeout;
+                try {
+                    while (nanosTimeout != 0) {
+                        Object statePoint = signal.getStatePoint();
+                        if (acquireTasks(count, limit)) {
+                            return false;
                         }
-                    } catch (Throwable e) {
-                        taskControl.setFailureCause(e);
-                        taskControl.updateTaskStage(FAILED);
-                        if (e instanceof ThreadDeath) {
-                            td = (ThreadDeath) e;
+                        checkNotShutdown(count);
+                        if (nanosTimeout < 0) {
+                            signal.await(statePoint);
+                        } else {
+                            signal.await(statePoint, nanosTimeout, TimeUnit.NANOSECONDS);
+                            nanosTimeout = Math.max(deadline - System.nanoTime(), 0);
                         }
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    tasksDenied(count);
+                    throw new SaturatedExecutionException(e);
                 }
-                lock.lock();
-                try {
-                    if (terminating) {
-                        terminated = checkAllTasksFinished();
-                        terminating = !terminated;
+                if (acquireTasks(count, limit)) {
+                    return false;
+                }
+                checkNotShutdown(count);
+                break;
+            case CALLER_RUNS:
+                if (!acquireTasks(count)) {
+                    throw new DeniedExecutionException();
+                }
+                return true;
+            case DISCARD_OLDEST:
+                InnerTaskControl oldest;
+                while ((oldest = findOldestPendingTask()) != null) {
+                    if (oldest.tryUpdateTaskStage(PENDING, CANCELLED)) {
+                        signalAction();
                     }
-                    if (started || terminated) {
-                        statePoint = new Object();
-                        condition.signalAll();
+                    if (acquireTasks(count, limit)) {
+                        return false;
                     }
-                    utilizeTaskControl(taskControl);
-                } finally {
-                    lock.unlock();
+                    checkNotShutdown(count);
                 }
-                if (td != null) {
-                    throw td;
+                break;
+            default:
+                break;
+        }
+        tasksDenied(count);
+        throw new SaturatedExecutionException();
+    }
+
+    private void checkNotShutdown(int count) {
+        if (terminating || terminated) {
+            tasksDenied(count);
+            throw new DeniedExecutionException();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Whole batch is acquired, registered and signalled at once,
+     * only tasks are passed to executor one by one.
+     * Policy of task limit is applied to whole batch.
+     */
+    @Override
+    public TaskBatchControl executeAll(Collection<? extends Task> tasks,
+                                       Function<? super Task, ? extends Context> contexts) {
+        Objects.requireNonNull(contexts);
+        Task[] batch = tasks.toArray(new Task[0]);
+        Context[] batchContexts = new Context[batch.length];
+        boolean[] lent = new boolean[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            Task task = Objects.requireNonNull(batch[i]);
+            Context context = contexts.apply(task);
+            lent[i] = isLent(context, contextFactory);
+            batchContexts[i] = lendContext(task, context, contextFactory);
+        }
+        boolean callerRuns;
+        boolean admitted = false;
+        try {
+            callerRuns = admit(batch.length, false);
+            admitted = true;
+        } finally {
+            if (!admitted) {
+                for (int i = 0; i < batch.length; i++) {
+                    reclaimContext(batch[i], batchContexts[i], contextFactory, lent[i]);
+                }
+            }
+        }
+        InnerTaskControl[] taskControls = createTaskControls(batch, batchContexts);
+        signalAction();
+        TaskControl[] shells = new TaskControl[batch.length];
+        int i = 0;
+        try {
+            for (; i < batch.length; i++) {
+                if (callerRuns) {
+                    runTask(taskControls[i], lent[i]);
+                } else {
+                    dispatch(taskControls[i], lent[i]);
+                }
+                shells[i] = new TaskControlShell(taskControls[i]);
+            }
+        } finally {
+            if (i < batch.length) {
+                for (int j = 0; j < i; j++) {
+                    taskControls[j].cancelTask();
                 }
-            });
+                for (int j = i + 1; j < batch.length; j++) {
+                    abandon(taskControls[j], lent[j]);
+                }
+            }
+        }
+        return TaskBatchControl.of(shells);
+    }
+
+    /**
+     * Pass acquired and registered task to executor.
+     * If executor throws exception, task is abandoned.
+     * If there is concurrency limit, task is queued
+     * until it gets permit.
+     *
+     * @param taskControl control of task
+     * @param lent        context of task is lent by context factory
+     */
+    private void dispatch(InnerTaskControl taskControl, boolean lent) {
+        if (concurrencyLimit != null) {
+            GatedTask gated = new GatedTask(taskControl, lent);
+            gatedTasks.put(taskControl, gated);
+            gate.offer(gated);
+            drainGate();
+            return;
+        }
+        boolean error = true;
+        try {
+            executor.execute(() -> runTask(taskControl, lent));
             error = false;
         } finally {
             if (error) {
-                lock.lock();
-                try {
-                    utilizeTaskControl(taskControl);
-                } finally {
-                    lock.unlock();
-                }
+                abandon(taskControl, lent);
             }
         }
-        return new TaskControlShell(taskControl);
+    }
+
+    /**
+     * Pass queued tasks to executor, while there are permits of concurrency limit.
+     * Tasks, cancelled in queue, are skipped, they are excluded by
+     * {@link #pendingTaskCancelled(InnerTaskControl)}.
+     * Tasks, rejected by executor, are abandoned, because submitter of task
+     * may be already gone.
+     */
+    private void drainGate() {
+        while (!gate.isEmpty() && concurrencyLimit.tryAcquire()) {
+            GatedTask gated = pollGate();
+            if (gated == null) {
+                concurrencyLimit.release();
+                continue;
+            }
+            if (gated.taskControl.getTaskStage() != PENDING) {
+                concurrencyLimit.release();
+                runTask(gated.taskControl, gated.lent);
+                continue;
+            }
+            try {
+                executor.execute(() -> runTask(gated.taskControl, gated.lent, true));
+            } catch (RuntimeException e) {
+                concurrencyLimit.release();
+                abandon(gated.taskControl, gated.lent);
+            }
+        }
+    }
+
+    /**
+     * Take the first queued task, which is still pending and not taken by
+     * another thread. Entries of cancelled tasks are dropped from queue.
+     *
+     * @return queued task or {@code null} if queue is empty
+     */
+    private GatedTask pollGate() {
+        GatedTask gated;
+        while ((gated = gate.poll()) != null) {
+            if (gated.taskControl.getTaskStage() == PENDING
+                    && gatedTasks.remove(gated.taskControl, gated)) {
+                return gated;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Exclude queued tasks, cancelled by {@link #shutdownNow()}
+     * before they got permit of concurrency limit.
+     */
+    private void purgeGate() {
+        for (GatedTask gated : gatedTasks.values()) {
+            if (gated.taskControl.getTaskStage() != PENDING
+                    && gatedTasks.remove(gated.taskControl, gated)) {
+                runTask(gated.taskControl, gated.lent);
+            }
+        }
+    }
+
+    /**
+     * Exclude task, not passed to executor, from service.
+     *
+     * @param taskControl control of task
+     * @param lent        context of task is lent by context factory
+     */
+    private void abandon(InnerTaskControl taskControl, boolean lent) {
+        utilizeTaskControl(taskControl);
+        taskControl.tryUpdateTaskStage(PENDING, CANCELLED);
+        reclaimContext(taskControl.getTask(), taskControl.getContext(), contextFactory, lent);
+        signalAction();
+    }
+
+    /**
+     * Run task, if it is not cancelled, and exclude it from service.
+     *
+     * @param taskControl control of task
+     * @param lent        context of task is lent by context factory
+     */
+    private void runTask(InnerTaskControl taskControl, boolean lent) {
+        runTask(taskControl, lent, false);
+    }
+
+    /**
+     * Run task, if it is not cancelled, and exclude it from service.
+     * Task with permit of concurrency limit returns permit with its
+     * run time, if it is completed, before it is released, and then
+     * passes next queued tasks to executor.
+     *
+     * @param taskControl control of task
+     * @param lent        context of task is lent by context factory
+     * @param gated       task holds permit of concurrency limit
+     */
+    private void runTask(InnerTaskControl taskControl, boolean lent, boolean gated) {
+        boolean started = taskControl.tryUpdateTaskStage(PENDING, RUNNING);
+        long start = gated ? System.nanoTime() : 0L;
+        if (started) {
+            signalAction();
+            taskControl.updateTaskStage(executeTask(taskControl));
+        }
+        if (gated) {
+            if (taskControl.getTaskStage() == COMPLETE) {
+                concurrencyLimit.release(System.nanoTime() - start);
+            } else {
+                concurrencyLimit.release();
+            }
+        }
+        utilizeTaskControl(taskControl);
+        reclaimContext(taskControl.getTask(), taskControl.getContext(), contextFactory, lent);
+        taskExcluded(started);
+        if (gated) {
+            drainGate();
+        }
+        rethrowThreadDeath(taskControl);
     }
 
     /**
      * {@inheritDoc}
+     * <p>If there is concurrency limit, executor is shut down only
+     * when service terminates, because tasks, queued in service,
+     * are passed to executor after shutdown of service.
      */
     @Override
     public void shutdown() {
-        lock.lock();
-        try {
-            terminating = true;
-            terminated = checkAllTasksFinished();
-            terminating = !terminated;
-            statePoint = new Object();
-            condition.signalAll();
-        } finally {
-            lock.unlock();
+        if (startShutdown()) {
+            signalAction();
         }
-        if (tryShutdownExecutor
-                && (executor instanceof ExecutorService)) {
-            ((ExecutorService) executor).shutdown();
+        if (concurrencyLimit == null) {
+            shutdownExecutor();
         }
     }
 
@@ -187,20 +583,54 @@ public abstract class ExecutorProxyTaskExecutorService extends AbstractTaskExecu
      */
     @Override
     public void shutdownNow() {
-        lock.lock();
-        try {
-            terminating = true;
-            cancelAllPendingTasks();
-            terminated = checkAllTasksFinished();
-            terminating = !terminated;
-            statePoint = new Object();
-            condition.signalAll();
-        } finally {
-            lock.unlock();
+        if (startShutdown()) {
+            cancellingAll = true;
+            try {
+                cancelAllPendingTasks();
+            } finally {
+                cancellingAll = false;
+            }
+            if (concurrencyLimit != null) {
+                purgeGate();
+            }
+            signalAction();
         }
         if (tryShutdownExecutor
                 && (executor instanceof ExecutorService)) {
             ((ExecutorService) executor).shutdownNow();
         }
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>Executor is shut down, if it is not shut down yet.
+     */
+    @Override
+    protected void onTermination() {
+        if (concurrencyLimit != null) {
+            shutdownExecutor();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Task, cancelled in queue of concurrency limit, is excluded at once,
+     * its entry in queue is dropped, when queue is drained.
+     */
+    @Override
+    protected void pendingTaskCancelled(InnerTaskControl taskControl) {
+        if (concurrencyLimit != null && !cancellingAll) {
+            GatedTask gated = gatedTasks.remove(taskControl);
+            if (gated != null) {
+                runTask(gated.taskControl, gated.lent);
+            }
+        }
+    }
+
+    private void shutdownExecutor() {
+        if (tryShutdownExecutor
+                && (executor instanceof ExecutorService)) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
 }
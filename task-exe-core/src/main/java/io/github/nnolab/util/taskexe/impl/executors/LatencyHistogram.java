@@ -0,0 +1,269 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent histogram of durations in nanoseconds with log-linear buckets:
+ * every power of two is split into {@value #SUB_BUCKETS} equal buckets,
+ * so relative error of values is below {@code 1/}{@value #SUB_BUCKETS}.
+ * Durations above 2^{@value #MAX_EXPONENT} ns (about 18 minutes)
+ * fall into the last bucket.
+ * <p>Recording takes no lock: it increments counters in stripe of
+ * recording thread, and stripes are created on demand. Snapshot sums
+ * all stripes. Reset does not touch stripes, it only remembers current
+ * counts as baseline for next snapshots.
+ *
+ * @author nnolab
+ */
+public class LatencyHistogram {
+
+    /**
+     * Immutable state of histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        private Snapshot(long[] counts, long sum) {
+            long n = 0;
+            for (long c : counts) {
+                n += c;
+            }
+            this.counts = counts;
+            this.count = n;
+            this.sum = sum;
+        }
+
+        /**
+         * Get number of recorded values.
+         *
+         * @return number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get sum of recorded values.
+         *
+         * @return sum in nanoseconds
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * Get mean of recorded values.
+         *
+         * @return mean in nanoseconds or 0 if there are no values
+         */
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Get upper bound of max recorded value.
+         *
+         * @return max value in nanoseconds or 0 if there are no values
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Get upper bound of value, not exceeded by specified percentile of values.
+         *
+         * @param percentile percentile from 0 to 100
+         * @return value in nanoseconds or 0 if there are no values
+         * @throws IllegalArgumentException if percentile is out of range
+         */
+        public long getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Invalid percentile: " + percentile);
+            }
+            long rank = Math.max((long) Math.ceil(count * percentile / 100), 1);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Get number of values in specified bucket.
+         *
+         * @param bucket index of bucket
+         * @return number of values
+         * @throws IndexOutOfBoundsException if index is out of range
+         */
+        public long getBucketCount(int bucket) {
+            return counts[bucket];
+        }
+    }
+
+    /**
+     * Number of buckets per power of two.
+     */
+    public static final int SUB_BUCKETS = 16;
+
+    /**
+     * Exponent of the last power of two with exact buckets.
+     */
+    public static final int MAX_EXPONENT = 40;
+
+    /**
+     * Number of buckets.
+     */
+    public static final int BUCKETS = (MAX_EXPONENT - 2) * SUB_BUCKETS;
+
+    private static final int SUB_BITS = 4;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes;
+    private final int stripeMask;
+    private long[] baseline = new long[BUCKETS + 1];
+
+    /**
+     * Create histogram with number of stripes, matching number of processors.
+     */
+    public LatencyHistogram() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int size = Integer.highestOneBit(Math.max(processors, 1));
+        if (size < processors) {
+            size <<= 1;
+        }
+        stripes = new AtomicReferenceArray<>(size);
+        stripeMask = size - 1;
+    }
+
+    /**
+     * Get index of bucket for specified value.
+     *
+     * @param value value in nanoseconds
+     * @return index of bucket
+     */
+    public static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return value <= 0 ? 0 : (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+    }
+
+    /**
+     * Get the least value of specified bucket.
+     *
+     * @param bucket index of bucket
+     * @return the least value in nanoseconds
+     */
+    public static long lowerBound(int bucket) {
+        int block = bucket / SUB_BUCKETS;
+        if (block == 0) {
+            return bucket;
+        }
+        int exponent = block + SUB_BITS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Get the greatest value of specified bucket.
+     *
+     * @param bucket index of bucket
+     * @return the greatest value in nanoseconds
+     */
+    public static long upperBound(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * Record specified value. Negative value is recorded as 0.
+     *
+     * @param nanos value in nanoseconds
+     */
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+        AtomicLongArray stripe = stripe();
+        stripe.getAndIncrement(bucketOf(nanos));
+        stripe.getAndAdd(BUCKETS, nanos);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().getId();
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS + 1));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    /**
+     * Sum counters of all stripes.
+     *
+     * @return bucket counts, followed by sum of values
+     */
+    private long[] total() {
+        long[] total = new long[BUCKETS + 1];
+        for (int s = 0; s < stripes.length(); s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe != null) {
+                for (int i = 0; i <= BUCKETS; i++) {
+                    total[i] += stripe.get(i);
+                }
+            }
+        }
+        return total;
+    }
+
+    private Snapshot since(long[] total) {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = total[i] - baseline[i];
+        }
+        return new Snapshot(counts, total[BUCKETS] - baseline[BUCKETS]);
+    }
+
+    /**
+     * Get state of histogram since the last reset.
+     *
+     * @return snapshot
+     */
+    public synchronized Snapshot snapshot() {
+        return since(total());
+    }
+
+    /**
+     * Get state of histogram since the last reset and reset it.
+     * Values, recorded concurrently, fall either to returned
+     * snapshot, or to the next one.
+     *
+     * @return snapshot
+     */
+    public synchronized Snapshot snapshotAndReset() {
+        long[] total = total();
+        Snapshot snapshot = since(total);
+        baseline = total;
+        return snapshot;
+    }
+
+    /**
+     * Reset histogram.
+     */
+    public synchronized void reset() {
+        baseline = total();
+    }
+}
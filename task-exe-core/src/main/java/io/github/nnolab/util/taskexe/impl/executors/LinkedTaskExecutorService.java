@@ -5,6 +5,7 @@ import io.github.nnolab.util.taskexe.*;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.*;
 
 import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
 
@@ -12,14 +13,25 @@ import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
  * A {@link ExecutorProxyTaskExecutorService} with linked task controls
  * iterator returned by {@link #getTasks()}.
  * Task controls are iterated in order, they were submitted.
+ * <p>Chain of task controls is lock-free: new nodes are appended
+ * by CAS on the last node, finished nodes are marked as removed
+ * and unlinked later by single sweeper, when number of removed
+ * nodes exceeds number of present ones.
  *
  * @author nnolab
  */
 public class LinkedTaskExecutorService extends ExecutorProxyTaskExecutorService {
 
-    private volatile int taskCount = 0;
+    private static final int SWEEP_THRESHOLD = 16;
+
+    private static final AtomicReferenceFieldUpdater<TaskControlNode, TaskControlNode> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(TaskControlNode.class, TaskControlNode.class, "next");
+
+    private final AtomicInteger taskCount = new AtomicInteger();
+    private final AtomicInteger removedCount = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
     private final TaskControlNode head = new TaskControlNode(null, null, null);
-    private volatile TaskControlNode tail = head;
+    private final AtomicReference<TaskControlNode> tail = new AtomicReference<>(head);
 
     /**
      * Create task executor service with specified {@link Executor}
@@ -39,6 +51,63 @@ public class LinkedTaskExecutorService extends ExecutorProxyTaskExecutorService
         super(executor, tryShutdownExecutor);
     }
 
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation and context factory for tasks,
+     * submitted without context.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @throws NullPointerException if specified executor is {@code null}
+     * @see ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory)
+     */
+    public LinkedTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                     TaskContextFactory contextFactory) {
+        super(executor, tryShutdownExecutor, contextFactory);
+    }
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation, context factory for tasks,
+     * submitted without context, and limit of unfinished tasks.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @param taskLimit           limit of unfinished tasks
+     * @throws NullPointerException if specified executor or task limit is {@code null}
+     * @see ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory, TaskLimit)
+     */
+    public LinkedTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                     TaskContextFactory contextFactory, TaskLimit taskLimit) {
+        super(executor, tryShutdownExecutor, contextFactory, taskLimit);
+    }
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation, context factory for tasks,
+     * submitted without context, limit of unfinished tasks
+     * and adaptive limit of running tasks.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @param taskLimit           limit of unfinished tasks
+     * @param concurrencyLimit    limit of running tasks, may be {@code null}
+     * @throws NullPointerException if specified executor or task limit is {@code null}
+     * @see ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory,
+     * TaskLimit, AdaptiveConcurrencyLimit)
+     */
+    public LinkedTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                     TaskContextFactory contextFactory, TaskLimit taskLimit,
+                                     AdaptiveConcurrencyLimit concurrencyLimit) {
+        super(executor, tryShutdownExecutor, contextFactory, taskLimit, concurrencyLimit);
+    }
+
     /**
      * Create task executor service with specified {@link Executor}
      * for execution delegation.
@@ -56,57 +125,131 @@ public class LinkedTaskExecutorService extends ExecutorProxyTaskExecutorService
     @Override
     protected InnerTaskControl createTaskControl(Task task, Context context) {
         TaskControlNode node = new TaskControlNode(task, context, this);
-        if (++taskCount < 0) {
-            taskCount--;
-            throw new Error("Task count overflow");
-        }
-        tail.next = node;
-        node.prev = tail;
-        tail = node;
+        node.submitted();
+        taskCount.incrementAndGet();
+        append(node, node);
         return node;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Nodes of batch are chained locally and appended by single CAS.
+     */
+    @Override
+    protected InnerTaskControl[] createTaskControls(Task[] tasks, Context[] contexts) {
+        InnerTaskControl[] taskControls = new InnerTaskControl[tasks.length];
+        if (tasks.length == 0) {
+            return taskControls;
+        }
+        TaskControlNode first = null;
+        TaskControlNode last = null;
+        for (int i = 0; i < tasks.length; i++) {
+            TaskControlNode node = new TaskControlNode(tasks[i], contexts[i], this);
+            node.submitted();
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            taskControls[i] = node;
+        }
+        taskCount.addAndGet(tasks.length);
+        append(first, last);
+        return taskControls;
+    }
+
+    /**
+     * Append chain of nodes to the last node.
+     *
+     * @param first first node of chain
+     * @param last  last node of chain
+     */
+    private void append(TaskControlNode first, TaskControlNode last) {
+        while (true) {
+            TaskControlNode oldLast = tail.get();
+            TaskControlNode next = oldLast.next;
+            if (next != null) {
+                tail.compareAndSet(oldLast, next);
+            } else if (NEXT.compareAndSet(oldLast, null, first)) {
+                tail.compareAndSet(oldLast, last);
+                return;
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void utilizeTaskControl(InnerTaskControl taskControl) {
         TaskControlNode node = (TaskControlNode) taskControl;
-        if (node == tail) {
-            tail = node.prev;
+        if (node.removed) {
+            return;
         }
-        if (!node.removed) {
-            node.remove();
-            taskCount--;
+        node.removed = true;
+        int count = taskCount.decrementAndGet();
+        if (removedCount.incrementAndGet() > count + SWEEP_THRESHOLD) {
+            sweep();
+        }
+    }
+
+    /**
+     * Unlink removed nodes from chain, if no other thread does it.
+     * The last node is never unlinked, so appending is not affected.
+     * Unlinked nodes keep reference to the next node, so iterators,
+     * standing on them, proceed along the chain.
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            removedCount.set(0);
+            TaskControlNode pred = head;
+            TaskControlNode node = pred.next;
+            while (node != null) {
+                TaskControlNode next = node.next;
+                if (node.removed && next != null) {
+                    pred.next = next;
+                } else {
+                    pred = node;
+                }
+                node = next;
+            }
+        } finally {
+            sweeping.set(false);
         }
     }
 
     /**
      * {@inheritDoc}
+     * <p>Chain is walked from the oldest node.
      */
     @Override
-    protected void cancelAllPendingTasks() {
+    protected InnerTaskControl findOldestPendingTask() {
         TaskControlNode node = head.next;
         while (node != null) {
-            node.tryUpdateTaskStage(PENDING, CANCELLED);
+            if (!node.removed && node.getTaskStage() == PENDING) {
+                return node;
+            }
             node = node.next;
         }
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    protected boolean checkAllTasksFinished() {
+    protected void cancelAllPendingTasks() {
         TaskControlNode node = head.next;
         while (node != null) {
-            TaskControl.TaskStage taskStage = node.getTaskStage();
-            if (taskStage != COMPLETE && taskStage != CANCELLED) {
-                return false;
+            if (!node.removed) {
+                node.tryUpdateTaskStage(PENDING, CANCELLED);
             }
             node = node.next;
         }
-        return true;
     }
 
     /**
@@ -114,7 +257,7 @@ public class LinkedTaskExecutorService extends ExecutorProxyTaskExecutorService
      */
     @Override
     public int getTaskCount() {
-        return taskCount;
+        return taskCount.get();
     }
 
     /**
@@ -0,0 +1,311 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+
+/**
+ * A {@link TaskExecutorService} with priorities of tasks, that delegates
+ * execution to inner {@link Executor}.
+ * <p>Submitted tasks are held in concurrent FIFO queue of their priority,
+ * and every submission passes to executor a runnable, that takes and runs
+ * the most urgent task at the moment it is run, not the submitted one.
+ * So order of execution does not depend on queue of executor.
+ * <p>Tasks age while waiting: effective priority of the oldest task
+ * of a queue grows by one for every aging interval up to the highest
+ * priority, so tasks of low priorities are not starved by flood of tasks
+ * of higher priorities. Ties go to native priority, so aged tasks
+ * never overtake tasks of the highest priority.
+ * <p>Time, spent by tasks in queue, is recorded per priority and
+ * may be monitored by {@link #getQueueWait(int)}.
+ *
+ * @author nnolab
+ */
+public class PriorityTaskExecutorService extends AbstractTaskExecutorService {
+
+    /**
+     * Control of prioritized task.
+     */
+    private class PriorityTaskControl extends InnerTaskControl {
+
+        final int priority;
+        final boolean lent;
+        final long enqueued = System.nanoTime();
+
+        PriorityTaskControl(Task task, Context context, int priority, boolean lent) {
+            super(task, context, PriorityTaskExecutorService.this);
+            this.priority = priority;
+            this.lent = lent;
+        }
+    }
+
+    public static final int DEFAULT_LEVELS = 8;
+    public static final long DEFAULT_AGING_MILLIS = 50;
+
+    protected final Executor executor;
+    protected final boolean tryShutdownExecutor;
+    protected final TaskContextFactory contextFactory;
+
+    private final int defaultPriority;
+    private final long agingNanos;
+    private final Queue<PriorityTaskControl>[] queues;
+    private final LatencyHistogram[] queueWaits;
+    private final Set<PriorityTaskControl> taskControls = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation and specified number of priority levels.
+     * Priorities are from 0 (lowest) to {@code levels - 1} (highest).
+     * If {@code tryShutdownExecutor} flag is {@code true} and specified
+     * executor is instance of {@link ExecutorService}, it is shut down
+     * with this service.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param levels              number of priority levels
+     * @param agingInterval       waiting time, raising effective priority by one,
+     *                            0 for no aging
+     * @param unit                unit of aging interval
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @throws NullPointerException     if executor or time unit is {@code null}
+     * @throws IllegalArgumentException if levels number is not positive
+     *                                  or aging interval is negative
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                       int levels, long agingInterval, TimeUnit unit,
+                                       TaskContextFactory contextFactory) {
+        if (levels <= 0) {
+            throw new IllegalArgumentException("Invalid levels: " + levels);
+        }
+        if (agingInterval < 0) {
+            throw new IllegalArgumentException("Invalid aging interval: " + agingInterval);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.tryShutdownExecutor = tryShutdownExecutor;
+        this.contextFactory = contextFactory;
+        defaultPriority = levels / 2;
+        agingNanos = unit.toNanos(agingInterval);
+        queues = new Queue[levels];
+        queueWaits = new LatencyHistogram[levels];
+        for (int i = 0; i < levels; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+            queueWaits[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @see #PriorityTaskExecutorService(Executor, boolean, int, long, TimeUnit, TaskContextFactory)
+     */
+    public PriorityTaskExecutorService(Executor executor, boolean tryShutdownExecutor, int levels) {
+        this(executor, tryShutdownExecutor, levels, DEFAULT_AGING_MILLIS, TimeUnit.MILLISECONDS, null);
+    }
+
+    /**
+     * @see #PriorityTaskExecutorService(Executor, boolean, int, long, TimeUnit, TaskContextFactory)
+     */
+    public PriorityTaskExecutorService(Executor executor) {
+        this(executor, false, DEFAULT_LEVELS);
+    }
+
+    /**
+     * Get number of priority levels.
+     *
+     * @return number of levels
+     */
+    public int getLevels() {
+        return queues.length;
+    }
+
+    /**
+     * Get priority of tasks, submitted by {@link #execute(Task, Context)}.
+     *
+     * @return default priority
+     */
+    public int getDefaultPriority() {
+        return defaultPriority;
+    }
+
+    /**
+     * Get histogram of time in queue for tasks of specified priority.
+     * Returned histogram is live.
+     *
+     * @param priority priority
+     * @return queue wait histogram
+     * @throws IndexOutOfBoundsException if priority is out of range
+     */
+    public LatencyHistogram getQueueWait(int priority) {
+        return queueWaits[priority];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Task is submitted with default priority.
+     */
+    @Override
+    public TaskControl execute(Task task, Context context) {
+        return execute(task, context, defaultPriority);
+    }
+
+    /**
+     * Submit specified task for execution with specified context and priority.
+     *
+     * @param task     task to be executed
+     * @param context  context for task
+     * @param priority priority from 0 (lowest) to {@code getLevels() - 1} (highest)
+     * @return control over task execution
+     * @throws NullPointerException      if specified task is {@code null}
+     * @throws IndexOutOfBoundsException if priority is out of range
+     * @throws DeniedExecutionException  if service denied to execute task
+     */
+    public TaskControl execute(Task task, Context context, int priority) {
+        Objects.requireNonNull(task);
+        if (priority < 0 || priority >= queues.length) {
+            throw new IndexOutOfBoundsException("Invalid priority: " + priority);
+        }
+        Context taskContext = acquireTask(task, context, contextFactory);
+        PriorityTaskControl taskControl = new PriorityTaskControl(task, taskContext, priority,
+                isLent(context, contextFactory));
+        taskControl.submitted();
+        taskControls.add(taskControl);
+        queues[priority].add(taskControl);
+        signalAction();
+        boolean error = true;
+        try {
+            executor.execute(this::runNext);
+            error = false;
+        } finally {
+            if (error) {
+                PriorityTaskControl abandoned = queues[priority].remove(taskControl) ? taskControl : poll();
+                if (abandoned != null) {
+                    abandoned.tryUpdateTaskStage(PENDING, CANCELLED);
+                    exclude(abandoned);
+                }
+                signalAction();
+            }
+        }
+        return new TaskControlShell(taskControl);
+    }
+
+    /**
+     * Take the most urgent task, considering aging. Effective priority
+     * is capped by the highest one, and on ties native priority wins.
+     *
+     * @return task control or {@code null} if all queues are empty
+     */
+    private PriorityTaskControl poll() {
+        int top = queues.length - 1;
+        while (true) {
+            long now = System.nanoTime();
+            int best = -1;
+            long bestScore = Long.MIN_VALUE;
+            for (int priority = top; priority >= 0; priority--) {
+                PriorityTaskControl head = queues[priority].peek();
+                if (head != null) {
+                    long score = agingNanos == 0 ? priority
+                            : Math.min(priority + (now - head.enqueued) / agingNanos, top);
+                    if (score > bestScore) {
+                        best = priority;
+                        bestScore = score;
+                    }
+                }
+            }
+            if (best < 0) {
+                return null;
+            }
+            PriorityTaskControl taskControl = queues[best].poll();
+            if (taskControl != null) {
+                return taskControl;
+            }
+        }
+    }
+
+    /**
+     * Take the most urgent task and run it, if it is not cancelled.
+     * Every submitted task passes one such runnable to executor,
+     * so there is always a task to take.
+     */
+    private void runNext() {
+        PriorityTaskControl taskControl = poll();
+        if (taskControl == null) {
+            return;
+        }
+        boolean started = taskControl.tryUpdateTaskStage(PENDING, RUNNING);
+        if (started) {
+            queueWaits[taskControl.priority].record(System.nanoTime() - taskControl.enqueued);
+            signalAction();
+            taskControl.updateTaskStage(executeTask(taskControl));
+        }
+        exclude(taskControl);
+        taskExcluded(started);
+        rethrowThreadDeath(taskControl);
+    }
+
+    /**
+     * Exclude task from registry and reclaim its context.
+     *
+     * @param taskControl control of task
+     */
+    private void exclude(PriorityTaskControl taskControl) {
+        taskControls.remove(taskControl);
+        reclaimContext(taskControl.getTask(), taskControl.getContext(), contextFactory, taskControl.lent);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getTaskCount() {
+        return taskControls.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tasks getTasks() {
+        SeparatedTasks tasks = new SeparatedTasks(taskControls.size());
+        for (PriorityTaskControl taskControl : taskControls) {
+            tasks.add(new TaskControlShell(taskControl));
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        if (startShutdown()) {
+            signalAction();
+        }
+        if (tryShutdownExecutor
+                && (executor instanceof ExecutorService)) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdownNow() {
+        if (startShutdown()) {
+            for (PriorityTaskControl taskControl : taskControls) {
+                taskControl.tryUpdateTaskStage(PENDING, CANCELLED);
+            }
+            signalAction();
+        }
+        if (tryShutdownExecutor
+                && (executor instanceof ExecutorService)) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+
+/**
+ * A {@link TaskExecutorService}, that runs tasks after delay or periodically,
+ * and delegates execution to inner {@link Executor}.
+ * <p>Delayed tasks are held in hierarchical timing wheel: every level has
+ * {@value #WHEEL_SIZE} slots, and slot of level {@code n} spans
+ * {@code WHEEL_SIZE^n} ticks. Task is put to the lowest level, that covers
+ * its delay, and moves to lower levels, as time passes. Putting and removing
+ * of task is constant time operation, not depending on number of delayed tasks.
+ * Wheel is advanced by one timer thread, that passes expired tasks to executor.
+ * Precision of delays is one tick.
+ * <p>Control of delayed task reports {@code PENDING} until task is passed
+ * to executor and started. Cancellation of delayed task removes it
+ * from wheel at once.
+ * <p>Periodic task stays {@code RUNNING} from the first run and until
+ * it is cancelled, fails or is interrupted. Runs of periodic task
+ * do not overlap: next run is scheduled, when previous run is finished.
+ * <p>Shutdown of service cancels periodic tasks, but delayed tasks
+ * are still run on time.
+ *
+ * @author nnolab
+ */
+public class ScheduledTaskExecutorService extends AbstractTaskExecutorService {
+
+    /**
+     * Control of scheduled task, which is also entry of timing wheel.
+     */
+    private class ScheduledTaskControl extends InnerTaskControl {
+
+        final boolean lent;
+        final long period;
+        long deadline;
+        long deadlineTick;
+        int bucket = -1;
+        ScheduledTaskControl prev;
+        ScheduledTaskControl next;
+        volatile boolean cancelled;
+
+        ScheduledTaskControl(Task task, Context context, long deadline, long period, boolean lent) {
+            super(task, context, ScheduledTaskExecutorService.this);
+            this.deadline = deadline;
+            this.period = period;
+            this.lent = lent;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>Delayed or periodic task is removed from timing wheel,
+         * if it is waiting there.
+         */
+        @Override
+        public void cancelTask() {
+            cancel(this);
+        }
+    }
+
+    /**
+     * Number of slots in every level of timing wheel.
+     */
+    public static final int WHEEL_SIZE = 64;
+
+    public static final long DEFAULT_TICK_MILLIS = 1;
+
+    private static final int SHIFT = 6;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = (Long.SIZE + SHIFT - 1) / SHIFT;
+    private static final long MAX_DELAY = Long.MAX_VALUE >> 2;
+    private static final AtomicInteger timerCount = new AtomicInteger();
+
+    protected final Executor executor;
+    protected final boolean tryShutdownExecutor;
+    protected final TaskContextFactory contextFactory;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Set<ScheduledTaskControl> taskControls = ConcurrentHashMap.newKeySet();
+    private final ScheduledTaskControl[] buckets = new ScheduledTaskControl[LEVELS * WHEEL_SIZE];
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final Condition wheelUpdated = wheelLock.newCondition();
+    private long currentTick;
+    private int wheelCount;
+    private boolean stopped;
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation and specified tick of timing wheel.
+     * If {@code tryShutdownExecutor} flag is {@code true} and specified
+     * executor is instance of {@link ExecutorService}, it is shut down,
+     * when this service is terminated.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param tick                duration of tick
+     * @param unit                unit of tick duration
+     * @param threadFactory       factory of timer thread
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @throws NullPointerException     if executor, time unit or thread factory is {@code null}
+     * @throws IllegalArgumentException if tick is not positive
+     */
+    public ScheduledTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                        long tick, TimeUnit unit, ThreadFactory threadFactory,
+                                        TaskContextFactory contextFactory) {
+        tickNanos = unit.toNanos(tick);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Invalid tick: " + tick);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.tryShutdownExecutor = tryShutdownExecutor;
+        this.contextFactory = contextFactory;
+        threadFactory.newThread(this::advance).start();
+    }
+
+    /**
+     * @see #ScheduledTaskExecutorService(Executor, boolean, long, TimeUnit, ThreadFactory, TaskContextFactory)
+     */
+    public ScheduledTaskExecutorService(Executor executor, boolean tryShutdownExecutor) {
+        this(executor, tryShutdownExecutor, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS,
+                ScheduledTaskExecutorService::newTimerThread, null);
+    }
+
+    /**
+     * @see #ScheduledTaskExecutorService(Executor, boolean, long, TimeUnit, ThreadFactory, TaskContextFactory)
+     */
+    public ScheduledTaskExecutorService(Executor executor) {
+        this(executor, false);
+    }
+
+    private static Thread newTimerThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "task-exe-timer-" + timerCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Task is passed to executor at once, without timing wheel.
+     */
+    @Override
+    public TaskControl execute(Task task, Context context) {
+        return submit(task, context, 0, 0);
+    }
+
+    /**
+     * Submit specified task for execution with specified context
+     * after specified delay.
+     *
+     * @param task    task to be executed
+     * @param context context for task
+     * @param delay   delay, not positive for immediate execution
+     * @param unit    unit of delay
+     * @return control over task execution
+     * @throws NullPointerException     if specified task or time unit is {@code null}
+     * @throws DeniedExecutionException if service denied to execute task
+     */
+    public TaskControl schedule(Task task, Context context, long delay, TimeUnit unit) {
+        return submit(task, context, unit.toNanos(delay), 0);
+    }
+
+    /**
+     * Submit specified task for periodic execution with specified context.
+     * First run starts after specified initial delay, and next runs start
+     * every period after it. If run takes longer than period, next run
+     * starts late, but runs never overlap.
+     *
+     * @param task         task to be executed
+     * @param context      context for task
+     * @param initialDelay delay of first run
+     * @param period       period between starts of runs
+     * @param unit         unit of delay and period
+     * @return control over task execution
+     * @throws NullPointerException     if specified task or time unit is {@code null}
+     * @throws IllegalArgumentException if period is not positive
+     * @throws DeniedExecutionException if service denied to execute task
+     */
+    public TaskControl scheduleAtFixedRate(Task task, Context context,
+                                           long initialDelay, long period, TimeUnit unit) {
+        long periodNanos = unit.toNanos(period);
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("Invalid period: " + period);
+        }
+        return submit(task, context, unit.toNanos(initialDelay), Math.min(periodNanos, MAX_DELAY));
+    }
+
+    private TaskControl submit(Task task, Context context, long delayNanos, long periodNanos) {
+        Objects.requireNonNull(task);
+        Context taskContext = acquireTask(task, context, contextFactory);
+        long deadline = System.nanoTime() + Math.min(Math.max(delayNanos, 0), MAX_DELAY);
+        ScheduledTaskControl taskControl = new ScheduledTaskControl(task, taskContext, deadline, periodNanos,
+                isLent(context, contextFactory));
+        taskControl.submitted();
+        taskControls.add(taskControl);
+        signalAction();
+        if (delayNanos > 0) {
+            wheelLock.lock();
+            try {
+                schedule(taskControl);
+            } finally {
+                wheelLock.unlock();
+            }
+        } else {
+            boolean error = true;
+            try {
+                executor.execute(() -> runTask(taskControl));
+                error = false;
+            } finally {
+                if (error) {
+                    discard(taskControl);
+                }
+            }
+        }
+        return new TaskControlShell(taskControl);
+    }
+
+    //-------------------------------------------------------------------------
+    // Timing wheel, guarded by wheel lock.
+    //-------------------------------------------------------------------------
+
+    /**
+     * Put task to timing wheel by its deadline.
+     *
+     * @param taskControl control of task
+     */
+    private void schedule(ScheduledTaskControl taskControl) {
+        long nowTick = Math.max(toTick(System.nanoTime()), 0);
+        if (wheelCount == 0 && currentTick < nowTick) {
+            currentTick = nowTick;
+        }
+        long deadlineTick = toTick(taskControl.deadline + tickNanos - 1);
+        taskControl.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        insert(taskControl);
+        if (wheelCount++ == 0) {
+            wheelUpdated.signal();
+        }
+    }
+
+    private long toTick(long nanos) {
+        return (nanos - startNanos) / tickNanos;
+    }
+
+    /**
+     * Link task into slot of the lowest level, covering its deadline.
+     *
+     * @param taskControl control of task
+     */
+    private void insert(ScheduledTaskControl taskControl) {
+        long delta = taskControl.deadlineTick - currentTick;
+        int level = delta <= 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(delta)) / SHIFT;
+        int bucket = (level << SHIFT) | (int) (taskControl.deadlineTick >>> (level * SHIFT)) & MASK;
+        ScheduledTaskControl head = buckets[bucket];
+        taskControl.bucket = bucket;
+        taskControl.prev = null;
+        taskControl.next = head;
+        if (head != null) {
+            head.prev = taskControl;
+        }
+        buckets[bucket] = taskControl;
+    }
+
+    /**
+     * Unlink task from its slot.
+     *
+     * @param taskControl control of task
+     * @return {@code true} if task was in wheel
+     */
+    private boolean remove(ScheduledTaskControl taskControl) {
+        int bucket = taskControl.bucket;
+        if (bucket < 0) {
+            return false;
+        }
+        ScheduledTaskControl prev = taskControl.prev;
+        ScheduledTaskControl next = taskControl.next;
+        if (prev == null) {
+            buckets[bucket] = next;
+        } else {
+            prev.next = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        }
+        taskControl.bucket = -1;
+        taskControl.prev = null;
+        taskControl.next = null;
+        wheelCount--;
+        return true;
+    }
+
+    /**
+     * Move time by one tick: move tasks of upper level slots,
+     * which begin at new tick, to lower levels, and take tasks,
+     * expired at new tick.
+     *
+     * @param expired list to add expired tasks
+     */
+    private void tick(List<ScheduledTaskControl> expired) {
+        long tick = ++currentTick;
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = level * SHIFT;
+            if ((tick & ((1L << shift) - 1)) != 0) {
+                break;
+            }
+            int bucket = (level << SHIFT) | (int) (tick >>> shift) & MASK;
+            ScheduledTaskControl taskControl = buckets[bucket];
+            buckets[bucket] = null;
+            while (taskControl != null) {
+                ScheduledTaskControl next = taskControl.next;
+                insert(taskControl);
+                taskControl = next;
+            }
+        }
+        int bucket = (int) tick & MASK;
+        ScheduledTaskControl taskControl = buckets[bucket];
+        buckets[bucket] = null;
+        while (taskControl != null) {
+            ScheduledTaskControl next = taskControl.next;
+            taskControl.bucket = -1;
+            taskControl.prev = null;
+            taskControl.next = null;
+            wheelCount--;
+            expired.add(taskControl);
+            taskControl = next;
+        }
+    }
+
+    /**
+     * Body of timer thread: advance wheel with time and pass
+     * expired tasks to executor, until service is terminated.
+     */
+    private void advance() {
+        List<ScheduledTaskControl> expired = new ArrayList<>();
+        while (true) {
+            wheelLock.lock();
+            try {
+                while (!stopped && expired.isEmpty()) {
+                    long nowTick = toTick(System.nanoTime());
+                    if (wheelCount == 0) {
+                        wheelUpdated.await();
+                    } else if (currentTick >= nowTick) {
+                        wheelUpdated.awaitNanos(startNanos + (currentTick + 1) * tickNanos - System.nanoTime());
+                    } else {
+                        while (currentTick < nowTick && wheelCount > 0) {
+                            tick(expired);
+                        }
+                    }
+                }
+                if (stopped) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return;
+                }
+            } finally {
+                wheelLock.unlock();
+            }
+            for (ScheduledTaskControl taskControl : expired) {
+                try {
+                    executor.execute(() -> runTask(taskControl));
+                } catch (Throwable e) {
+                    discard(taskControl);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    //-------------------------------------------------------------------------
+
+    /**
+     * Run task, if it is not cancelled. Reschedule periodic task
+     * or exclude finished task from service.
+     *
+     * @param taskControl control of task
+     */
+    private void runTask(ScheduledTaskControl taskControl) {
+        boolean started = taskControl.tryUpdateTaskStage(PENDING, RUNNING);
+        if (started) {
+            signalAction();
+        } else if (taskControl.period == 0 || taskControl.getTaskStage() != RUNNING) {
+            exclude(taskControl);
+            if (terminated) {
+                signalAction();
+            }
+            return;
+        }
+        TaskStage result = taskControl.cancelled ? CANCELLED : executeTask(taskControl);
+        if (result == COMPLETE && taskControl.period != 0) {
+            result = null;
+        }
+        if (result == null && !reschedule(taskControl)) {
+            result = CANCELLED;
+        }
+        if (result != null) {
+            taskControl.updateTaskStage(result);
+            exclude(taskControl);
+            taskExcluded(true);
+        }
+        rethrowThreadDeath(taskControl);
+    }
+
+    /**
+     * Put periodic task to wheel for next run, if it is not cancelled
+     * and service is not shut down.
+     *
+     * @param taskControl control of task
+     * @return {@code true} if task is rescheduled
+     */
+    private boolean reschedule(ScheduledTaskControl taskControl) {
+        wheelLock.lock();
+        try {
+            if (taskControl.cancelled || terminating) {
+                return false;
+            }
+            taskControl.deadline += taskControl.period;
+            schedule(taskControl);
+            return true;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    /**
+     * Cancel task: remove it from wheel, if it waits there,
+     * or prevent its next run otherwise.
+     *
+     * @param taskControl control of task
+     */
+    private void cancel(ScheduledTaskControl taskControl) {
+        boolean removed;
+        wheelLock.lock();
+        try {
+            taskControl.cancelled = true;
+            removed = remove(taskControl);
+        } finally {
+            wheelLock.unlock();
+        }
+        if (removed) {
+            discard(taskControl);
+        } else {
+            if (!taskControl.tryUpdateTaskStage(PENDING, CANCELLED)
+                    && (taskControl.getTask() instanceof InterruptableTask)) {
+                ((InterruptableTask) taskControl.getTask()).interrupt();
+            }
+            signalAction();
+        }
+    }
+
+    /**
+     * Exclude task, that is not in wheel and not passed to executor,
+     * from service.
+     *
+     * @param taskControl control of task
+     */
+    private void discard(ScheduledTaskControl taskControl) {
+        exclude(taskControl);
+        if (!taskControl.tryUpdateTaskStage(PENDING, CANCELLED)
+                && taskControl.tryUpdateTaskStage(RUNNING, CANCELLED)) {
+            releaseTask();
+        }
+        signalAction();
+    }
+
+    /**
+     * Exclude task from registry and reclaim its context.
+     *
+     * @param taskControl control of task
+     */
+    private void exclude(ScheduledTaskControl taskControl) {
+        if (taskControls.remove(taskControl)) {
+            reclaimContext(taskControl.getTask(), taskControl.getContext(), contextFactory, taskControl.lent);
+        }
+    }
+
+    /**
+     * Get number of tasks, waiting in timing wheel.
+     *
+     * @return number of delayed tasks
+     */
+    public int getDelayedTaskCount() {
+        wheelLock.lock();
+        try {
+            return wheelCount;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getTaskCount() {
+        return taskControls.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tasks getTasks() {
+        SeparatedTasks tasks = new SeparatedTasks(taskControls.size());
+        for (ScheduledTaskControl taskControl : taskControls) {
+            tasks.add(new TaskControlShell(taskControl));
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Periodic tasks are cancelled.
+     */
+    @Override
+    public void shutdown() {
+        if (startShutdown()) {
+            for (ScheduledTaskControl taskControl : taskControls) {
+                if (taskControl.period > 0) {
+                    cancel(taskControl);
+                }
+            }
+            signalAction();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdownNow() {
+        if (startShutdown()) {
+            for (ScheduledTaskControl taskControl : taskControls) {
+                cancel(taskControl);
+            }
+            signalAction();
+        }
+        if (tryShutdownExecutor
+                && (executor instanceof ExecutorService)) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Timer thread is stopped.
+     */
+    @Override
+    protected void onTermination() {
+        wheelLock.lock();
+        try {
+            stopped = true;
+            wheelUpdated.signal();
+        } finally {
+            wheelLock.unlock();
+        }
+        if (tryShutdownExecutor
+                && (executor instanceof ExecutorService)) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
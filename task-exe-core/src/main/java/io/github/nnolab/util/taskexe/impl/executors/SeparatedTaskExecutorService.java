@@ -4,7 +4,8 @@ import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.*;
 import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
 
-import java.util.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
@@ -13,12 +14,13 @@ import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
 /**
  * A {@link ExecutorProxyTaskExecutorService} with separated task controls
  * iterator returned by {@link #getTasks()}.
+ * Task controls are held in concurrent set.
  *
  * @author nnolab
  */
 public class SeparatedTaskExecutorService extends ExecutorProxyTaskExecutorService {
 
-    private Set<InnerTaskControl> taskControls = new HashSet<>();
+    private final Set<InnerTaskControl> taskControls = ConcurrentHashMap.newKeySet();
 
     /**
      * Create task executor service with specified {@link Executor}
@@ -38,6 +40,63 @@ public class SeparatedTaskExecutorService extends ExecutorProxyTaskExecutorServi
         super(executor, tryShutdownExecutor);
     }
 
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation and context factory for tasks,
+     * submitted without context.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @throws NullPointerException if specified executor is {@code null}
+     * @see ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory)
+     */
+    public SeparatedTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                        TaskContextFactory contextFactory) {
+        super(executor, tryShutdownExecutor, contextFactory);
+    }
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation, context factory for tasks,
+     * submitted without context, and limit of unfinished tasks.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @param taskLimit           limit of unfinished tasks
+     * @throws NullPointerException if specified executor or task limit is {@code null}
+     * @see ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory, TaskLimit)
+     */
+    public SeparatedTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                        TaskContextFactory contextFactory, TaskLimit taskLimit) {
+        super(executor, tryShutdownExecutor, contextFactory, taskLimit);
+    }
+
+    /**
+     * Create task executor service with specified {@link Executor}
+     * for execution delegation, context factory for tasks,
+     * submitted without context, limit of unfinished tasks
+     * and adaptive limit of running tasks.
+     *
+     * @param executor            executor to delegate tasks execution
+     * @param tryShutdownExecutor shutdown executor flag
+     * @param contextFactory      factory of contexts for tasks without context,
+     *                            may be {@code null}
+     * @param taskLimit           limit of unfinished tasks
+     * @param concurrencyLimit    limit of running tasks, may be {@code null}
+     * @throws NullPointerException if specified executor or task limit is {@code null}
+     * @see ExecutorProxyTaskExecutorService#ExecutorProxyTaskExecutorService(Executor, boolean, TaskContextFactory,
+     * TaskLimit, AdaptiveConcurrencyLimit)
+     */
+    public SeparatedTaskExecutorService(Executor executor, boolean tryShutdownExecutor,
+                                        TaskContextFactory contextFactory, TaskLimit taskLimit,
+                                        AdaptiveConcurrencyLimit concurrencyLimit) {
+        super(executor, tryShutdownExecutor, contextFactory, taskLimit, concurrencyLimit);
+    }
+
     /**
      * Create task executor service with specified {@link Executor}
      * for execution delegation.
@@ -55,6 +114,7 @@ public class SeparatedTaskExecutorService extends ExecutorProxyTaskExecutorServi
     @Override
     protected InnerTaskControl createTaskControl(Task task, Context context) {
         InnerTaskControl taskControl = new InnerTaskControl(task, context, this);
+        taskControl.submitted();
         taskControls.add(taskControl);
         return taskControl;
     }
@@ -69,26 +129,26 @@ public class SeparatedTaskExecutorService extends ExecutorProxyTaskExecutorServi
 
     /**
      * {@inheritDoc}
+     * <p>Order of submission is not tracked, so any pending task is returned.
      */
     @Override
-    protected void cancelAllPendingTasks() {
+    protected InnerTaskControl findOldestPendingTask() {
         for (InnerTaskControl taskControl : taskControls) {
-            taskControl.tryUpdateTaskStage(PENDING, CANCELLED);
+            if (taskControl.getTaskStage() == PENDING) {
+                return taskControl;
+            }
         }
+        return null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    protected boolean checkAllTasksFinished() {
+    protected void cancelAllPendingTasks() {
         for (InnerTaskControl taskControl : taskControls) {
-            TaskControl.TaskStage taskStage = taskControl.getTaskStage();
-            if (taskStage != COMPLETE && taskStage != CANCELLED) {
-                return false;
-            }
+            taskControl.tryUpdateTaskStage(PENDING, CANCELLED);
         }
-        return true;
     }
 
     /**
@@ -104,15 +164,10 @@ public class SeparatedTaskExecutorService extends ExecutorProxyTaskExecutorServi
      */
     @Override
     public Tasks getTasks() {
-        lock.lock();
-        try {
-            SeparatedTasks tasks = new SeparatedTasks(taskControls.size());
-            for (InnerTaskControl taskControl : taskControls) {
-                tasks.add(new TaskControlShell(taskControl));
-            }
-            return tasks;
-        } finally {
-            lock.unlock();
+        SeparatedTasks tasks = new SeparatedTasks(taskControls.size());
+        for (InnerTaskControl taskControl : taskControls) {
+            tasks.add(new TaskControlShell(taskControl));
         }
+        return tasks;
     }
 }
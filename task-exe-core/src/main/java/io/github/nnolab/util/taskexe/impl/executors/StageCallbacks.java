@@ -0,0 +1,124 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free holder of callbacks, registered by
+ * {@link TaskControl#onStage(TaskStage, Consumer)}.
+ * Callbacks are held in Treiber stack, and every callback is claimed
+ * by CAS before invocation, so it is invoked once, even if registration
+ * races with stage update. When final stage is reached, stack is dropped.
+ *
+ * @author nnolab
+ */
+final class StageCallbacks {
+
+    /**
+     * Node of stack of callbacks.
+     */
+    private static final class Callback {
+
+        private static final AtomicReferenceFieldUpdater<Callback, Consumer> CONSUMER =
+                AtomicReferenceFieldUpdater.newUpdater(Callback.class, Consumer.class, "consumer");
+
+        final TaskStage stage;
+        volatile Consumer<TaskControl> consumer;
+        Callback next;
+
+        Callback(TaskStage stage, Consumer<TaskControl> consumer) {
+            this.stage = stage;
+            this.consumer = consumer;
+        }
+
+        /**
+         * Take consumer, if it is not taken yet.
+         *
+         * @return consumer or {@code null}
+         */
+        @SuppressWarnings("unchecked")
+        Consumer<TaskControl> claim() {
+            Consumer<TaskControl> c = consumer;
+            return c != null && CONSUMER.compareAndSet(this, c, null) ? c : null;
+        }
+    }
+
+    private final AtomicReference<Callback> top = new AtomicReference<>();
+
+    /**
+     * Register callback for specified stage of specified control.
+     * If control is already at that stage, callback is invoked at once.
+     * If control is at final stage, callback is not registered.
+     *
+     * @param control  task control
+     * @param stage    stage to wait for
+     * @param consumer callback
+     */
+    void add(TaskControl control, TaskStage stage, Consumer<TaskControl> consumer) {
+        TaskStage current = control.getTaskStage();
+        if (!current.hasAfter()) {
+            if (current == stage) {
+                invoke(consumer, control);
+            }
+            return;
+        }
+        Callback callback = new Callback(stage, consumer);
+        Callback t;
+        do {
+            t = top.get();
+            callback.next = t;
+        } while (!top.compareAndSet(t, callback));
+        current = control.getTaskStage();
+        if (current == stage || !current.hasAfter()) {
+            Consumer<TaskControl> c = callback.claim();
+            if (c != null && current == stage) {
+                invoke(c, control);
+            }
+        }
+    }
+
+    /**
+     * Invoke callbacks, registered for specified stage, in order of registration.
+     * If stage is final, all callbacks are dropped.
+     *
+     * @param control task control
+     * @param stage   new stage of control
+     */
+    void fire(TaskControl control, TaskStage stage) {
+        Callback callback = stage.hasAfter() ? top.get() : top.getAndSet(null);
+        List<Callback> matching = new ArrayList<>();
+        for (; callback != null; callback = callback.next) {
+            if (callback.stage == stage) {
+                matching.add(callback);
+            }
+        }
+        for (int i = matching.size() - 1; i >= 0; i--) {
+            Consumer<TaskControl> c = matching.get(i).claim();
+            if (c != null) {
+                invoke(c, control);
+            }
+        }
+    }
+
+    /**
+     * Invoke callback, passing its failure to uncaught exception handler
+     * of current thread, so stage update is not broken by callback.
+     *
+     * @param consumer callback
+     * @param control  task control
+     */
+    static void invoke(Consumer<TaskControl> consumer, TaskControl control) {
+        try {
+            consumer.accept(control);
+        } catch (Throwable e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import io.github.nnolab.util.taskexe.*;
 import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
 
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
 
@@ -98,6 +99,18 @@ public class SynchronousTaskExecutor implements TaskExecutor {
             return finalStage;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onStage(TaskStage stage, Consumer<TaskControl> callback) {
+            Objects.requireNonNull(stage);
+            Objects.requireNonNull(callback);
+            if (finalStage == stage) {
+                StageCallbacks.invoke(callback, this);
+            }
+        }
+
         /**
          * {@inheritDoc}
          */
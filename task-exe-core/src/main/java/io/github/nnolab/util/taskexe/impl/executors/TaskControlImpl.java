@@ -4,11 +4,14 @@ import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.*;
 import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.*;
+import java.util.function.Consumer;
 
 /**
- * Base implementation of {@link TaskControl}.
+ * Base implementation of {@link TaskControl}, guarded by lock.
+ * Lock-free variant is {@link AtomicTaskControl}.
  *
  * @author nnolab
  */
@@ -24,6 +27,8 @@ public class TaskControlImpl implements TaskControl {
     protected volatile TaskStage taskStage;
     protected volatile Throwable failureCause;
 
+    private final StageCallbacks callbacks = new StageCallbacks();
+
     /**
      * Create new control with given task, context and executor.
      *
@@ -45,8 +50,9 @@ public class TaskControlImpl implements TaskControl {
     }
 
     /**
-     * Update task stage, setting specified stage, and signal
-     * to all stage change waiters.
+     * Update task stage, setting specified stage, signal
+     * to all stage change waiters and invoke callbacks of new stage
+     * out of lock.
      *
      * @param newStage new task stage
      */
@@ -58,12 +64,14 @@ public class TaskControlImpl implements TaskControl {
         } finally {
             lock.unlock();
         }
+        callbacks.fire(this, newStage);
     }
 
     /**
      * If current stage is such as specified, update task stage,
-     * setting specified stage, signal to all stage change waiters
-     * and return {@code true}. Otherwise return {@code false}.
+     * setting specified stage, signal to all stage change waiters,
+     * invoke callbacks of new stage out of lock and return {@code true}.
+     * Otherwise return {@code false}.
      *
      * @param expectedStage expected current task stage
      * @param newStage      new task stage
@@ -75,13 +83,14 @@ public class TaskControlImpl implements TaskControl {
             if (taskStage == expectedStage) {
                 taskStage = newStage;
                 condition.signalAll();
-                return true;
             } else {
                 return false;
             }
         } finally {
             lock.unlock();
         }
+        callbacks.fire(this, newStage);
+        return true;
     }
 
     /**
@@ -188,6 +197,14 @@ public class TaskControlImpl implements TaskControl {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStage(TaskStage stage, Consumer<TaskControl> callback) {
+        callbacks.add(this, Objects.requireNonNull(stage), Objects.requireNonNull(callback));
+    }
+
     /**
      * {@inheritDoc}
      */
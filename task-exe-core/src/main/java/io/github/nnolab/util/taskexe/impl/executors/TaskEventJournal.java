@@ -0,0 +1,302 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded journal of task lifecycle events: submission of task
+ * and every update of its stage. Events are numbered by sequence,
+ * and every reader has its own {@link Cursor}, so readers get only
+ * events, they have not read yet, and do not disturb each other.
+ * <p>Journal is a ring buffer: writers never wait for readers,
+ * and reader, which fell behind by more than capacity, loses
+ * the oldest events and is told, how many events it lost.
+ * Reader parks only when it has read all published events,
+ * and writers wake up parked readers only if there are any.
+ * <p>Journal is attached to services by
+ * {@link AbstractTaskExecutorService#setEventJournal(TaskEventJournal)}.
+ * One journal may be shared by several services.
+ *
+ * @author nnolab
+ */
+public class TaskEventJournal {
+
+    /**
+     * Lifecycle event of task. Immutable.
+     */
+    public static final class Event {
+
+        private final long sequence;
+        private final TaskControl control;
+        private final TaskStage stage;
+
+        Event(long sequence, TaskControl control, TaskStage stage) {
+            this.sequence = sequence;
+            this.control = control;
+            this.stage = stage;
+        }
+
+        /**
+         * Get sequence number of event in journal.
+         *
+         * @return sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Get control of task. Current stage of control may
+         * be later, than stage of event.
+         *
+         * @return task control
+         */
+        public TaskControl getTaskControl() {
+            return new TaskControlShell(control);
+        }
+
+        /**
+         * Get stage, task was submitted or moved to.
+         *
+         * @return task stage
+         */
+        public TaskStage getStage() {
+            return stage;
+        }
+    }
+
+    /**
+     * Position of reader in journal. Cursor must be used by one thread at a time.
+     */
+    public final class Cursor {
+
+        private long next;
+        private long lostCount;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        /**
+         * Move all available events, but not more than specified number,
+         * to specified collection. Does not wait.
+         *
+         * @param events    collection to add events
+         * @param maxEvents max number of events to move
+         * @return number of moved events
+         */
+        public int drainTo(Collection<? super Event> events, int maxEvents) {
+            int count = 0;
+            while (count < maxEvents) {
+                Event event = entries.get((int) next & mask);
+                if (event == null || event.sequence < next) {
+                    break;
+                }
+                if (event.sequence > next) {
+                    long oldest = Math.max(sequence.get() - entries.length() + 1, next + 1);
+                    lostCount += oldest - next;
+                    next = oldest;
+                    continue;
+                }
+                events.add(event);
+                next++;
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Move available events to specified collection, waiting
+         * for the first event for specified timeout, if there are
+         * no unread events.
+         *
+         * @param events    collection to add events
+         * @param maxEvents max number of events to move
+         * @param timeout   timeout to wait, negative for infinite waiting
+         * @param unit      unit of timeout
+         * @return number of moved events, 0 if timeout elapsed
+         * @throws NullPointerException if time unit is {@code null}
+         * @throws InterruptedException if current thread interrupted
+         */
+        public int awaitDrainTo(Collection<? super Event> events, int maxEvents,
+                                long timeout, TimeUnit unit) throws InterruptedException {
+            long nanosTimeout = timeout < 0 ? -1L : unit.toNanos(timeout);
+            long deadline = System.nanoTime() + nanosTimeout;
+            Waiter waiter = null;
+            try {
+                while (true) {
+                    int count = drainTo(events, maxEvents);
+                    if (count > 0 || maxEvents <= 0) {
+                        return count;
+                    }
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    if (waiter == null || waiter.thread == null) {
+                        waiter = new Waiter(Thread.currentThread());
+                        Waiter top;
+                        do {
+                            top = waiters.get();
+                            waiter.next = top;
+                        } while (!waiters.compareAndSet(top, waiter));
+                        continue;
+                    }
+                    if (nanosTimeout < 0) {
+                        LockSupport.park(this);
+                    } else {
+                        long nanos = deadline - System.nanoTime();
+                        if (nanos <= 0) {
+                            return 0;
+                        }
+                        LockSupport.parkNanos(this, nanos);
+                    }
+                }
+            } finally {
+                if (waiter != null) {
+                    waiter.thread = null;
+                }
+            }
+        }
+
+        /**
+         * Get sequence number of the next event to read.
+         *
+         * @return sequence number
+         */
+        public long getSequence() {
+            return next;
+        }
+
+        /**
+         * Get number of events, lost because reader fell behind.
+         *
+         * @return number of lost events
+         */
+        public long getLostCount() {
+            return lostCount;
+        }
+    }
+
+    /**
+     * Node of stack of parked readers.
+     */
+    private static final class Waiter {
+
+        volatile Thread thread;
+        Waiter next;
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<Event> entries;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReference<Waiter> waiters = new AtomicReference<>();
+
+    /**
+     * Create journal with specified capacity,
+     * rounded up to power of two.
+     *
+     * @param capacity max number of held events
+     * @throws IllegalArgumentException if capacity is not positive or too large
+     */
+    public TaskEventJournal(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        entries = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * @see #TaskEventJournal(int)
+     */
+    public TaskEventJournal() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Get capacity of journal.
+     *
+     * @return max number of held events
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Get sequence number of the next event to publish,
+     * that is number of events, published ever.
+     *
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Create cursor, positioned after the last published event.
+     *
+     * @return new cursor
+     */
+    public Cursor newCursor() {
+        return new Cursor(sequence.get());
+    }
+
+    /**
+     * Create cursor, positioned at the oldest held event.
+     *
+     * @return new cursor
+     */
+    public Cursor newCursorFromOldest() {
+        return new Cursor(Math.max(sequence.get() - entries.length(), 0));
+    }
+
+    /**
+     * Publish event of specified task control and stage
+     * and wake up parked readers.
+     * Slot, already taken by later event, is not overwritten.
+     *
+     * @param control task control
+     * @param stage   stage of task
+     */
+    public void publish(TaskControl control, TaskStage stage) {
+        long seq = sequence.getAndIncrement();
+        Event event = new Event(seq, control, stage);
+        int index = (int) seq & mask;
+        Event current;
+        do {
+            current = entries.get(index);
+            if (current != null && current.sequence > seq) {
+                break;
+            }
+        } while (!entries.compareAndSet(index, current, event));
+        if (waiters.get() != null) {
+            Waiter waiter = waiters.getAndSet(null);
+            while (waiter != null) {
+                Thread thread = waiter.thread;
+                if (thread != null) {
+                    waiter.thread = null;
+                    LockSupport.unpark(thread);
+                }
+                waiter = waiter.next;
+            }
+        }
+    }
+}
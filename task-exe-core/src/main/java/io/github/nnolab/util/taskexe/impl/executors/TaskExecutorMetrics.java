@@ -0,0 +1,204 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of task execution: counters of submitted, started, completed,
+ * failed, cancelled and denied tasks, and {@link LatencyHistogram}s of
+ * queue wait (from submission to {@code RUNNING}) and run time (from
+ * {@code RUNNING} to the final stage).
+ * Tasks, cancelled before start, have no run time.
+ * <p>Recording is cheap enough to be left on: counters are
+ * {@link LongAdder}s, histograms are striped, and two clock reads
+ * per task are taken only while metrics are attached.
+ * <p>Metrics are attached to services by
+ * {@link AbstractTaskExecutorService#setMetrics(TaskExecutorMetrics)}
+ * and count tasks, submitted after that. One instance may be shared
+ * by several services.
+ *
+ * @author nnolab
+ */
+public class TaskExecutorMetrics {
+
+    /**
+     * State of metrics at some moment. Immutable.
+     */
+    public static final class Snapshot {
+
+        private final long submittedCount;
+        private final long startedCount;
+        private final long completedCount;
+        private final long failedCount;
+        private final long cancelledCount;
+        private final long deniedCount;
+        private final LatencyHistogram.Snapshot queueWait;
+        private final LatencyHistogram.Snapshot runTime;
+
+        private Snapshot(long submittedCount, long startedCount, long completedCount,
+                         long failedCount, long cancelledCount, long deniedCount,
+                         LatencyHistogram.Snapshot queueWait, LatencyHistogram.Snapshot runTime) {
+            this.submittedCount = submittedCount;
+            this.startedCount = startedCount;
+            this.completedCount = completedCount;
+            this.failedCount = failedCount;
+            this.cancelledCount = cancelledCount;
+            this.deniedCount = deniedCount;
+            this.queueWait = queueWait;
+            this.runTime = runTime;
+        }
+
+        /**
+         * Get number of accepted tasks.
+         *
+         * @return number of tasks
+         */
+        public long getSubmittedCount() {
+            return submittedCount;
+        }
+
+        /**
+         * Get number of tasks, which became {@code RUNNING}.
+         *
+         * @return number of tasks
+         */
+        public long getStartedCount() {
+            return startedCount;
+        }
+
+        /**
+         * Get number of tasks, which became {@code COMPLETE}.
+         *
+         * @return number of tasks
+         */
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        /**
+         * Get number of tasks, which became {@code FAILED}.
+         *
+         * @return number of tasks
+         */
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * Get number of tasks, which became {@code CANCELLED} before or after start.
+         *
+         * @return number of tasks
+         */
+        public long getCancelledCount() {
+            return cancelledCount;
+        }
+
+        /**
+         * Get number of tasks, denied by service because
+         * of shutdown or saturation.
+         *
+         * @return number of tasks
+         */
+        public long getDeniedCount() {
+            return deniedCount;
+        }
+
+        /**
+         * Get histogram of time from submission to start of tasks.
+         *
+         * @return histogram snapshot
+         */
+        public LatencyHistogram.Snapshot getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * Get histogram of time from start to finish of tasks.
+         *
+         * @return histogram snapshot
+         */
+        public LatencyHistogram.Snapshot getRunTime() {
+            return runTime;
+        }
+    }
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder startedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final LongAdder deniedCount = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    void taskSubmitted() {
+        submittedCount.increment();
+    }
+
+    void taskStarted(long waitNanos) {
+        startedCount.increment();
+        queueWait.record(waitNanos);
+    }
+
+    /**
+     * Record finish of task.
+     *
+     * @param stage    final stage
+     * @param runNanos run time or negative value, if task was not started
+     */
+    void taskFinished(TaskStage stage, long runNanos) {
+        switch (stage) {
+            case COMPLETE:
+                completedCount.increment();
+                break;
+            case FAILED:
+                failedCount.increment();
+                break;
+            default:
+                cancelledCount.increment();
+                break;
+        }
+        if (runNanos >= 0) {
+            runTime.record(runNanos);
+        }
+    }
+
+    void tasksDenied(int count) {
+        deniedCount.add(count);
+    }
+
+    /**
+     * Get state of metrics since the last reset.
+     *
+     * @return snapshot
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(submittedCount.sum(), startedCount.sum(),
+                completedCount.sum(), failedCount.sum(),
+                cancelledCount.sum(), deniedCount.sum(),
+                queueWait.snapshot(), runTime.snapshot());
+    }
+
+    /**
+     * Get state of metrics since the last reset and reset them.
+     * Tasks, recorded concurrently, fall either to returned snapshot,
+     * or to the next one, so counters of one snapshot may slightly
+     * disagree with each other.
+     *
+     * @return snapshot
+     */
+    public synchronized Snapshot snapshotAndReset() {
+        return new Snapshot(submittedCount.sumThenReset(), startedCount.sumThenReset(),
+                completedCount.sumThenReset(), failedCount.sumThenReset(),
+                cancelledCount.sumThenReset(), deniedCount.sumThenReset(),
+                queueWait.snapshotAndReset(), runTime.snapshotAndReset());
+    }
+
+    /**
+     * Reset metrics.
+     */
+    public synchronized void reset() {
+        snapshotAndReset();
+    }
+}
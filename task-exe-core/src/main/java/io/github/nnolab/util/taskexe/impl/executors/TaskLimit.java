@@ -0,0 +1,145 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.exceptions.SaturatedExecutionException;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit of unfinished (pending and running) tasks of service
+ * with policy of submission, when limit is reached.
+ * Immutable.
+ *
+ * @author nnolab
+ */
+public final class TaskLimit {
+
+    /**
+     * Policy of submission to saturated service.
+     */
+    public enum Policy {
+
+        /**
+         * Wait for free place until timeout, then throw
+         * {@link SaturatedExecutionException}.
+         */
+        BLOCK,
+
+        /**
+         * Throw {@link SaturatedExecutionException} at once.
+         */
+        REJECT,
+
+        /**
+         * Accept task over limit and run it in submitting thread.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Cancel the oldest pending task to free place. If there
+         * are no pending tasks, throw {@link SaturatedExecutionException}.
+         */
+        DISCARD_OLDEST
+    }
+
+    /**
+     * No limit.
+     */
+    public static final TaskLimit UNBOUNDED = new TaskLimit(Integer.MAX_VALUE, Policy.REJECT, 0);
+
+    private final int maxTasks;
+    private final Policy policy;
+    private final long timeoutNanos;
+
+    private TaskLimit(int maxTasks, Policy policy, long timeoutNanos) {
+        if (maxTasks <= 0) {
+            throw new IllegalArgumentException("Invalid max tasks: " + maxTasks);
+        }
+        this.maxTasks = maxTasks;
+        this.policy = Objects.requireNonNull(policy);
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Create limit with {@link Policy#BLOCK} policy.
+     *
+     * @param maxTasks max number of unfinished tasks
+     * @param timeout  max waiting time, negative for endless waiting
+     * @param unit     unit of timeout
+     * @return task limit
+     * @throws IllegalArgumentException if max tasks is not positive
+     * @throws NullPointerException     if time unit is {@code null}
+     */
+    public static TaskLimit block(int maxTasks, long timeout, TimeUnit unit) {
+        return new TaskLimit(maxTasks, Policy.BLOCK, timeout < 0 ? -1 : unit.toNanos(timeout));
+    }
+
+    /**
+     * Create limit with {@link Policy#REJECT} policy.
+     *
+     * @param maxTasks max number of unfinished tasks
+     * @return task limit
+     * @throws IllegalArgumentException if max tasks is not positive
+     */
+    public static TaskLimit reject(int maxTasks) {
+        return new TaskLimit(maxTasks, Policy.REJECT, 0);
+    }
+
+    /**
+     * Create limit with {@link Policy#CALLER_RUNS} policy.
+     *
+     * @param maxTasks max number of unfinished tasks
+     * @return task limit
+     * @throws IllegalArgumentException if max tasks is not positive
+     */
+    public static TaskLimit callerRuns(int maxTasks) {
+        return new TaskLimit(maxTasks, Policy.CALLER_RUNS, 0);
+    }
+
+    /**
+     * Create limit with {@link Policy#DISCARD_OLDEST} policy.
+     *
+     * @param maxTasks max number of unfinished tasks
+     * @return task limit
+     * @throws IllegalArgumentException if max tasks is not positive
+     */
+    public static TaskLimit discardOldest(int maxTasks) {
+        return new TaskLimit(maxTasks, Policy.DISCARD_OLDEST, 0);
+    }
+
+    /**
+     * Get max number of unfinished tasks.
+     *
+     * @return max number of tasks
+     */
+    public int getMaxTasks() {
+        return maxTasks;
+    }
+
+    /**
+     * Get policy of submission to saturated service.
+     *
+     * @return policy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get max waiting time of {@link Policy#BLOCK} policy.
+     *
+     * @return timeout in nanoseconds, negative for endless waiting
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * Check, that limit is {@link #UNBOUNDED}.
+     *
+     * @return {@code true} if there is no limit
+     */
+    public boolean isUnbounded() {
+        return maxTasks == Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,379 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import io.github.nnolab.util.taskexe.impl.executors.shells.TaskControlShell;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+
+/**
+ * A {@link TaskExecutorService} with own pool of worker threads.
+ * Every worker has its own deque of tasks: tasks, submitted by worker thread,
+ * are pushed to and taken from the head of its deque (LIFO), idle workers
+ * steal tasks from the tail of deques of other workers (FIFO).
+ * Tasks, submitted by other threads, are taken from common FIFO queue.
+ * <p>Task controls are held in concurrent registry, without global lock.
+ * <p>With zero parallelism there are no workers, and tasks are executed
+ * synchronously by submitting thread.
+ *
+ * @author nnolab
+ */
+public class WorkStealingTaskExecutorService extends AbstractTaskExecutorService {
+
+    /**
+     * Control of pooled task.
+     */
+    private class PooledTaskControl extends InnerTaskControl {
+
+        final boolean lent;
+
+        PooledTaskControl(Task task, Context context, boolean lent) {
+            super(task, context, WorkStealingTaskExecutorService.this);
+            this.lent = lent;
+        }
+    }
+
+    /**
+     * Worker with its own deque.
+     */
+    private class Worker implements Runnable {
+
+        final int index;
+        final Deque<PooledTaskControl> deque = new ConcurrentLinkedDeque<>();
+        volatile Thread thread;
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Take task from own deque, common queue
+         * or deques of other workers.
+         *
+         * @return task control or {@code null} if there are no tasks
+         */
+        PooledTaskControl next() {
+            PooledTaskControl taskControl = deque.pollFirst();
+            if (taskControl == null) {
+                taskControl = submissions.poll();
+            }
+            for (int i = 1; taskControl == null && i < workers.length; i++) {
+                taskControl = workers[(index + i) % workers.length].deque.pollLast();
+            }
+            return taskControl;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            currentWorker.set(this);
+            boolean normal = false;
+            try {
+                work();
+                normal = true;
+            } finally {
+                currentWorker.remove();
+                if (!normal && !terminated) {
+                    start();
+                }
+            }
+        }
+
+        private void work() {
+            while (true) {
+                PooledTaskControl taskControl = next();
+                if (taskControl != null) {
+                    runTask(taskControl);
+                    continue;
+                }
+                if (terminated) {
+                    return;
+                }
+                idle.add(this);
+                taskControl = next();
+                if (taskControl != null) {
+                    idle.remove(this);
+                    runTask(taskControl);
+                    continue;
+                }
+                if (terminated) {
+                    idle.remove(this);
+                    return;
+                }
+                LockSupport.park(this);
+                idle.remove(this);
+            }
+        }
+
+        void start() {
+            threadFactory.newThread(this).start();
+        }
+    }
+
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    /**
+     * Default thread factory, creating daemon threads.
+     */
+    private static ThreadFactory defaultThreadFactory() {
+        int pool = poolNumber.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "task-exe-" + pool + "-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    protected final ThreadFactory threadFactory;
+    protected final TaskContextFactory contextFactory;
+
+    private final Worker[] workers;
+    private final Queue<PooledTaskControl> submissions = new ConcurrentLinkedQueue<>();
+    private final Queue<Worker> idle = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+    private final Set<PooledTaskControl> taskControls = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create task executor service with specified number of workers,
+     * threads of which are created by specified thread factory.
+     * Workers are started at once.
+     * <p>If context factory is specified, tasks, submitted without context,
+     * get context from it, and context is returned back, when task is finished.
+     *
+     * @param parallelism    number of workers, 0 for synchronous execution
+     * @param threadFactory  factory of worker threads
+     * @param contextFactory factory of contexts for tasks without context,
+     *                       may be {@code null}
+     * @throws IllegalArgumentException if parallelism is negative
+     * @throws NullPointerException     if thread factory is {@code null}
+     */
+    public WorkStealingTaskExecutorService(int parallelism, ThreadFactory threadFactory,
+                                           TaskContextFactory contextFactory) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.threadFactory = Objects.requireNonNull(threadFactory);
+        this.contextFactory = contextFactory;
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * @see #WorkStealingTaskExecutorService(int, ThreadFactory, TaskContextFactory)
+     */
+    public WorkStealingTaskExecutorService(int parallelism, ThreadFactory threadFactory) {
+        this(parallelism, threadFactory, null);
+    }
+
+    /**
+     * Create task executor service with specified number of workers
+     * in daemon threads.
+     *
+     * @see #WorkStealingTaskExecutorService(int, ThreadFactory, TaskContextFactory)
+     */
+    public WorkStealingTaskExecutorService(int parallelism) {
+        this(parallelism, defaultThreadFactory());
+    }
+
+    /**
+     * Create task executor service with worker for every available processor.
+     *
+     * @see #WorkStealingTaskExecutorService(int)
+     */
+    public WorkStealingTaskExecutorService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Get number of workers.
+     *
+     * @return number of workers
+     */
+    public int getParallelism() {
+        return workers.length;
+    }
+
+    /**
+     * Run task, if it is not cancelled, and exclude it from service.
+     *
+     * @param taskControl control of task
+     */
+    private void runTask(PooledTaskControl taskControl) {
+        boolean started = taskControl.tryUpdateTaskStage(PENDING, RUNNING);
+        if (started) {
+            signalAction();
+            taskControl.updateTaskStage(executeTask(taskControl));
+        }
+        taskControls.remove(taskControl);
+        reclaimContext(taskControl.getTask(), taskControl.getContext(), contextFactory, taskControl.lent);
+        taskExcluded(started);
+        rethrowThreadDeath(taskControl);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Idle workers are woken up to exit.
+     */
+    @Override
+    protected void onTermination() {
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Task, submitted by worker of this service, is pushed to
+     * the head of worker deque.
+     */
+    @Override
+    public TaskControl execute(Task task, Context context) {
+        Objects.requireNonNull(task);
+        Context taskContext = acquireTask(task, context, contextFactory);
+        PooledTaskControl taskControl = new PooledTaskControl(task, taskContext, isLent(context, contextFactory));
+        taskControl.submitted();
+        taskControls.add(taskControl);
+        signalAction();
+        if (workers.length == 0) {
+            runTask(taskControl);
+        } else {
+            push(currentWorker.get(), taskControl);
+            wakeUp(1);
+        }
+        return new TaskControlShell(taskControl);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Whole batch is acquired, registered and signalled at once,
+     * then pushed to queues and no more idle workers, than tasks
+     * in batch, are woken up.
+     */
+    @Override
+    public TaskBatchControl executeAll(Collection<? extends Task> tasks,
+                                       Function<? super Task, ? extends Context> contexts) {
+        Objects.requireNonNull(contexts);
+        Task[] batch = tasks.toArray(new Task[0]);
+        PooledTaskControl[] batchControls = new PooledTaskControl[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            Task task = Objects.requireNonNull(batch[i]);
+            Context context = contexts.apply(task);
+            batchControls[i] = new PooledTaskControl(task, lendContext(task, context, contextFactory),
+                    isLent(context, contextFactory));
+        }
+        if (!acquireTasks(batch.length)) {
+            for (PooledTaskControl taskControl : batchControls) {
+                reclaimContext(taskControl.getTask(), taskControl.getContext(), contextFactory, taskControl.lent);
+            }
+            throw new DeniedExecutionException();
+        }
+        for (PooledTaskControl taskControl : batchControls) {
+            taskControl.submitted();
+        }
+        taskControls.addAll(Arrays.asList(batchControls));
+        signalAction();
+        TaskControl[] shells = new TaskControl[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            shells[i] = new TaskControlShell(batchControls[i]);
+        }
+        if (workers.length == 0) {
+            for (PooledTaskControl taskControl : batchControls) {
+                runTask(taskControl);
+            }
+        } else {
+            Worker worker = currentWorker.get();
+            for (PooledTaskControl taskControl : batchControls) {
+                push(worker, taskControl);
+            }
+            wakeUp(batch.length);
+        }
+        return TaskBatchControl.of(shells);
+    }
+
+    /**
+     * Push task to the head of deque of specified worker
+     * or to common queue, if worker is {@code null}.
+     *
+     * @param worker      current worker or {@code null}
+     * @param taskControl control of task
+     */
+    private void push(Worker worker, PooledTaskControl taskControl) {
+        if (worker != null) {
+            worker.deque.addFirst(taskControl);
+        } else {
+            submissions.add(taskControl);
+        }
+    }
+
+    /**
+     * Wake up no more than specified number of idle workers.
+     *
+     * @param count max number of workers to wake up
+     */
+    private void wakeUp(int count) {
+        for (int i = 0; i < count; i++) {
+            Worker idleWorker = idle.poll();
+            if (idleWorker == null) {
+                return;
+            }
+            LockSupport.unpark(idleWorker.thread);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getTaskCount() {
+        return taskControls.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tasks getTasks() {
+        SeparatedTasks tasks = new SeparatedTasks(taskControls.size());
+        for (PooledTaskControl taskControl : taskControls) {
+            tasks.add(new TaskControlShell(taskControl));
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        if (startShutdown()) {
+            signalAction();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Running tasks are not interrupted.
+     */
+    @Override
+    public void shutdownNow() {
+        if (startShutdown()) {
+            for (PooledTaskControl taskControl : taskControls) {
+                taskControl.tryUpdateTaskStage(PENDING, CANCELLED);
+            }
+            signalAction();
+        }
+    }
+}
@@ -4,7 +4,9 @@ import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.*;
 import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * A {@link TaskControl} implementation that encapsulates instance
@@ -91,6 +93,16 @@ public class TaskControlShell implements TaskControl {
         return original.awaitNextStage(startStage, timeout, unit);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Callback receives this shell, not original control.
+     */
+    @Override
+    public void onStage(TaskStage stage, Consumer<TaskControl> callback) {
+        Objects.requireNonNull(callback);
+        original.onStage(stage, tc -> callback.accept(this));
+    }
+
     /**
      * {@inheritDoc}
      */
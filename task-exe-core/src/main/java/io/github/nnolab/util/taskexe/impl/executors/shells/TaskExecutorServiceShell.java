@@ -3,7 +3,10 @@ package io.github.nnolab.util.taskexe.impl.executors.shells;
 import io.github.nnolab.util.context.Context;
 import io.github.nnolab.util.taskexe.*;
 
+import java.util.Collection;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * A {@link TaskExecutorService} implementation that encapsulates instance
@@ -32,6 +35,23 @@ public class TaskExecutorServiceShell implements TaskExecutorService {
         return original.execute(task, context);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<TaskControl> tryExecute(Task task, Context context) {
+        return original.tryExecute(task, context);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskBatchControl executeAll(Collection<? extends Task> tasks,
+                                       Function<? super Task, ? extends Context> contexts) {
+        return original.executeAll(tasks, contexts);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,191 @@
+package io.github.nnolab.util.taskexe.impl.graph;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+
+import java.util.*;
+
+/**
+ * Builder of directed acyclic graph of tasks, which share one context.
+ * Nodes of graph are tasks, edges say "runs after".
+ * <p>Execution of graph by {@link #execute(TaskExecutor, Context)}
+ * submits every node to executor as soon as all its predecessors are complete,
+ * so independent branches run in parallel. Node is submitted by thread,
+ * that completed its last predecessor, and no thread is blocked waiting
+ * for dependencies. Failure or cancellation of node cancels all nodes
+ * downstream of it.
+ * <p>Graph may be executed several times. Changes of graph do not affect
+ * executions, already started.
+ * Not thread-safe.
+ *
+ * @author nnolab
+ */
+public class TaskGraph {
+
+    /**
+     * Node of graph.
+     */
+    public final class Node {
+
+        private final int index;
+        private final Task task;
+        private final Set<Node> successors = new LinkedHashSet<>();
+
+        private Node(int index, Task task) {
+            this.index = index;
+            this.task = task;
+        }
+
+        /**
+         * Get task of node.
+         *
+         * @return task
+         */
+        public Task getTask() {
+            return task;
+        }
+
+        /**
+         * Get index of node in graph, which is index of its control
+         * in {@link TaskGraphControl}.
+         *
+         * @return index of node
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Make this node run after all specified nodes.
+         *
+         * @param predecessors nodes to run before
+         * @return this node
+         * @throws IllegalArgumentException if any node belongs to another graph
+         */
+        public Node after(Node... predecessors) {
+            for (Node predecessor : predecessors) {
+                addEdge(predecessor, this);
+            }
+            return this;
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Add node with specified task to graph.
+     *
+     * @param task task
+     * @return new node
+     * @throws NullPointerException if task is {@code null}
+     */
+    public Node add(Task task) {
+        Node node = new Node(nodes.size(), Objects.requireNonNull(task));
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Add node with specified task, running after all specified nodes.
+     *
+     * @param task         task
+     * @param predecessors nodes to run before
+     * @return new node
+     * @throws NullPointerException     if task is {@code null}
+     * @throws IllegalArgumentException if any node belongs to another graph
+     */
+    public Node add(Task task, Node... predecessors) {
+        return add(task).after(predecessors);
+    }
+
+    /**
+     * Add edge: node {@code after} runs after node {@code before}.
+     *
+     * @param before node to run before
+     * @param after  node to run after
+     * @throws IllegalArgumentException if any node belongs to another graph
+     *                                  or nodes are the same
+     */
+    public void addEdge(Node before, Node after) {
+        if (!contains(before) || !contains(after)) {
+            throw new IllegalArgumentException("Node of another graph");
+        }
+        if (before == after) {
+            throw new IllegalArgumentException("Self-dependent node");
+        }
+        before.successors.add(after);
+    }
+
+    private boolean contains(Node node) {
+        return node.index < nodes.size() && nodes.get(node.index) == node;
+    }
+
+    /**
+     * Get number of nodes in graph.
+     *
+     * @return number of nodes
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Start execution of graph on specified executor with specified context,
+     * shared by all tasks. Nodes without predecessors are submitted at once.
+     * If executor denies execution of some node, it is cancelled.
+     *
+     * @param executor executor
+     * @param context  context of tasks, may be {@code null}
+     * @return control over execution of graph
+     * @throws NullPointerException  if executor is {@code null}
+     * @throws IllegalStateException if graph has cycle
+     */
+    public TaskGraphControl execute(TaskExecutor executor, Context context) {
+        Objects.requireNonNull(executor);
+        int size = nodes.size();
+        Task[] tasks = new Task[size];
+        int[][] successors = new int[size][];
+        int[] predecessors = new int[size];
+        for (Node node : nodes) {
+            tasks[node.index] = node.task;
+            int[] next = new int[node.successors.size()];
+            int i = 0;
+            for (Node successor : node.successors) {
+                next[i++] = successor.index;
+                predecessors[successor.index]++;
+            }
+            successors[node.index] = next;
+        }
+        checkAcyclic(successors, predecessors.clone());
+        TaskGraphControl control = new TaskGraphControl(tasks, successors, predecessors, executor, context);
+        control.start();
+        return control;
+    }
+
+    /**
+     * Check graph has no cycles by topological sort.
+     *
+     * @param successors   successors of nodes
+     * @param predecessors numbers of predecessors of nodes, consumed by check
+     * @throws IllegalStateException if graph has cycle
+     */
+    private static void checkAcyclic(int[][] successors, int[] predecessors) {
+        int[] queue = new int[predecessors.length];
+        int end = 0;
+        for (int i = 0; i < predecessors.length; i++) {
+            if (predecessors[i] == 0) {
+                queue[end++] = i;
+            }
+        }
+        for (int cur = 0; cur < end; cur++) {
+            for (int next : successors[queue[cur]]) {
+                if (--predecessors[next] == 0) {
+                    queue[end++] = next;
+                }
+            }
+        }
+        if (end != predecessors.length) {
+            throw new IllegalStateException("Graph has cycle");
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.nnolab.util.taskexe.impl.graph;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.impl.executors.AtomicTaskControl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+
+/**
+ * Control over execution of {@link TaskGraph}.
+ * Controls of nodes are iterated in order of node indices.
+ * <p>Node stays {@code PENDING} until it is submitted to executor
+ * and started, and becomes {@code CANCELLED} without start, if any
+ * upstream node failed or was cancelled, if executor denied or failed
+ * to accept it, or if executor itself cancelled it before start
+ * (for example by {@link TaskExecutorService#shutdownNow()}).
+ *
+ * @author nnolab
+ */
+public class TaskGraphControl implements TaskBatchControl {
+
+    /**
+     * Control of node, which follows stages of node execution.
+     */
+    private class NodeControl extends AtomicTaskControl {
+
+        final int index;
+        volatile TaskControl submitted;
+
+        NodeControl(int index, Task task) {
+            super(task, TaskGraphControl.this.context, TaskGraphControl.this.executor);
+            this.index = index;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>Node, that is not started yet, is cancelled with all nodes downstream.
+         */
+        @Override
+        public void cancelTask() {
+            if (tryUpdateTaskStage(PENDING, CANCELLED)) {
+                cancelDownstream(index);
+                TaskControl taskControl = submitted;
+                if (taskControl != null) {
+                    taskControl.cancelTask();
+                }
+            } else if (task instanceof InterruptableTask) {
+                ((InterruptableTask) task).interrupt();
+            }
+        }
+    }
+
+    private final int[][] successors;
+    private final AtomicIntegerArray remaining;
+    private final TaskExecutor executor;
+    private final Context context;
+    private final NodeControl[] nodeControls;
+    private final TaskBatchControl batch;
+
+    TaskGraphControl(Task[] tasks, int[][] successors, int[] predecessors,
+                     TaskExecutor executor, Context context) {
+        this.successors = successors;
+        this.remaining = new AtomicIntegerArray(predecessors);
+        this.executor = executor;
+        this.context = context;
+        nodeControls = new NodeControl[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            nodeControls[i] = new NodeControl(i, tasks[i]);
+        }
+        batch = TaskBatchControl.of(nodeControls);
+    }
+
+    /**
+     * Submit nodes without predecessors.
+     */
+    void start() {
+        for (int i = 0; i < nodeControls.length; i++) {
+            if (remaining.get(i) == 0) {
+                submit(i);
+            }
+        }
+    }
+
+    /**
+     * Submit node to executor, if it is not cancelled.
+     * If executor denies or fails to accept node, it is cancelled
+     * with all nodes downstream, so other successors are still submitted.
+     *
+     * @param index index of node
+     */
+    private void submit(int index) {
+        NodeControl nodeControl = nodeControls[index];
+        if (nodeControl.getTaskStage() != PENDING) {
+            return;
+        }
+        TaskControl taskControl;
+        try {
+            taskControl = executor.execute(c -> run(nodeControl), context);
+        } catch (RuntimeException e) {
+            nodeControl.cancelTask();
+            return;
+        }
+        nodeControl.submitted = taskControl;
+        try {
+            taskControl.onStage(CANCELLED, c -> nodeControl.cancelTask());
+        } catch (UnsupportedOperationException e) {
+            // control can not report cancellation by executor
+        }
+    }
+
+    /**
+     * Run task of node and release or cancel its successors.
+     *
+     * @param nodeControl control of node
+     * @throws Throwable failure of task
+     */
+    private void run(NodeControl nodeControl) throws Throwable {
+        if (!nodeControl.tryUpdateTaskStage(PENDING, RUNNING)) {
+            return;
+        }
+        Task task = nodeControl.getTask();
+        try {
+            //---------------------
+            task.execute(context);
+            //---------------------
+        } catch (Throwable e) {
+            nodeControl.setFailureCause(e);
+            nodeControl.updateTaskStage(FAILED);
+            cancelDownstream(nodeControl.index);
+            throw e;
+        }
+        if ((task instanceof InterruptableTask)
+                && ((InterruptableTask) task).isInterrupted()) {
+            nodeControl.updateTaskStage(CANCELLED);
+            cancelDownstream(nodeControl.index);
+            return;
+        }
+        nodeControl.updateTaskStage(COMPLETE);
+        for (int next : successors[nodeControl.index]) {
+            if (remaining.decrementAndGet(next) == 0) {
+                submit(next);
+            }
+        }
+    }
+
+    /**
+     * Cancel all not started nodes, reachable from specified node.
+     *
+     * @param index index of node
+     */
+    private void cancelDownstream(int index) {
+        int[] stack = new int[nodeControls.length];
+        int top = 0;
+        stack[top++] = index;
+        while (top > 0) {
+            for (int next : successors[stack[--top]]) {
+                if (nodeControls[next].tryUpdateTaskStage(PENDING, CANCELLED)) {
+                    stack[top++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get control of specified node.
+     *
+     * @param node node of executed graph
+     * @return control of node
+     * @throws IndexOutOfBoundsException if node was added to graph after start of execution
+     */
+    public TaskControl get(TaskGraph.Node node) {
+        return nodeControls[node.getIndex()];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return batch.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskControl get(int index) {
+        return batch.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getStageCount(TaskControl.TaskStage stage) {
+        return batch.getStageCount(stage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinished() {
+        return batch.isFinished();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void awaitAll() throws InterruptedException {
+        batch.awaitAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean awaitAll(long timeout, TimeUnit unit) throws InterruptedException {
+        return batch.awaitAll(timeout, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelAll() {
+        batch.cancelAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<TaskControl> iterator() {
+        return batch.iterator();
+    }
+}
@@ -1,10 +1,21 @@
 package io.github.nnolab.util.taskexe.impl.executors;
 
-import io.github.nnolab.util.taskexe.TaskExecutorService;
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.pool.ContextPool;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.exceptions.SaturatedExecutionException;
+import io.github.nnolab.util.taskexe.test.ContextTI;
+import org.junit.Test;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.*;
-import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.*;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
 
 /**
  * Base class for testing {@link TaskExecutorService}, delegating
@@ -25,6 +36,28 @@ public abstract class AbstractExecutorProxyServiceTestCase<T extends TaskExecuto
      */
     protected abstract Function<Executor, T> getConstructor();
 
+    /**
+     * Get constructor, accepting executor and context factory.
+     *
+     * @return constructor, accepting executor and context factory
+     */
+    protected abstract BiFunction<Executor, TaskContextFactory, T> getContextFactoryConstructor();
+
+    /**
+     * Get constructor, accepting executor and task limit.
+     *
+     * @return constructor, accepting executor and task limit
+     */
+    protected abstract BiFunction<Executor, TaskLimit, T> getTaskLimitConstructor();
+
+    /**
+     * Get constructor, accepting executor and concurrency limit.
+     * Constructed service shuts down executor.
+     *
+     * @return constructor, accepting executor and concurrency limit
+     */
+    protected abstract BiFunction<Executor, AdaptiveConcurrencyLimit, T> getConcurrencyLimitConstructor();
+
     /**
      * {@inheritDoc}
      */
@@ -48,4 +81,286 @@ public abstract class AbstractExecutorProxyServiceTestCase<T extends TaskExecuto
     protected T getAsynchronousSingleThreadTaskExecutor(ThreadFactory threadFactory) {
         return getConstructor().apply(Executors.newSingleThreadExecutor(Objects.requireNonNull(threadFactory)));
     }
+
+    @Test
+    public void testContextFactory() throws Exception {
+
+        ContextPool<Context> pool = new ContextPool<>(() -> new ContextTI(1));
+        Context pooled = pool.borrow();
+        pooled.put("key", "value");
+        pool.release(pooled);
+        assertTrue(pooled.isEmpty());
+
+        T taskExecutor = getContextFactoryConstructor().apply(Runnable::run, TaskContextFactory.pooled(pool));
+        AtomicReference<Context> used = new AtomicReference<>();
+
+        TaskControl taskControl = taskExecutor.execute(context -> {
+            used.set(context);
+            context.put("key", 1);
+        }, null);
+        assertEquals(COMPLETE, taskControl.getTaskStage());
+        assertSame(pooled, used.get());
+        assertTrue(pooled.isEmpty());
+        assertEquals(1, pool.getLocalSize());
+
+        taskControl = taskExecutor.execute(context -> {
+            used.set(context);
+            throw new Exception();
+        }, null);
+        assertEquals(FAILED, taskControl.getTaskStage());
+        assertSame(pooled, used.get());
+        assertEquals(1, pool.getLocalSize());
+
+        Context own = new ContextTI(1);
+        taskExecutor.execute(used::set, own);
+        assertSame(own, used.get());
+        assertEquals(1, pool.getLocalSize());
+
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.isTerminated());
+    }
+
+    @Test
+    public void testTaskCounters() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AbstractTaskExecutorService taskExecutor =
+                (AbstractTaskExecutorService) getConstructor().apply(executor);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskControl blocking = taskExecutor.execute(context -> latch.await(), null);
+        TaskControl pending = taskExecutor.execute(context -> {
+        }, null);
+        assertEquals(RUNNING, blocking.awaitNextStage(PENDING));
+        while (taskExecutor.getRunningTaskCount() == 0) {
+            Thread.yield();
+        }
+        assertEquals(1, taskExecutor.getRunningTaskCount());
+        assertEquals(1, taskExecutor.getPendingTaskCount());
+        assertEquals(0, taskExecutor.getFinishedTaskCount());
+
+        pending.cancelTask();
+        assertEquals(0, taskExecutor.getPendingTaskCount());
+        assertEquals(1, taskExecutor.getFinishedTaskCount());
+
+        taskExecutor.shutdown();
+        assertFalse(taskExecutor.isTerminated());
+        latch.countDown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(0, taskExecutor.getRunningTaskCount());
+        assertEquals(0, taskExecutor.getPendingTaskCount());
+        assertEquals(2, taskExecutor.getFinishedTaskCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRejectingTaskLimit() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        T taskExecutor = getTaskLimitConstructor().apply(executor, TaskLimit.reject(2));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskControl blocking = taskExecutor.execute(context -> latch.await(), null);
+        TaskControl pending = taskExecutor.execute(context -> {
+        }, null);
+        try {
+            taskExecutor.execute(context -> fail(), null);
+            fail();
+        } catch (SaturatedExecutionException e) {
+            // expected
+        }
+        assertFalse(taskExecutor.tryExecute(context -> fail(), null).isPresent());
+        assertEquals(2, taskExecutor.getTaskCount());
+
+        latch.countDown();
+        assertEquals(COMPLETE, pending.awaitNextStage(RUNNING, 1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, blocking.getTaskStage());
+        Optional<TaskControl> accepted = Optional.empty();
+        while (!accepted.isPresent()) {
+            accepted = taskExecutor.tryExecute(context -> {
+            }, null);
+        }
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, accepted.get().getTaskStage());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testBlockingTaskLimit() throws Exception {
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        T taskExecutor = getTaskLimitConstructor().apply(executor, TaskLimit.block(1, 20, TimeUnit.MILLISECONDS));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        taskExecutor.execute(context -> latch.await(), null);
+        long start = System.nanoTime();
+        try {
+            taskExecutor.execute(context -> fail(), null);
+            fail();
+        } catch (SaturatedExecutionException e) {
+            // expected
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        T waitingExecutor = getTaskLimitConstructor().apply(executor, TaskLimit.block(1, -1, TimeUnit.MILLISECONDS));
+        CountDownLatch waitingLatch = new CountDownLatch(1);
+        waitingExecutor.execute(context -> waitingLatch.await(), null);
+        new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            waitingLatch.countDown();
+        }).start();
+        TaskControl taskControl = waitingExecutor.execute(context -> {
+        }, null);
+        latch.countDown();
+        assertEquals(COMPLETE, taskControl.awaitNextStage(RUNNING, 1, TimeUnit.SECONDS));
+
+        taskExecutor.shutdown();
+        waitingExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(waitingExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCallerRunsTaskLimit() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        T taskExecutor = getTaskLimitConstructor().apply(executor, TaskLimit.callerRuns(1));
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        taskExecutor.execute(context -> latch.await(), null);
+        TaskControl taskControl = taskExecutor.execute(context -> thread.set(Thread.currentThread()), null);
+        assertEquals(COMPLETE, taskControl.getTaskStage());
+        assertSame(Thread.currentThread(), thread.get());
+
+        latch.countDown();
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDiscardOldestTaskLimit() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        T taskExecutor = getTaskLimitConstructor().apply(executor, TaskLimit.discardOldest(2));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskControl blocking = taskExecutor.execute(context -> latch.await(), null);
+        assertEquals(RUNNING, blocking.awaitNextStage(PENDING));
+        TaskControl oldest = taskExecutor.execute(context -> {
+        }, null);
+        TaskControl newest = taskExecutor.execute(context -> {
+        }, null);
+        assertEquals(CANCELLED, oldest.getTaskStage());
+        assertEquals(RUNNING, blocking.getTaskStage());
+
+        latch.countDown();
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, newest.getTaskStage());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFixedConcurrencyLimit() throws Exception {
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 2);
+        T taskExecutor = getConcurrencyLimitConstructor().apply(executor, limit);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        TaskControl[] taskControls = new TaskControl[10];
+        for (int i = 0; i < taskControls.length; i++) {
+            taskControls[i] = taskExecutor.execute(context -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                latch.await();
+                running.decrementAndGet();
+            }, null);
+        }
+        assertEquals(RUNNING, taskControls[0].awaitNextStage(PENDING, 1, TimeUnit.SECONDS));
+        assertEquals(RUNNING, taskControls[1].awaitNextStage(PENDING, 1, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        for (int i = 2; i < taskControls.length; i++) {
+            assertEquals(PENDING, taskControls[i].getTaskStage());
+        }
+        taskControls[2].cancelTask();
+        assertEquals(taskControls.length - 1, taskExecutor.getTaskCount());
+
+        taskExecutor.shutdown();
+        assertFalse(executor.isShutdown());
+        latch.countDown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(CANCELLED, taskControls[2].getTaskStage());
+        for (int i = 0; i < taskControls.length; i++) {
+            if (i != 2) {
+                assertEquals(COMPLETE, taskControls[i].getTaskStage());
+            }
+        }
+        assertEquals(0, limit.getInFlight());
+        assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    public void testShutdownWithConcurrencyLimit() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        T taskExecutor = getConcurrencyLimitConstructor().apply(executor, new AdaptiveConcurrencyLimit(1, 1, 1));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskControl blocking = taskExecutor.execute(context -> latch.await(), null);
+        TaskControl[] gated = new TaskControl[5];
+        for (int i = 0; i < gated.length; i++) {
+            gated[i] = taskExecutor.execute(context -> {
+            }, null);
+        }
+        taskExecutor.shutdown();
+        latch.countDown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, blocking.getTaskStage());
+        for (TaskControl taskControl : gated) {
+            assertEquals(COMPLETE, taskControl.getTaskStage());
+        }
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAdaptiveConcurrencyLimit() throws Exception {
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        Semaphore downstream = new Semaphore(4);
+        AdaptiveConcurrencyLimit overloaded = new AdaptiveConcurrencyLimit(40, 1, 200);
+        T taskExecutor = getConcurrencyLimitConstructor().apply(executor, overloaded);
+        for (int i = 0; i < 1000; i++) {
+            taskExecutor.execute(context -> {
+                downstream.acquire();
+                try {
+                    Thread.sleep(1);
+                } finally {
+                    downstream.release();
+                }
+            }, null);
+        }
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(overloaded.getLimit() < 40);
+
+        AdaptiveConcurrencyLimit underloaded = new AdaptiveConcurrencyLimit(2, 1, 200);
+        taskExecutor = getConcurrencyLimitConstructor().apply(Executors.newCachedThreadPool(), underloaded);
+        for (int i = 0; i < 1000; i++) {
+            taskExecutor.execute(context -> Thread.sleep(1), null);
+        }
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(underloaded.getLimit() > 2);
+    }
 }
@@ -7,7 +7,7 @@ import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
 import org.junit.Test;
 
 import java.util.*;
-import java.util.concurrent.Phaser;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 import static java.util.concurrent.TimeUnit.*;
@@ -75,6 +75,90 @@ public abstract class AbstractTaskExecutorServiceTestCase<T extends TaskExecutor
         }
     }
 
+    @Test
+    public void testCompletionCallbacks() throws Exception {
+
+        final T taskExecutorService = getAsynchronousSingleThreadTaskExecutor();
+        final int tasks = 100;
+        final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor();
+        final AtomicInteger completed = new AtomicInteger();
+        final List<CompletableFuture<TaskControl>> futures = new ArrayList<>();
+
+        for (int i = 0; i < tasks; i++) {
+            TaskControl taskControl = taskExecutorService.execute(c -> {
+            }, null);
+            taskControl.onStage(COMPLETE, tc -> completed.incrementAndGet(), callbackExecutor);
+            futures.add(taskControl.toCompletableFuture());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, SECONDS);
+        for (CompletableFuture<TaskControl> future : futures) {
+            assertEquals(COMPLETE, future.get().getTaskStage());
+        }
+
+        TaskControl failed = taskExecutorService.execute(c -> {
+            throw new IllegalStateException();
+        }, null);
+        try {
+            failed.toCompletableFuture().get(1, SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        callbackExecutor.shutdown();
+        assertTrue(callbackExecutor.awaitTermination(1, SECONDS));
+        assertEquals(tasks, completed.get());
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, SECONDS));
+    }
+
+    @Test
+    public void testExecuteAll() throws Exception {
+
+        final T taskExecutorService = getAsynchronousSingleThreadTaskExecutor();
+        final Context context = getContext();
+        final AtomicInteger executed = new AtomicInteger();
+        final List<Task> tasks = new ArrayList<>();
+        final int batchSize = 100;
+
+        for (int i = 0; i < batchSize; i++) {
+            tasks.add(c -> {
+                assertSame(context, c);
+                executed.incrementAndGet();
+            });
+        }
+        tasks.add(c -> {
+            throw new Exception();
+        });
+
+        TaskBatchControl batch = taskExecutorService.executeAll(tasks, task -> context);
+        assertEquals(batchSize + 1, batch.size());
+        batch.awaitAll();
+        assertTrue(batch.isFinished());
+        assertEquals(batchSize, executed.get());
+        assertEquals(batchSize, batch.getStageCount(COMPLETE));
+        assertEquals(1, batch.getStageCount(FAILED));
+        assertEquals(0, batch.getStageCount(PENDING));
+        assertSame(tasks.get(batchSize), batch.get(batchSize).getTask());
+
+        int i = 0;
+        for (TaskControl taskControl : batch) {
+            assertSame(tasks.get(i++), taskControl.getTask());
+        }
+
+        batch = taskExecutorService.executeAll(Collections.emptyList(), task -> context);
+        assertEquals(0, batch.size());
+        assertTrue(batch.awaitAll(0, MILLISECONDS));
+
+        taskExecutorService.shutdown();
+        try {
+            taskExecutorService.executeAll(tasks, task -> context);
+            fail();
+        } catch (DeniedExecutionException e) {
+            assertEquals(batchSize, executed.get());
+        }
+    }
+
     @Test
     public void testShutdown() throws Exception {
 
@@ -0,0 +1,241 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.Task;
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.TaskExecutor;
+import io.github.nnolab.util.taskexe.exceptions.UselessWaitingException;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AtomicTaskControl}.
+ *
+ * @author nnolab
+ */
+public class AtomicTaskControlTestCase {
+
+    @Test
+    public void testStageUpdate() {
+
+        AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+        assertEquals(PENDING, taskControl.getTaskStage());
+        assertFalse(taskControl.tryUpdateTaskStage(RUNNING, COMPLETE));
+        assertTrue(taskControl.tryUpdateTaskStage(PENDING, RUNNING));
+        assertFalse(taskControl.tryUpdateTaskStage(PENDING, RUNNING));
+        taskControl.cancelTask();
+        assertEquals(RUNNING, taskControl.getTaskStage());
+        taskControl.updateTaskStage(COMPLETE);
+        assertEquals(COMPLETE, taskControl.getTaskStage());
+    }
+
+    @Test
+    public void testAwaitNextStage() throws Exception {
+
+        AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TaskControl.TaskStage>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> taskControl.awaitNextStage(RUNNING)));
+        }
+
+        assertEquals(PENDING, taskControl.awaitNextStage(PENDING, 10, TimeUnit.MILLISECONDS));
+        taskControl.updateTaskStage(RUNNING);
+        assertEquals(RUNNING, taskControl.awaitNextStage(PENDING));
+        assertEquals(RUNNING, taskControl.awaitNextStage(RUNNING, 0));
+        taskControl.updateTaskStage(FAILED);
+        for (Future<TaskControl.TaskStage> future : futures) {
+            assertEquals(FAILED, future.get(1, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        try {
+            taskControl.awaitNextStage(FAILED);
+            fail();
+        } catch (UselessWaitingException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testInterruptedWaiting() throws Exception {
+
+        AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+        Thread.currentThread().interrupt();
+        try {
+            taskControl.awaitNextStage(PENDING);
+            fail();
+        } catch (InterruptedException e) {
+            // expected
+        }
+        assertFalse(Thread.interrupted());
+
+        taskControl.tryUpdateTaskStage(PENDING, RUNNING);
+        Thread.currentThread().interrupt();
+        assertEquals(RUNNING, taskControl.awaitNextStage(PENDING));
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void testOnStage() throws Exception {
+
+        AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+        List<String> calls = new ArrayList<>();
+
+        taskControl.onStage(RUNNING, tc -> calls.add("running"));
+        taskControl.onStage(COMPLETE, tc -> calls.add("complete 1"));
+        taskControl.onStage(COMPLETE, tc -> calls.add("complete 2"));
+        taskControl.onStage(CANCELLED, tc -> calls.add("cancelled"));
+        assertTrue(calls.isEmpty());
+
+        taskControl.tryUpdateTaskStage(PENDING, RUNNING);
+        assertEquals(Collections.singletonList("running"), calls);
+        taskControl.onStage(RUNNING, tc -> calls.add("running late"));
+        taskControl.updateTaskStage(COMPLETE);
+        assertEquals(Arrays.asList("running", "running late", "complete 1", "complete 2"), calls);
+
+        calls.clear();
+        taskControl.onStage(COMPLETE, tc -> calls.add("complete late"));
+        taskControl.onStage(RUNNING, tc -> calls.add("running after finish"));
+        assertEquals(Collections.singletonList("complete late"), calls);
+    }
+
+    @Test
+    public void testConcurrentOnStage() throws Exception {
+
+        int threads = 4;
+        int callbacks = 10000;
+        for (int round = 0; round < 20; round++) {
+            AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < callbacks; j++) {
+                        taskControl.onStage(COMPLETE, tc -> calls.incrementAndGet());
+                    }
+                });
+            }
+            start.countDown();
+            taskControl.updateTaskStage(COMPLETE);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+            assertEquals(threads * callbacks, calls.get());
+        }
+    }
+
+    @Test
+    public void testCompletableFuture() throws Exception {
+
+        AtomicTaskControl complete = new AtomicTaskControl(context -> {}, null, null);
+        CompletableFuture<TaskControl> future = complete.toCompletableFuture();
+        assertFalse(future.isDone());
+        complete.updateTaskStage(COMPLETE);
+        assertSame(complete, future.get());
+
+        AtomicTaskControl failed = new AtomicTaskControl(context -> {}, null, null);
+        future = failed.toCompletableFuture();
+        IllegalStateException cause = new IllegalStateException();
+        failed.setFailureCause(cause);
+        failed.updateTaskStage(FAILED);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+
+        AtomicTaskControl cancelled = new AtomicTaskControl(context -> {}, null, null);
+        cancelled.cancelTask();
+        assertTrue(cancelled.toCompletableFuture().isCancelled());
+    }
+
+    /**
+     * Control, which supports only waiting, delegated to atomic control.
+     */
+    private static class WaitingTaskControl implements TaskControl {
+
+        private final AtomicTaskControl original;
+
+        WaitingTaskControl(AtomicTaskControl original) {
+            this.original = original;
+        }
+
+        @Override
+        public Task getTask() {
+            return original.getTask();
+        }
+
+        @Override
+        public Context getContext() {
+            return original.getContext();
+        }
+
+        @Override
+        public TaskExecutor getExecutor() {
+            return original.getExecutor();
+        }
+
+        @Override
+        public TaskStage getTaskStage() {
+            return original.getTaskStage();
+        }
+
+        @Override
+        public Throwable getFailureCause() {
+            return original.getFailureCause();
+        }
+
+        @Override
+        public TaskStage awaitNextStage(TaskStage startStage)
+                throws UselessWaitingException, InterruptedException {
+            return original.awaitNextStage(startStage);
+        }
+
+        @Override
+        public TaskStage awaitNextStage(TaskStage startStage, long timeout)
+                throws UselessWaitingException, InterruptedException {
+            return original.awaitNextStage(startStage, timeout);
+        }
+
+        @Override
+        public void cancelTask() {
+            original.cancelTask();
+        }
+    }
+
+    @Test
+    public void testDefaultOnStage() throws Exception {
+
+        AtomicTaskControl original = new AtomicTaskControl(context -> {}, null, null);
+        TaskControl taskControl = new WaitingTaskControl(original);
+        CountDownLatch complete = new CountDownLatch(1);
+        AtomicInteger cancelled = new AtomicInteger();
+
+        taskControl.onStage(COMPLETE, tc -> complete.countDown());
+        taskControl.onStage(CANCELLED, tc -> cancelled.incrementAndGet());
+        CompletableFuture<TaskControl> future = taskControl.toCompletableFuture();
+        original.tryUpdateTaskStage(PENDING, RUNNING);
+        original.updateTaskStage(COMPLETE);
+        assertTrue(complete.await(1, TimeUnit.SECONDS));
+        assertSame(taskControl, future.get(1, TimeUnit.SECONDS));
+
+        List<String> calls = new ArrayList<>();
+        taskControl.onStage(COMPLETE, tc -> calls.add("complete late"));
+        taskControl.onStage(RUNNING, tc -> calls.add("running after finish"));
+        assertEquals(Collections.singletonList("complete late"), calls);
+        assertEquals(0, cancelled.get());
+    }
+}
@@ -1,7 +1,16 @@
 package io.github.nnolab.util.taskexe.impl.executors;
 
-import java.util.concurrent.Executor;
-import java.util.function.Function;
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.context.pool.ContextPool;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.test.ContextTI;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static org.junit.Assert.*;
 
 /**
  * Tests for {@link LinkedTaskExecutorService}.
@@ -18,4 +27,94 @@ public class LinkedTaskExecutorServiceTestCase
     protected Function<Executor, LinkedTaskExecutorService> getConstructor() {
         return LinkedTaskExecutorService::new;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BiFunction<Executor, TaskContextFactory, LinkedTaskExecutorService> getContextFactoryConstructor() {
+        return (executor, contextFactory) -> new LinkedTaskExecutorService(executor, false, contextFactory);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BiFunction<Executor, TaskLimit, LinkedTaskExecutorService> getTaskLimitConstructor() {
+        return (executor, taskLimit) -> new LinkedTaskExecutorService(executor, false, null, taskLimit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BiFunction<Executor, AdaptiveConcurrencyLimit, LinkedTaskExecutorService> getConcurrencyLimitConstructor() {
+        return (executor, concurrencyLimit) -> new LinkedTaskExecutorService(executor, true, null,
+                TaskLimit.UNBOUNDED, concurrencyLimit);
+    }
+
+    @Test
+    public void testSubmissionOrder() throws Exception {
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        LinkedTaskExecutorService taskExecutor = new LinkedTaskExecutorService(executor, true);
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(90);
+        List<Task> blocked = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 == 0) {
+                Task task = context -> latch.await();
+                blocked.add(task);
+                taskExecutor.execute(task, null);
+            } else {
+                taskExecutor.execute(context -> finished.countDown(), null);
+            }
+        }
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        while (taskExecutor.getTaskCount() > blocked.size()) {
+            Thread.yield();
+        }
+
+        List<Task> present = new ArrayList<>();
+        for (TaskControl taskControl : taskExecutor.getTasks()) {
+            present.add(taskControl.getTask());
+        }
+        assertEquals(blocked, present);
+
+        latch.countDown();
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertFalse(taskExecutor.getTasks().iterator().hasNext());
+    }
+
+    @Test
+    public void testGatedTaskCancellation() throws Exception {
+
+        ContextPool<Context> pool = new ContextPool<>(() -> new ContextTI(1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        LinkedTaskExecutorService taskExecutor = new LinkedTaskExecutorService(executor, true,
+                TaskContextFactory.pooled(pool), TaskLimit.UNBOUNDED, new AdaptiveConcurrencyLimit(1, 1, 1));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskControl blocking = taskExecutor.execute(context -> latch.await(), null);
+        TaskControl[] gated = new TaskControl[3];
+        for (int i = 0; i < gated.length; i++) {
+            gated[i] = taskExecutor.execute(context -> {}, null);
+        }
+        List<Integer> pooledOnCancel = new ArrayList<>();
+        gated[1].onStage(TaskControl.TaskStage.CANCELLED, taskControl -> pooledOnCancel.add(pool.getLocalSize()));
+        gated[1].cancelTask();
+        assertEquals(Collections.singletonList(0), pooledOnCancel);
+        assertEquals(1, pool.getLocalSize());
+        assertEquals(3, taskExecutor.getTaskCount());
+
+        latch.countDown();
+        taskExecutor.shutdown();
+        assertTrue(taskExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(TaskControl.TaskStage.COMPLETE, blocking.getTaskStage());
+        assertEquals(TaskControl.TaskStage.COMPLETE, gated[0].getTaskStage());
+        assertEquals(TaskControl.TaskStage.CANCELLED, gated[1].getTaskStage());
+        assertEquals(TaskControl.TaskStage.COMPLETE, gated[2].getTaskStage());
+    }
 }
@@ -0,0 +1,129 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.*;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PriorityTaskExecutorService}.
+ *
+ * @author nnolab
+ */
+public class PriorityTaskExecutorServiceTestCase
+        extends AbstractTaskExecutorServiceTestCase<PriorityTaskExecutorService> {
+
+    protected final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PriorityTaskExecutorService getSynchronousTaskExecutor() {
+        return new PriorityTaskExecutorService(Runnable::run);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PriorityTaskExecutorService getAsynchronousSingleThreadTaskExecutor() {
+        return new PriorityTaskExecutorService(executorService);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PriorityTaskExecutorService getAsynchronousSingleThreadTaskExecutor(ThreadFactory threadFactory) {
+        return new PriorityTaskExecutorService(Executors.newSingleThreadExecutor(Objects.requireNonNull(threadFactory)));
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+
+        PriorityTaskExecutorService taskExecutorService = new PriorityTaskExecutorService(
+                Executors.newSingleThreadExecutor(), true, 3, 0, TimeUnit.MILLISECONDS, null);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        TaskControl gate = taskExecutorService.execute(context -> latch.await(), null, 2);
+        assertEquals(RUNNING, gate.awaitNextStage(PENDING));
+        for (int i = 0; i < 3; i++) {
+            for (int priority = 0; priority < 3; priority++) {
+                int p = priority;
+                taskExecutorService.execute(context -> order.add(p), null, priority);
+            }
+        }
+        latch.countDown();
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList(2, 2, 2, 1, 1, 1, 0, 0, 0), order);
+        LatencyHistogram.Snapshot low = taskExecutorService.getQueueWait(0).snapshot();
+        assertEquals(4, taskExecutorService.getQueueWait(2).snapshot().getCount());
+        assertEquals(3, low.getCount());
+        assertTrue(low.getMean() >= taskExecutorService.getQueueWait(1).snapshot().getMean());
+        assertTrue(low.getPercentile(99) <= low.getMax());
+
+        try {
+            taskExecutorService.execute(context -> {}, null, 3);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAging() throws Exception {
+
+        PriorityTaskExecutorService taskExecutorService = new PriorityTaskExecutorService(
+                Executors.newSingleThreadExecutor(), true, 3, 1, TimeUnit.MILLISECONDS, null);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        TaskControl gate = taskExecutorService.execute(context -> latch.await(), null, 2);
+        assertEquals(RUNNING, gate.awaitNextStage(PENDING));
+        taskExecutorService.execute(context -> order.add(0), null, 0);
+        Thread.sleep(10);
+        taskExecutorService.execute(context -> order.add(1), null, 1);
+        latch.countDown();
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList(0, 1), order);
+    }
+
+    @Test
+    public void testAgingCap() throws Exception {
+
+        PriorityTaskExecutorService taskExecutorService = new PriorityTaskExecutorService(
+                Executors.newSingleThreadExecutor(), true, 3, 1, TimeUnit.MILLISECONDS, null);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        TaskControl gate = taskExecutorService.execute(context -> latch.await(), null, 2);
+        assertEquals(RUNNING, gate.awaitNextStage(PENDING));
+        for (int i = 0; i < 100; i++) {
+            taskExecutorService.execute(context -> order.add(0), null, 0);
+        }
+        Thread.sleep(10);
+        for (int i = 0; i < 3; i++) {
+            taskExecutorService.execute(context -> order.add(2), null, 2);
+        }
+        latch.countDown();
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList(2, 2, 2), order.subList(0, 3));
+        LatencyHistogram.Snapshot high = taskExecutorService.getQueueWait(2).snapshot();
+        LatencyHistogram.Snapshot low = taskExecutorService.getQueueWait(0).snapshot();
+        assertEquals(4, high.getCount());
+        assertEquals(100, low.getCount());
+        assertTrue(high.getMax() < low.getMax());
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.*;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ScheduledTaskExecutorService}.
+ *
+ * @author nnolab
+ */
+public class ScheduledTaskExecutorServiceTestCase
+        extends AbstractTaskExecutorServiceTestCase<ScheduledTaskExecutorService> {
+
+    protected final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ScheduledTaskExecutorService getSynchronousTaskExecutor() {
+        return new ScheduledTaskExecutorService(Runnable::run);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ScheduledTaskExecutorService getAsynchronousSingleThreadTaskExecutor() {
+        return new ScheduledTaskExecutorService(executorService);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ScheduledTaskExecutorService getAsynchronousSingleThreadTaskExecutor(ThreadFactory threadFactory) {
+        return new ScheduledTaskExecutorService(Executors.newSingleThreadExecutor(Objects.requireNonNull(threadFactory)));
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+
+        ScheduledTaskExecutorService taskExecutorService = new ScheduledTaskExecutorService(
+                Executors.newCachedThreadPool(), true);
+        long start = System.nanoTime();
+
+        TaskControl taskControl = taskExecutorService.schedule(context -> {}, null, 50, TimeUnit.MILLISECONDS);
+        assertEquals(PENDING, taskControl.getTaskStage());
+        assertEquals(1, taskExecutorService.getDelayedTaskCount());
+        assertEquals(COMPLETE, taskControl.awaitNextStage(RUNNING, 1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, taskExecutorService.getDelayedTaskCount());
+
+        TaskControl cancelled = taskExecutorService.schedule(context -> fail(), null, 1, TimeUnit.HOURS);
+        assertEquals(1, taskExecutorService.getDelayedTaskCount());
+        cancelled.cancelTask();
+        assertEquals(CANCELLED, cancelled.getTaskStage());
+        assertEquals(0, taskExecutorService.getDelayedTaskCount());
+
+        TaskControl delayed = taskExecutorService.schedule(context -> {}, null, 20, TimeUnit.MILLISECONDS);
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, delayed.getTaskStage());
+        assertEquals(0, taskExecutorService.getTaskCount());
+    }
+
+    @Test
+    public void testScheduleAtFixedRate() throws Exception {
+
+        ScheduledTaskExecutorService taskExecutorService = new ScheduledTaskExecutorService(
+                Executors.newCachedThreadPool(), true);
+        CountDownLatch latch = new CountDownLatch(5);
+
+        TaskControl taskControl = taskExecutorService.scheduleAtFixedRate(
+                context -> latch.countDown(), null, 5, 5, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(RUNNING, taskControl.getTaskStage());
+        taskControl.cancelTask();
+        assertEquals(CANCELLED, taskControl.awaitNextStage(RUNNING, 1, TimeUnit.SECONDS));
+
+        TaskControl failed = taskExecutorService.scheduleAtFixedRate(
+                context -> { throw new IllegalStateException(); }, null, 1, 1, TimeUnit.MILLISECONDS);
+        assertEquals(FAILED, failed.awaitNextStage(RUNNING, 1, TimeUnit.SECONDS));
+
+        TaskControl periodic = taskExecutorService.scheduleAtFixedRate(
+                context -> {}, null, 1, 1, TimeUnit.MILLISECONDS);
+        try {
+            taskExecutorService.scheduleAtFixedRate(context -> {}, null, 1, 0, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(CANCELLED, periodic.getTaskStage());
+    }
+
+    @Test
+    public void testManyTimers() throws Exception {
+
+        ScheduledTaskExecutorService taskExecutorService = new ScheduledTaskExecutorService(
+                Executors.newFixedThreadPool(4), true);
+        int timers = 20000;
+        AtomicInteger fired = new AtomicInteger();
+        List<TaskControl> taskControls = new ArrayList<>(timers);
+        Random random = new Random(1);
+
+        for (int i = 0; i < timers; i++) {
+            taskControls.add(taskExecutorService.schedule(context -> fired.incrementAndGet(),
+                    null, 200 + random.nextInt(200), TimeUnit.MILLISECONDS));
+        }
+        for (int i = 0; i < timers; i += 2) {
+            taskControls.get(i).cancelTask();
+        }
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(5, TimeUnit.SECONDS));
+
+        int cancelled = 0;
+        for (TaskControl taskControl : taskControls) {
+            if (taskControl.getTaskStage() == CANCELLED) {
+                cancelled++;
+            } else {
+                assertEquals(COMPLETE, taskControl.getTaskStage());
+            }
+        }
+        assertEquals(timers, cancelled + fired.get());
+        assertEquals(timers / 2, cancelled);
+        assertEquals(timers, taskExecutorService.getFinishedTaskCount());
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.nnolab.util.taskexe.impl.executors;
 
+import io.github.nnolab.util.taskexe.TaskContextFactory;
+
 import java.util.concurrent.Executor;
-import java.util.function.Function;
+import java.util.function.*;
 
 /**
  * Tests for {@link SeparatedTaskExecutorService}.
@@ -18,4 +20,29 @@ public class SeparatedTaskExecutorServiceTestCase
     protected Function<Executor, SeparatedTaskExecutorService> getConstructor() {
         return SeparatedTaskExecutorService::new;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BiFunction<Executor, TaskContextFactory, SeparatedTaskExecutorService> getContextFactoryConstructor() {
+        return (executor, contextFactory) -> new SeparatedTaskExecutorService(executor, false, contextFactory);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BiFunction<Executor, TaskLimit, SeparatedTaskExecutorService> getTaskLimitConstructor() {
+        return (executor, taskLimit) -> new SeparatedTaskExecutorService(executor, false, null, taskLimit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BiFunction<Executor, AdaptiveConcurrencyLimit, SeparatedTaskExecutorService> getConcurrencyLimitConstructor() {
+        return (executor, concurrencyLimit) -> new SeparatedTaskExecutorService(executor, true, null,
+                TaskLimit.UNBOUNDED, concurrencyLimit);
+    }
 }
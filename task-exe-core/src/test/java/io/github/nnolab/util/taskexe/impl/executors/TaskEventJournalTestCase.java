@@ -0,0 +1,143 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TaskEventJournal}.
+ *
+ * @author nnolab
+ */
+public class TaskEventJournalTestCase {
+
+    @Test
+    public void testDrain() {
+
+        TaskEventJournal journal = new TaskEventJournal(3);
+        assertEquals(4, journal.getCapacity());
+        AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+        TaskEventJournal.Cursor cursor = journal.newCursor();
+        List<TaskEventJournal.Event> events = new ArrayList<>();
+
+        assertEquals(0, cursor.drainTo(events, 10));
+        journal.publish(taskControl, PENDING);
+        journal.publish(taskControl, RUNNING);
+        journal.publish(taskControl, COMPLETE);
+        assertEquals(2, cursor.drainTo(events, 2));
+        assertEquals(1, cursor.drainTo(events, 10));
+        assertEquals(3, cursor.getSequence());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, events.get(i).getSequence());
+            assertSame(taskControl.getTask(), events.get(i).getTaskControl().getTask());
+        }
+        assertEquals(Arrays.asList(PENDING, RUNNING, COMPLETE),
+                Arrays.asList(events.get(0).getStage(), events.get(1).getStage(), events.get(2).getStage()));
+
+        events.clear();
+        for (int i = 0; i < 10; i++) {
+            journal.publish(taskControl, COMPLETE);
+        }
+        assertEquals(3, cursor.drainTo(events, 10));
+        assertEquals(7, cursor.getLostCount());
+        assertEquals(10, events.get(0).getSequence());
+        assertEquals(13, cursor.getSequence());
+        assertEquals(9, journal.newCursorFromOldest().getSequence());
+    }
+
+    @Test
+    public void testAwaitDrain() throws Exception {
+
+        TaskEventJournal journal = new TaskEventJournal(1024);
+        TaskEventJournal.Cursor cursor = journal.newCursor();
+        List<TaskEventJournal.Event> events = new ArrayList<>();
+        AtomicTaskControl taskControl = new AtomicTaskControl(context -> {}, null, null);
+
+        assertEquals(0, cursor.awaitDrainTo(events, 10, 10, TimeUnit.MILLISECONDS));
+        new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+            journal.publish(taskControl, PENDING);
+        }).start();
+        assertEquals(1, cursor.awaitDrainTo(events, 10, 1, TimeUnit.SECONDS));
+
+        int producers = 4;
+        int perProducer = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int i = 0; i < producers; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < perProducer; j++) {
+                    journal.publish(taskControl, RUNNING);
+                }
+            });
+        }
+        events.clear();
+        while (events.size() < producers * perProducer) {
+            assertTrue(cursor.awaitDrainTo(events, 64, 1, TimeUnit.SECONDS) > 0);
+        }
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).getSequence());
+        }
+        assertEquals(0, cursor.getLostCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testServiceEvents() throws Exception {
+
+        SeparatedTaskExecutorService taskExecutorService =
+                new SeparatedTaskExecutorService(Executors.newSingleThreadExecutor(), true);
+        TaskEventJournal journal = new TaskEventJournal();
+        taskExecutorService.setEventJournal(journal);
+        TaskEventJournal.Cursor cursor = journal.newCursor();
+
+        int tasks = 10;
+        for (int i = 0; i < tasks; i++) {
+            taskExecutorService.execute(context -> {}, null);
+        }
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+
+        List<TaskEventJournal.Event> events = new ArrayList<>();
+        assertEquals(3 * tasks, cursor.drainTo(events, Integer.MAX_VALUE));
+        Map<TaskControl.TaskStage, Integer> counts = new EnumMap<>(TaskControl.TaskStage.class);
+        for (TaskEventJournal.Event event : events) {
+            counts.merge(event.getStage(), 1, Integer::sum);
+        }
+        assertEquals(Integer.valueOf(tasks), counts.get(PENDING));
+        assertEquals(Integer.valueOf(tasks), counts.get(RUNNING));
+        assertEquals(Integer.valueOf(tasks), counts.get(COMPLETE));
+    }
+
+    @Test
+    public void testDeniedBatchNotPublished() {
+
+        WorkStealingTaskExecutorService taskExecutorService = new WorkStealingTaskExecutorService(0);
+        TaskEventJournal journal = new TaskEventJournal();
+        taskExecutorService.setEventJournal(journal);
+        TaskEventJournal.Cursor cursor = journal.newCursor();
+
+        taskExecutorService.executeAll(Arrays.asList(context -> {}, context -> {}), task -> null);
+        taskExecutorService.shutdown();
+        try {
+            taskExecutorService.executeAll(Arrays.asList(context -> {}, context -> {}), task -> null);
+            fail();
+        } catch (DeniedExecutionException e) {
+            // expected
+        }
+
+        List<TaskEventJournal.Event> events = new ArrayList<>();
+        assertEquals(6, cursor.drainTo(events, Integer.MAX_VALUE));
+        assertEquals(PENDING, events.get(0).getStage());
+        assertEquals(PENDING, events.get(1).getStage());
+    }
+}
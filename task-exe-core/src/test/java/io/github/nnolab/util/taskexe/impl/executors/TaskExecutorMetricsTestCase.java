@@ -0,0 +1,120 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.TaskControl;
+import io.github.nnolab.util.taskexe.TaskControl.TaskStage;
+import io.github.nnolab.util.taskexe.exceptions.DeniedExecutionException;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TaskExecutorMetrics} and {@link LatencyHistogram}.
+ *
+ * @author nnolab
+ */
+public class TaskExecutorMetricsTestCase {
+
+    @Test
+    public void testHistogramBuckets() {
+
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long lower = LatencyHistogram.lowerBound(i);
+            assertEquals(i, LatencyHistogram.bucketOf(lower));
+            if (i < LatencyHistogram.BUCKETS - 1) {
+                long upper = LatencyHistogram.upperBound(i);
+                assertEquals(i, LatencyHistogram.bucketOf(upper));
+                assertEquals(i + 1, LatencyHistogram.bucketOf(upper + 1));
+                assertTrue(upper - lower < Math.max(lower / LatencyHistogram.SUB_BUCKETS, 1));
+            }
+        }
+        assertEquals(0, LatencyHistogram.bucketOf(-1));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500000L, snapshot.getSum());
+        assertEquals(500500, snapshot.getMean());
+        assertTrue(Math.abs(snapshot.getPercentile(50) - 500000) < 500000 / LatencyHistogram.SUB_BUCKETS);
+        assertTrue(Math.abs(snapshot.getPercentile(99) - 990000) < 990000 / LatencyHistogram.SUB_BUCKETS);
+        assertTrue(snapshot.getMax() >= 1000000);
+
+        assertEquals(1000, histogram.snapshotAndReset().getCount());
+        assertEquals(0, histogram.snapshot().getCount());
+        histogram.record(5);
+        assertEquals(1, histogram.snapshot().getBucketCount(5));
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 4;
+        int perThread = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    histogram.record(j);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void testServiceMetrics() throws Exception {
+
+        SeparatedTaskExecutorService taskExecutorService =
+                new SeparatedTaskExecutorService(Executors.newSingleThreadExecutor(), true);
+        TaskExecutorMetrics metrics = new TaskExecutorMetrics();
+        taskExecutorService.setMetrics(metrics);
+        assertSame(metrics, taskExecutorService.getMetrics());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        TaskControl blocking = taskExecutorService.execute(context -> latch.await(), null);
+        for (int i = 0; i < 8; i++) {
+            taskExecutorService.execute(context -> Thread.sleep(1), null);
+        }
+        taskExecutorService.execute(context -> {
+            throw new IllegalStateException();
+        }, null);
+        taskExecutorService.execute(context -> {}, null).cancelTask();
+        blocking.awaitNextStage(TaskStage.PENDING);
+        Thread.sleep(10);
+        latch.countDown();
+        taskExecutorService.shutdown();
+        try {
+            taskExecutorService.execute(context -> {}, null);
+            fail();
+        } catch (DeniedExecutionException e) {
+            // expected
+        }
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+
+        TaskExecutorMetrics.Snapshot snapshot = metrics.snapshotAndReset();
+        assertEquals(11, snapshot.getSubmittedCount());
+        assertEquals(10, snapshot.getStartedCount());
+        assertEquals(9, snapshot.getCompletedCount());
+        assertEquals(1, snapshot.getFailedCount());
+        assertEquals(1, snapshot.getCancelledCount());
+        assertEquals(1, snapshot.getDeniedCount());
+        assertEquals(10, snapshot.getQueueWait().getCount());
+        assertEquals(10, snapshot.getRunTime().getCount());
+        assertTrue(snapshot.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(snapshot.getRunTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(10));
+
+        snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getSubmittedCount());
+        assertEquals(0, snapshot.getRunTime().getCount());
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.nnolab.util.taskexe.impl.executors;
+
+import io.github.nnolab.util.taskexe.*;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link WorkStealingTaskExecutorService}.
+ *
+ * @author nnolab
+ */
+public class WorkStealingTaskExecutorServiceTestCase
+        extends AbstractTaskExecutorServiceTestCase<WorkStealingTaskExecutorService> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected WorkStealingTaskExecutorService getSynchronousTaskExecutor() {
+        return new WorkStealingTaskExecutorService(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected WorkStealingTaskExecutorService getAsynchronousSingleThreadTaskExecutor() {
+        return new WorkStealingTaskExecutorService(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected WorkStealingTaskExecutorService getAsynchronousSingleThreadTaskExecutor(ThreadFactory threadFactory) {
+        return new WorkStealingTaskExecutorService(1, threadFactory);
+    }
+
+    @Test
+    public void testWorkStealing() throws Exception {
+
+        final WorkStealingTaskExecutorService taskExecutorService = new WorkStealingTaskExecutorService(4);
+        final AtomicInteger executed = new AtomicInteger();
+        final int forks = 100;
+        final int leaves = 100;
+        final CountDownLatch latch = new CountDownLatch(forks * (leaves + 1));
+
+        final Task leaf = context -> {
+            executed.incrementAndGet();
+            latch.countDown();
+        };
+        final Task fork = context -> {
+            for (int i = 0; i < leaves; i++) {
+                taskExecutorService.execute(leaf, null);
+            }
+            leaf.execute(context);
+        };
+
+        assertEquals(4, taskExecutorService.getParallelism());
+        for (int i = 0; i < forks; i++) {
+            taskExecutorService.execute(fork, null);
+        }
+
+        latch.await();
+        taskExecutorService.shutdown();
+        taskExecutorService.awaitTermination();
+
+        assertTrue(taskExecutorService.isTerminated());
+        assertEquals(forks * (leaves + 1), executed.get());
+        assertEquals(0, taskExecutorService.getTaskCount());
+        assertFalse(taskExecutorService.getTasks().iterator().hasNext());
+    }
+
+    @Test
+    public void testSynchronousShutdown() {
+
+        final WorkStealingTaskExecutorService taskExecutorService = getSynchronousTaskExecutor();
+
+        TaskControl taskControl = taskExecutorService.execute(context -> {}, null);
+        assertEquals(COMPLETE, taskControl.getTaskStage());
+        assertEquals(0, taskExecutorService.getTaskCount());
+
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.isTerminated());
+        assertFalse(taskExecutorService.isTerminating());
+    }
+}
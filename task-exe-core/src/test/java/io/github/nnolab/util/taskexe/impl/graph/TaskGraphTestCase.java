@@ -0,0 +1,183 @@
+package io.github.nnolab.util.taskexe.impl.graph;
+
+import io.github.nnolab.util.context.Context;
+import io.github.nnolab.util.taskexe.*;
+import io.github.nnolab.util.taskexe.impl.executors.SeparatedTaskExecutorService;
+import io.github.nnolab.util.taskexe.impl.executors.SynchronousTaskExecutor;
+import io.github.nnolab.util.taskexe.test.ContextTI;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TaskGraph}.
+ *
+ * @author nnolab
+ */
+public class TaskGraphTestCase {
+
+    @Test
+    public void testOrder() throws Exception {
+
+        TaskGraph graph = new TaskGraph();
+        Context context = new ContextTI(4);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CyclicBarrier barrier = new CyclicBarrier(2);
+
+        TaskGraph.Node a = graph.add(c -> order.add("a"));
+        TaskGraph.Node b = graph.add(c -> {
+            barrier.await(1, TimeUnit.SECONDS);
+            order.add("b");
+        }, a);
+        TaskGraph.Node c = graph.add(ctx -> {
+            barrier.await(1, TimeUnit.SECONDS);
+            order.add("c");
+        }, a);
+        TaskGraph.Node d = graph.add(ctx -> order.add("d" + ctx.size()), b, c);
+        graph.add(ctx -> ctx.put("e", "e"), a);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        TaskExecutorService taskExecutorService = new SeparatedTaskExecutorService(executor, true);
+        TaskGraphControl control = graph.execute(taskExecutorService, context);
+        assertTrue(control.awaitAll(1, TimeUnit.SECONDS));
+        taskExecutorService.shutdown();
+
+        assertEquals(5, control.size());
+        assertEquals(5, control.getStageCount(COMPLETE));
+        assertEquals("a", order.get(0));
+        assertEquals(new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(order.subList(1, 3)));
+        assertTrue(order.get(3).startsWith("d"));
+        assertSame(d.getTask(), control.get(d).getTask());
+        assertEquals("e", context.get("e"));
+    }
+
+    @Test
+    public void testFailurePropagation() throws Exception {
+
+        TaskGraph graph = new TaskGraph();
+        Exception failure = new Exception();
+
+        TaskGraph.Node a = graph.add(c -> {});
+        TaskGraph.Node b = graph.add(c -> {
+            throw failure;
+        }, a);
+        TaskGraph.Node c = graph.add(ctx -> {}, b);
+        TaskGraph.Node d = graph.add(ctx -> {}, a, c);
+        TaskGraph.Node e = graph.add(ctx -> {}, a);
+
+        TaskGraphControl control = graph.execute(new SynchronousTaskExecutor(), null);
+        assertTrue(control.isFinished());
+        assertEquals(COMPLETE, control.get(a).getTaskStage());
+        assertEquals(FAILED, control.get(b).getTaskStage());
+        assertSame(failure, control.get(b).getFailureCause());
+        assertEquals(CANCELLED, control.get(c).getTaskStage());
+        assertEquals(CANCELLED, control.get(d).getTaskStage());
+        assertEquals(COMPLETE, control.get(e).getTaskStage());
+    }
+
+    @Test
+    public void testCancellation() throws Exception {
+
+        TaskGraph graph = new TaskGraph();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskGraph.Node a = graph.add(c -> latch.await());
+        TaskGraph.Node b = graph.add(c -> {}, a);
+        TaskGraph.Node c = graph.add(ctx -> {}, b);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TaskExecutorService taskExecutorService = new SeparatedTaskExecutorService(executor, true);
+        TaskGraphControl control = graph.execute(taskExecutorService, null);
+        control.get(b).cancelTask();
+        assertEquals(CANCELLED, control.get(c).getTaskStage());
+        latch.countDown();
+        assertTrue(control.awaitAll(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, control.get(a).getTaskStage());
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancellationByExecutor() throws Exception {
+
+        TaskGraph graph = new TaskGraph();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TaskGraph.Node a = graph.add(c -> latch.await());
+        TaskGraph.Node b = graph.add(c -> {});
+        TaskGraph.Node c = graph.add(ctx -> {}, b);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TaskExecutorService taskExecutorService = new SeparatedTaskExecutorService(executor, false);
+        TaskGraphControl control = graph.execute(taskExecutorService, null);
+        assertEquals(RUNNING, control.get(a).awaitNextStage(PENDING, 1, TimeUnit.SECONDS));
+        taskExecutorService.shutdownNow();
+        assertEquals(CANCELLED, control.get(b).getTaskStage());
+        assertEquals(CANCELLED, control.get(c).getTaskStage());
+        latch.countDown();
+        assertTrue(control.awaitAll(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, control.get(a).getTaskStage());
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFailureOfExecutor() throws Exception {
+
+        TaskGraph graph = new TaskGraph();
+        TaskGraph.Node a = graph.add(c -> {});
+        TaskGraph.Node b = graph.add(c -> {}, a);
+        TaskGraph.Node c = graph.add(ctx -> {}, b);
+        TaskGraph.Node d = graph.add(ctx -> {}, a);
+        TaskGraph.Node e = graph.add(ctx -> {}, d);
+
+        SynchronousTaskExecutor synchronous = new SynchronousTaskExecutor();
+        int[] calls = new int[1];
+        TaskExecutor executor = (task, context) -> {
+            if (++calls[0] == 2) {
+                throw new IllegalStateException();
+            }
+            return synchronous.execute(task, context);
+        };
+        TaskGraphControl control = graph.execute(executor, null);
+        assertTrue(control.awaitAll(1, TimeUnit.SECONDS));
+        assertEquals(COMPLETE, control.get(a).getTaskStage());
+        assertEquals(CANCELLED, control.get(b).getTaskStage());
+        assertEquals(CANCELLED, control.get(c).getTaskStage());
+        assertEquals(COMPLETE, control.get(d).getTaskStage());
+        assertEquals(COMPLETE, control.get(e).getTaskStage());
+    }
+
+    @Test
+    public void testValidation() {
+
+        TaskGraph graph = new TaskGraph();
+        TaskGraph.Node a = graph.add(c -> {});
+        TaskGraph.Node b = graph.add(c -> {}, a);
+        a.after(b);
+        try {
+            graph.execute(new SynchronousTaskExecutor(), null);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        TaskGraph.Node foreign = new TaskGraph().add(c -> {});
+        try {
+            a.after(foreign);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            a.after(a);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
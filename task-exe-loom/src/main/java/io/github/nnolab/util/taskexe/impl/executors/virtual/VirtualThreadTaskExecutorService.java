@@ -0,0 +1,67 @@
+package io.github.nnolab.util.taskexe.impl.executors.virtual;
+
+import io.github.nnolab.util.taskexe.TaskContextFactory;
+import io.github.nnolab.util.taskexe.impl.executors.SeparatedTaskExecutorService;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link SeparatedTaskExecutorService}, that executes every task
+ * on its own virtual thread. Number of concurrently blocked tasks
+ * is not limited by size of platform thread pool.
+ * <p>Waiting in {@link io.github.nnolab.util.taskexe.TaskControl#awaitNextStage}
+ * and in action and termination waiting methods of service parks
+ * waiting thread without monitors, so virtual threads do not pin
+ * their carriers while waiting.
+ * <p>Requires Java 21 or later.
+ *
+ * @author nnolab
+ */
+public class VirtualThreadTaskExecutorService extends SeparatedTaskExecutorService {
+
+    /**
+     * Default prefix of virtual thread names.
+     */
+    public static final String DEFAULT_NAME_PREFIX = "task-exe-virtual-";
+
+    /**
+     * Create task executor service, starting virtual threads with names,
+     * made of specified prefix and sequence number, and with
+     * context factory for tasks, submitted without context.
+     *
+     * @param namePrefix     prefix of virtual thread names
+     * @param contextFactory factory of contexts for tasks without context,
+     *                       may be {@code null}
+     * @throws NullPointerException if name prefix is {@code null}
+     */
+    public VirtualThreadTaskExecutorService(String namePrefix, TaskContextFactory contextFactory) {
+        super(virtualThreadExecutor(Thread.ofVirtual().name(Objects.requireNonNull(namePrefix), 0).factory()),
+                false, contextFactory);
+    }
+
+    /**
+     * @see #VirtualThreadTaskExecutorService(String, TaskContextFactory)
+     */
+    public VirtualThreadTaskExecutorService(TaskContextFactory contextFactory) {
+        this(DEFAULT_NAME_PREFIX, contextFactory);
+    }
+
+    /**
+     * @see #VirtualThreadTaskExecutorService(String, TaskContextFactory)
+     */
+    public VirtualThreadTaskExecutorService() {
+        this(DEFAULT_NAME_PREFIX, null);
+    }
+
+    /**
+     * Executor, starting new thread of specified factory for every command.
+     *
+     * @param threadFactory factory of virtual threads
+     * @return executor
+     */
+    private static Executor virtualThreadExecutor(ThreadFactory threadFactory) {
+        return command -> threadFactory.newThread(command).start();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.nnolab.util.taskexe.impl.executors.virtual;
+
+import io.github.nnolab.util.taskexe.TaskControl;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.nnolab.util.taskexe.TaskControl.TaskStage.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link VirtualThreadTaskExecutorService}.
+ *
+ * @author nnolab
+ */
+public class VirtualThreadTaskExecutorServiceTestCase {
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+
+        VirtualThreadTaskExecutorService taskExecutorService = new VirtualThreadTaskExecutorService();
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+
+        TaskControl taskControl = taskExecutorService.execute(context -> thread.complete(Thread.currentThread()), null);
+        assertEquals(COMPLETE, taskControl.awaitNextStage(RUNNING, 1, TimeUnit.SECONDS));
+        assertTrue(thread.get().isVirtual());
+        assertTrue(thread.get().getName().startsWith(VirtualThreadTaskExecutorService.DEFAULT_NAME_PREFIX));
+
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBlockingTasks() throws Exception {
+
+        int tasks = 10000;
+        VirtualThreadTaskExecutorService taskExecutorService = new VirtualThreadTaskExecutorService();
+        TaskControl gate = taskExecutorService.execute(context -> Thread.sleep(100), null);
+        AtomicInteger passed = new AtomicInteger();
+
+        for (int i = 0; i < tasks; i++) {
+            taskExecutorService.execute(context -> {
+                gate.awaitNextStage(RUNNING);
+                passed.incrementAndGet();
+            }, null);
+        }
+
+        taskExecutorService.shutdown();
+        assertTrue(taskExecutorService.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(tasks, passed.get());
+        assertEquals(tasks + 1, taskExecutorService.getFinishedTaskCount());
+    }
+}